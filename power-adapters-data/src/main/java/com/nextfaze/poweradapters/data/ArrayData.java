@@ -2,6 +2,8 @@ package com.nextfaze.poweradapters.data;
 
 import android.support.annotation.CallSuper;
 import android.support.annotation.Nullable;
+import com.nextfaze.poweradapters.Equivalence;
+import com.nextfaze.poweradapters.internal.Diff;
 import com.nextfaze.poweradapters.internal.NotifyingArrayList;
 import lombok.NonNull;
 
@@ -9,6 +11,8 @@ import java.io.Closeable;
 import java.util.ArrayList;
 import java.util.List;
 
+import static com.nextfaze.poweradapters.internal.NotifyingArrayList.nonNullElements;
+
 /**
  * Simple mutable {@link Data} implementation backed by an {@link ArrayList}. Cannot contain {@code null} elements. Not
  * thread-safe.
@@ -35,9 +39,18 @@ public abstract class ArrayData<T> extends Data<T> implements Closeable {
     /** @see #available() */
     private int mAvailable = Integer.MAX_VALUE;
 
+    /** @see #setEquivalence(Equivalence) */
+    @Nullable
+    private Equivalence<? super T> mEquivalence;
+
     protected ArrayData() {
     }
 
+    /** @param scheduler The scheduler used to load elements in the background, and deliver them. */
+    protected ArrayData(@NonNull DataScheduler scheduler) {
+        super(scheduler);
+    }
+
     @CallSuper
     @Override
     public void close() {
@@ -98,6 +111,22 @@ public abstract class ArrayData<T> extends Data<T> implements Closeable {
         return mAvailable;
     }
 
+    @Nullable
+    public final Equivalence<? super T> getEquivalence() {
+        return mEquivalence;
+    }
+
+    /**
+     * Sets the {@link Equivalence} used to compare the current elements with newly loaded elements. If non-null, each
+     * load issues the minimal set of insertion, removal, move, and change notifications, instead of a change
+     * notification for every element. The comparison is performed in the background, against a snapshot of the
+     * contents at the time loading began. If the contents are modified before the result is delivered, the comparison
+     * is performed again.
+     */
+    public final void setEquivalence(@Nullable Equivalence<? super T> equivalence) {
+        mEquivalence = equivalence;
+    }
+
     /**
      * Returns this {@link ArrayData} as a mutable list. Operations performed on the returned {@link List} are reflected
      * in this {@link ArrayData}, and the correct notifications will be issued.
@@ -108,6 +137,13 @@ public abstract class ArrayData<T> extends Data<T> implements Closeable {
         return mData;
     }
 
+    /** Returns an immutable snapshot of the elements in constant time, by sharing the backing array. */
+    @NonNull
+    @Override
+    public List<T> snapshot() {
+        return mData.snapshot();
+    }
+
     /** Called in a background thread to load the data set. */
     @NonNull
     protected abstract List<? extends T> load() throws Throwable;
@@ -133,23 +169,21 @@ public abstract class ArrayData<T> extends Data<T> implements Closeable {
         // If we're not shown we don't care about the data.
         // Only load if data is marked as dirty.
         if (mDirty && mTask == null && getDataObserverCount() > 0) {
-            // TODO: Replace use of Task with either a plain Thread or use of an Executor.
-            mTask = new Task<List<? extends T>>() {
+            final Equivalence<? super T> equivalence = mEquivalence;
+            // Snapshot the current contents, so they can be diffed against the new contents in the background.
+            final List<T> snapshot = equivalence != null ? mData.snapshot() : null;
+            final int modificationCount = mData.getModificationCount();
+            mTask = new Task<Result<T>>(getScheduler()) {
                 @Override
-                protected List<? extends T> call() throws Throwable {
-                    return load();
+                protected Result<T> call() throws Throwable {
+                    List<T> elements = nonNullElements(load());
+                    Diff diff = snapshot != null ? Diff.compute(snapshot, elements, equivalence) : null;
+                    return new Result<>(elements, diff);
                 }
 
                 @Override
-                protected void onSuccess(@NonNull List<? extends T> data) throws Throwable {
-                    onClear();
-                    mDirty = false;
-                    mClear = false;
-                    mData.replaceAll(data);
-                    setAvailable(0);
-                    mTask = null;
-                    loadDataIfAppropriate();
-                    updateLoading();
+                protected void onSuccess(@NonNull Result<T> result) throws Throwable {
+                    applyResult(result, modificationCount, equivalence);
                 }
 
                 @Override
@@ -163,6 +197,54 @@ public abstract class ArrayData<T> extends Data<T> implements Closeable {
         }
     }
 
+    private void applyResult(@NonNull Result<T> result,
+                             int modificationCount,
+                             @Nullable Equivalence<? super T> equivalence) {
+        Diff diff = result.mDiff;
+        if (diff != null && equivalence != null && mData.getModificationCount() != modificationCount) {
+            // Contents were modified since the snapshot was taken, so the diff is no longer valid.
+            diffInBackground(result.mElements, equivalence);
+            return;
+        }
+        onClear();
+        mDirty = false;
+        mClear = false;
+        if (diff != null) {
+            mData.apply(diff, result.mElements);
+        } else {
+            mData.replaceAll(result.mElements);
+        }
+        setAvailable(0);
+        mTask = null;
+        loadDataIfAppropriate();
+        updateLoading();
+    }
+
+    /** Recomputes the diff between the current contents and already loaded elements in the background. */
+    private void diffInBackground(@NonNull final List<T> elements, @NonNull final Equivalence<? super T> equivalence) {
+        final List<T> snapshot = mData.snapshot();
+        final int modificationCount = mData.getModificationCount();
+        mTask = new Task<Result<T>>(getScheduler()) {
+            @Override
+            protected Result<T> call() throws Throwable {
+                return new Result<>(elements, Diff.compute(snapshot, elements, equivalence));
+            }
+
+            @Override
+            protected void onSuccess(@NonNull Result<T> result) throws Throwable {
+                applyResult(result, modificationCount, equivalence);
+            }
+
+            @Override
+            protected void onFailure(@NonNull Throwable e) throws Throwable {
+                mTask = null;
+                updateLoading();
+                notifyError(e);
+            }
+        };
+        mTask.execute();
+    }
+
     private void cancelTask() {
         if (mTask != null) {
             mTask.cancel();
@@ -187,4 +269,19 @@ public abstract class ArrayData<T> extends Data<T> implements Closeable {
             notifyAvailableChanged();
         }
     }
+
+    private static final class Result<T> {
+
+        @NonNull
+        final List<T> mElements;
+
+        /** The diff from a snapshot of the contents to {@link #mElements}, if an equivalence was set. */
+        @Nullable
+        final Diff mDiff;
+
+        Result(@NonNull List<T> elements, @Nullable Diff diff) {
+            mElements = elements;
+            mDiff = diff;
+        }
+    }
 }
@@ -0,0 +1,450 @@
+package com.nextfaze.poweradapters.data;
+
+import android.support.annotation.CallSuper;
+import android.support.annotation.Nullable;
+import android.support.annotation.UiThread;
+import android.support.annotation.WorkerThread;
+import com.nextfaze.poweradapters.data.IncrementalArrayData.Result;
+import com.nextfaze.poweradapters.internal.NotifyingArrayList;
+import lombok.NonNull;
+
+import java.io.Closeable;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Mutable {@link Data} implementation backed by an {@link ArrayList}, which is loaded incrementally in both directions
+ * from an initial increment. Increments preceding the first element are loaded when an element near the head is
+ * presented, and inserted at position {@code 0}. Increments following the last element are loaded when an element near
+ * the tail is presented, and appended. If a maximum size is set, elements are trimmed from the end opposite to the
+ * one that grew. Cannot contain {@code null} elements. Not thread-safe.
+ * @param <T> The type of element this data contains.
+ */
+public abstract class BidirectionalArrayData<T> extends Data<T> implements Closeable {
+
+    @NonNull
+    private final NotifyingArrayList<T> mData = new NotifyingArrayList<>(mDataObservable);
+
+    @NonNull
+    private final End mHead = new End(true);
+
+    @NonNull
+    private final End mTail = new End(false);
+
+    /** The number of rows from either end to look ahead before loading. */
+    private int mLookAheadRowCount = 5;
+
+    /** @see #setMaxSize(int) */
+    private int mMaxSize = Integer.MAX_VALUE;
+
+    /** Indicates loading has begun with the initial increment, and hasn't been stopped since. */
+    private boolean mStarted;
+
+    /** Indicates the initial increment has been applied since loading began. */
+    private boolean mInitialized;
+
+    private boolean mLoading;
+    private int mAvailable = Integer.MAX_VALUE;
+    private boolean mDirty = true;
+    private boolean mClear;
+
+    protected BidirectionalArrayData() {
+        this(DataSchedulers.main());
+    }
+
+    /** @param scheduler The scheduler used to load increments in the background, and deliver them. */
+    @SuppressWarnings("WeakerAccess")
+    protected BidirectionalArrayData(@NonNull DataScheduler scheduler) {
+        super(scheduler);
+    }
+
+    @CallSuper
+    @Override
+    public void close() {
+        stopLoading();
+        mData.clear();
+        mData.trimToSize();
+    }
+
+    @Override
+    public final int size() {
+        return mData.size();
+    }
+
+    @NonNull
+    @Override
+    public final T get(int position, int flags) {
+        // The presence of the presentation flag indicates this is a good time to continue loading elements.
+        if ((flags & FLAG_PRESENTATION) != 0) {
+            // May be called during layout, so loading state changes mustn't be dispatched from here.
+            beginDeferringState();
+            try {
+                if (position <= mLookAheadRowCount) {
+                    mHead.proceed();
+                }
+                if (position >= size() - 1 - mLookAheadRowCount) {
+                    mTail.proceed();
+                }
+            } finally {
+                endDeferringState();
+            }
+        }
+        return mData.get(position);
+    }
+
+    public final void clear() {
+        mClear = false;
+        onClear();
+        mData.clear();
+    }
+
+    @Override
+    public final void invalidate() {
+        mDirty = true;
+        mClear = true;
+    }
+
+    @Override
+    public final void refresh() {
+        stopLoading();
+        mDirty = true;
+        startLoadingIfNeeded();
+        updateLoading();
+    }
+
+    @Override
+    public final void reload() {
+        clear();
+        refresh();
+    }
+
+    /** Load the next increment of elements preceding the first element. */
+    @UiThread
+    public final void loadPrevious() {
+        mHead.proceed();
+    }
+
+    /** Load the next increment of elements following the last element. */
+    @UiThread
+    public final void loadNext() {
+        mTail.proceed();
+    }
+
+    @UiThread
+    public final int getLookAheadRowCount() {
+        return mLookAheadRowCount;
+    }
+
+    /** Set the number of rows from either end to "look ahead" before loading automatically. */
+    @UiThread
+    public final void setLookAheadRowCount(int lookAheadRowCount) {
+        mLookAheadRowCount = lookAheadRowCount;
+    }
+
+    @UiThread
+    public final int getMaxSize() {
+        return mMaxSize;
+    }
+
+    /**
+     * Sets the maximum number of elements retained. When an increment causes this to be exceeded, elements are removed
+     * from the opposite end, which may then be loaded again. Defaults to {@link Integer#MAX_VALUE}.
+     * @see #onHeadTrimmed(int)
+     * @see #onTailTrimmed(int)
+     */
+    @UiThread
+    public final void setMaxSize(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Max size must be >= 1");
+        }
+        mMaxSize = maxSize;
+    }
+
+    @Override
+    public final boolean isLoading() {
+        return mLoading;
+    }
+
+    /** Returns the number of elements available to be loaded following the last element. */
+    @Override
+    public final int available() {
+        return mAvailable;
+    }
+
+    /**
+     * Returns this {@link BidirectionalArrayData} as a mutable list. Operations performed on the returned {@link List}
+     * are reflected in this {@link BidirectionalArrayData}, and the correct notifications will be issued.
+     */
+    @NonNull
+    @Override
+    public List<T> asList() {
+        return mData;
+    }
+
+    /** Returns an immutable snapshot of the elements in constant time, by sharing the backing array. */
+    @NonNull
+    @Override
+    public List<T> snapshot() {
+        return mData.snapshot();
+    }
+
+    @CallSuper
+    @Override
+    protected void onFirstDataObserverRegistered() {
+        super.onFirstDataObserverRegistered();
+        // Last attempts to load an increment may have failed, so try again now we've become visible again.
+        if (mHead.mError) {
+            mHead.proceed();
+        }
+        if (mTail.mError) {
+            mTail.proceed();
+        }
+        if (mClear) {
+            mClear = false;
+            onClear();
+            mData.clear();
+        }
+        startLoadingIfNeeded();
+        updateLoading();
+    }
+
+    /**
+     * Called from a worker thread to load the initial increment of items, from which loading proceeds in both
+     * directions. By default, calls {@link #loadTail()}.
+     * @return A result containing the initial elements, or {@code null} if there are none. The result also indicates
+     * how many elements follow these.
+     * @throws Throwable If any error occurs while trying to load.
+     */
+    @WorkerThread
+    @Nullable
+    protected Result<? extends T> loadInitial() throws Throwable {
+        return loadTail();
+    }
+
+    /**
+     * Called from a worker thread to load the increment of items preceding the first element. May be called
+     * concurrently with {@link #loadTail()}.
+     * @return A result containing the elements to be inserted at the head, in presentation order, or {@code null} if
+     * there are no more items. The result also indicates how many elements precede these.
+     * @throws Throwable If any error occurs while trying to load.
+     */
+    @WorkerThread
+    @Nullable
+    protected abstract Result<? extends T> loadHead() throws Throwable;
+
+    /**
+     * Called from a worker thread to load the increment of items following the last element. May be called
+     * concurrently with {@link #loadHead()}.
+     * @return A result containing the elements to be appended, or {@code null} if there are no more items. The result
+     * also indicates how many elements follow these.
+     * @throws Throwable If any error occurs while trying to load.
+     */
+    @WorkerThread
+    @Nullable
+    protected abstract Result<? extends T> loadTail() throws Throwable;
+
+    /** Called prior to elements being cleared. Always called from the UI thread. */
+    @UiThread
+    protected void onClear() {
+    }
+
+    /** Called when loading is about to begin from the initial increment. Always called from the UI thread. */
+    @UiThread
+    protected void onLoadBegin() {
+    }
+
+    /**
+     * Called after elements have been removed from the head to satisfy the maximum size. Subclasses should adjust
+     * the position from which {@link #loadHead()} loads accordingly. Always called from the UI thread.
+     */
+    @UiThread
+    protected void onHeadTrimmed(int count) {
+    }
+
+    /**
+     * Called after elements have been removed from the tail to satisfy the maximum size. Subclasses should adjust
+     * the position from which {@link #loadTail()} loads accordingly. Always called from the UI thread.
+     */
+    @UiThread
+    protected void onTailTrimmed(int count) {
+    }
+
+    private void startLoadingIfNeeded() {
+        if (mDirty && !mStarted && getDataObserverCount() > 0) {
+            mDirty = false;
+            mStarted = true;
+            mInitialized = false;
+            mHead.reset();
+            mTail.reset();
+            onLoadBegin();
+            // The tail loads the initial increment. The head waits until it has been applied.
+            mTail.load();
+        }
+    }
+
+    private void stopLoading() {
+        mHead.cancel();
+        mTail.cancel();
+        mStarted = false;
+    }
+
+    private void applyInitial(@NonNull List<? extends T> elements) {
+        // If invalidated while shown, we lazily clear the data so the user doesn't see blank data while loading.
+        mClear = false;
+        onClear();
+        mData.replaceAll(elements);
+        mInitialized = true;
+    }
+
+    private void applyHead(@NonNull List<? extends T> elements) {
+        mData.addAll(0, elements);
+        int excess = mData.size() - mMaxSize;
+        if (excess > 0) {
+            mTail.cancel();
+            mData.remove(mData.size() - excess, excess);
+            mTail.mMoreAvailable = true;
+            setAvailable(Integer.MAX_VALUE);
+            onTailTrimmed(excess);
+        }
+    }
+
+    private void applyTail(@NonNull List<? extends T> elements) {
+        mData.addAll(elements);
+        int excess = mData.size() - mMaxSize;
+        if (excess > 0) {
+            mHead.cancel();
+            mData.remove(0, excess);
+            mHead.mMoreAvailable = true;
+            onHeadTrimmed(excess);
+        }
+    }
+
+    private void updateLoading() {
+        setLoading(mHead.mTask != null || mTail.mTask != null);
+    }
+
+    private void setLoading(boolean loading) {
+        if (mLoading != loading) {
+            mLoading = loading;
+            notifyLoadingChanged();
+        }
+    }
+
+    private void setAvailable(int available) {
+        if (mAvailable != available) {
+            mAvailable = available;
+            notifyAvailableChanged();
+        }
+    }
+
+    /** The loading state of one end of the data. */
+    private final class End {
+
+        final boolean mIsHead;
+
+        /** The task loading the current increment at this end, if any. */
+        @Nullable
+        FutureTask<Void> mTask;
+
+        /** Incremented each time loading is canceled, so results of canceled tasks can be discarded. */
+        int mGeneration;
+
+        /** Indicates the source has more elements to be loaded at this end. */
+        boolean mMoreAvailable;
+
+        /** Indicates the last attempt to load an increment at this end failed. */
+        boolean mError;
+
+        End(boolean isHead) {
+            mIsHead = isHead;
+        }
+
+        void reset() {
+            mMoreAvailable = true;
+            mError = false;
+        }
+
+        /** Submits a task to load the next increment, or does nothing if one is already loading or none remain. */
+        void proceed() {
+            mError = false;
+            // Until the initial increment has been applied, only the tail may load, since it loads the initial one.
+            if (mStarted && (mInitialized || !mIsHead) && mTask == null && mMoreAvailable) {
+                load();
+            }
+        }
+
+        void cancel() {
+            if (mTask != null) {
+                mTask.cancel(true);
+                mTask = null;
+            }
+            mGeneration++;
+        }
+
+        void load() {
+            final int generation = mGeneration;
+            final boolean initial = !mInitialized;
+            mTask = new FutureTask<>(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    try {
+                        final Result<? extends T> result =
+                                initial ? loadInitial() : mIsHead ? loadHead() : loadTail();
+                        runOnUiThread(new Runnable() {
+                            @Override
+                            public void run() {
+                                if (generation == mGeneration) {
+                                    onLoaded(result, initial);
+                                }
+                            }
+                        });
+                    } catch (InterruptedException | InterruptedIOException e) {
+                        // Loading was canceled.
+                    } catch (final Throwable e) {
+                        runOnUiThread(new Runnable() {
+                            @Override
+                            public void run() {
+                                if (generation == mGeneration) {
+                                    onFailed(e);
+                                }
+                            }
+                        });
+                    }
+                    return null;
+                }
+            });
+            FutureTask<Void> task = mTask;
+            updateLoading();
+            getScheduler().execute(task);
+        }
+
+        void onLoaded(@Nullable Result<? extends T> result, boolean initial) {
+            mTask = null;
+            mMoreAvailable = result != null && result.getRemaining() > 0;
+            if (!mIsHead) {
+                setAvailable(result != null ? result.getRemaining() : 0);
+            }
+            List<? extends T> elements = result != null ? result.getElements() : Collections.<T>emptyList();
+            if (initial) {
+                applyInitial(elements);
+            } else if (mIsHead) {
+                applyHead(elements);
+            } else {
+                applyTail(elements);
+            }
+            updateLoading();
+        }
+
+        void onFailed(@NonNull Throwable e) {
+            // Loading must be explicitly resumed after an error.
+            mTask = null;
+            mError = true;
+            notifyError(e);
+            updateLoading();
+        }
+    }
+}
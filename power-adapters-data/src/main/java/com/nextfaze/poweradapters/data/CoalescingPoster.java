@@ -1,22 +1,52 @@
 package com.nextfaze.poweradapters.data;
 
-import android.os.Handler;
+import com.nextfaze.poweradapters.internal.DataObservable;
 import lombok.NonNull;
 
+import java.util.Collections;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
-import static android.os.Looper.getMainLooper;
-
+/**
+ * Dispatches runnables to the delivery thread of a {@link DataScheduler}, running everything enqueued in a single pass
+ * aligned with the next frame.
+ * <p>
+ * If more than one runnable is run in a pass, the pass is a batch of the {@link DataObservable}, so successive appends
+ * and other adjacent changes are merged into a single notification. Where a runnable's notification can't be merged
+ * with those deferred so far, such as an insertion at the head following an append, those are dispatched before it
+ * takes effect, so every notification is dispatched in order and in full detail. A lone runnable is run outside of a
+ * batch, since there's nothing to merge with. State notifications, such as loading and available changes, are
+ * dispatched once every runnable has run, and an identical state notification that is already pending is collapsed
+ * into it. Since observers always query the latest state, they see it change once per pass, regardless of how many
+ * times it changed in between.
+ * <p>
+ * The main thread time spent running runnables in a pass is bounded. Anything still enqueued once the bound has been
+ * reached is deferred to the next frame, along with the pending state notifications.
+ */
 final class CoalescingPoster {
 
+    /** The maximum time spent running runnables in a single pass, which is half of a 60 Hz frame. */
+    private static final long FLUSH_BUDGET_NANOS = 8000000;
+
+    @NonNull
+    private final DataScheduler mScheduler;
+
     @NonNull
-    private final Handler mHandler = new Handler(getMainLooper());
+    private final DataObservable mDataObservable;
 
     @NonNull
     private final Queue<Runnable> mRunnableQueue = new ConcurrentLinkedQueue<>();
 
+    @NonNull
+    private final Queue<Runnable> mStateQueue = new ConcurrentLinkedQueue<>();
+
+    /** State runnables currently in {@link #mStateQueue}, used to collapse identical ones. */
+    @NonNull
+    private final Set<Runnable> mPendingState = Collections.newSetFromMap(new ConcurrentHashMap<Runnable, Boolean>());
+
     @NonNull
     private final Runnable mFlushRunnable = new Runnable() {
         @Override
@@ -28,22 +58,86 @@ final class CoalescingPoster {
     @NonNull
     private final AtomicBoolean mPosted = new AtomicBoolean();
 
+    /** Only accessed from the delivery thread. */
+    private boolean mFlushing;
+
+    CoalescingPoster(@NonNull DataScheduler scheduler, @NonNull DataObservable dataObservable) {
+        mScheduler = scheduler;
+        mDataObservable = dataObservable;
+    }
+
+    /** Enqueues a runnable to be run during the next pass. May be called from any thread. */
     void post(@NonNull Runnable runnable) {
         mRunnableQueue.offer(runnable);
-        if (mPosted.compareAndSet(false, true)) {
-            mHandler.post(mFlushRunnable);
+        schedule();
+    }
+
+    /**
+     * Enqueues a state notification to be dispatched at the end of the next pass, after any data notifications. Does
+     * nothing if the same runnable is already pending. May be called from any thread.
+     */
+    void postState(@NonNull Runnable runnable) {
+        if (mPendingState.add(runnable)) {
+            mStateQueue.offer(runnable);
         }
+        schedule();
+    }
+
+    /** Returns {@code true} if a pass is in progress. Only meaningful when called from the delivery thread. */
+    boolean isFlushing() {
+        return mFlushing;
     }
 
-    void dispose() {
-        mHandler.removeCallbacks(mFlushRunnable);
+    private void schedule() {
+        if (mPosted.compareAndSet(false, true)) {
+            mScheduler.postFrame(mFlushRunnable);
+        }
     }
 
     private void flush() {
-        Runnable runnable;
-        while ((runnable = mRunnableQueue.poll()) != null) {
+        mFlushing = true;
+        try {
+            runRunnables();
+            // State notifications follow the data notifications they relate to, so they wait for any deferred runnables.
+            if (mRunnableQueue.isEmpty()) {
+                Runnable state;
+                while ((state = mStateQueue.poll()) != null) {
+                    // Removed before running, so the state may be enqueued again as a result.
+                    mPendingState.remove(state);
+                    state.run();
+                }
+            }
+        } finally {
+            mFlushing = false;
+            mPosted.set(false);
+            // Anything remaining, or enqueued since the queues were last polled, belongs to the next frame.
+            if (!mRunnableQueue.isEmpty() || !mStateQueue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    private void runRunnables() {
+        Runnable runnable = mRunnableQueue.poll();
+        if (runnable == null) {
+            return;
+        }
+        if (mRunnableQueue.isEmpty()) {
+            // Nothing to coalesce with, so notifications are dispatched as they're issued, in full detail.
             runnable.run();
+            return;
+        }
+        long deadline = System.nanoTime() + FLUSH_BUDGET_NANOS;
+        mDataObservable.beginBatch();
+        try {
+            do {
+                runnable.run();
+                if (System.nanoTime() >= deadline) {
+                    break;
+                }
+            } while ((runnable = mRunnableQueue.poll()) != null);
+        } finally {
+            mDataObservable.endBatch();
         }
-        mPosted.set(false);
     }
 }
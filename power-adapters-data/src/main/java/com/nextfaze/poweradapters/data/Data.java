@@ -1,20 +1,22 @@
 package com.nextfaze.poweradapters.data;
 
-import android.os.Looper;
 import android.support.annotation.CallSuper;
 import android.support.annotation.CheckResult;
 import android.support.annotation.UiThread;
 import com.nextfaze.poweradapters.DataObserver;
+import com.nextfaze.poweradapters.PowerAdapter;
 import com.nextfaze.poweradapters.Predicate;
 import com.nextfaze.poweradapters.internal.DataObservable;
 import lombok.NonNull;
 
 import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 
 import static com.nextfaze.poweradapters.data.ImmutableData.emptyImmutableData;
+import static java.util.Collections.unmodifiableList;
 
 /**
  * Provides access to a (possibly asynchronously loaded) list of elements.
@@ -29,7 +31,8 @@ import static com.nextfaze.poweradapters.data.ImmutableData.emptyImmutableData;
  * </p>
  * <h3>Threading</h3>
  * <p>
- * In general this class is not thread-safe. It's intended to be accessed from the UI thread only.
+ * In general this class is not thread-safe. It's intended to be accessed from the UI thread only. More precisely, it's
+ * accessed from the delivery thread of its {@link DataScheduler}, which is the main thread by default.
  * </p>
  */
 public abstract class Data<T> implements Iterable<T> {
@@ -65,7 +68,42 @@ public abstract class Data<T> implements Iterable<T> {
     };
 
     @NonNull
-    private final CoalescingPoster mPoster = new CoalescingPoster();
+    private final DataScheduler mScheduler;
+
+    @NonNull
+    private final CoalescingPoster mPoster;
+
+    @NonNull
+    private final Runnable mAvailableChangedRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mAvailableObservable.notifyAvailableChanged();
+        }
+    };
+
+    @NonNull
+    private final Runnable mLoadingChangedRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mLoadingObservable.notifyLoadingChanged();
+        }
+    };
+
+    /** Nesting depth of {@link #beginDeferringState()}, during which state notifications are always posted. */
+    private int mStateDeferralDepth;
+
+    protected Data() {
+        this(DataSchedulers.main());
+    }
+
+    /**
+     * @param scheduler The scheduler that determines the thread on which observers are notified, and on which
+     * {@link #runOnUiThread(Runnable)} runs tasks. Subclasses may also use it to perform work in the background.
+     */
+    protected Data(@NonNull DataScheduler scheduler) {
+        mScheduler = scheduler;
+        mPoster = new CoalescingPoster(scheduler, mDataObservable);
+    }
 
     /**
      * Retrieve the element at the specified position. Equivalent to calling {@link #get(int, int)} without any flags.
@@ -233,6 +271,27 @@ public abstract class Data<T> implements Iterable<T> {
         return mErrorObservable.getObserverCount();
     }
 
+    /**
+     * Begins a batch of notifications, which are deferred and merged until the matching call to {@link #endBatch()}.
+     * Batches may be nested. Behaves as {@link PowerAdapter#beginBatch()} does.
+     * @see #endBatch()
+     */
+    @UiThread
+    public final void beginBatch() {
+        mDataObservable.beginBatch();
+    }
+
+    /**
+     * Ends a batch of notifications begun with {@link #beginBatch()}. If this ends the outermost batch, all deferred
+     * notifications are dispatched.
+     * @throws IllegalStateException If no batch is in progress.
+     * @see #beginBatch()
+     */
+    @UiThread
+    public final void endBatch() {
+        mDataObservable.endBatch();
+    }
+
     /**
      * Notify any registered observers that the data set has changed.
      * <p>
@@ -381,29 +440,25 @@ public abstract class Data<T> implements Iterable<T> {
         mDataObservable.notifyItemRangeRemoved(positionStart, itemCount);
     }
 
-    /** Dispatch a available change notification on the UI thread. */
+    /**
+     * Dispatch a available change notification on the UI thread. Multiple notifications issued in quick succession may
+     * be collapsed into one.
+     */
     protected final void notifyAvailableChanged() {
-        runOnUiThread(new Runnable() {
-            @Override
-            public void run() {
-                mAvailableObservable.notifyAvailableChanged();
-            }
-        });
+        dispatchState(mAvailableChangedRunnable);
     }
 
-    /** Dispatch a loading change notification on the UI thread. */
+    /**
+     * Dispatch a loading change notification on the UI thread. Multiple notifications issued in quick succession may
+     * be collapsed into one.
+     */
     protected final void notifyLoadingChanged() {
-        runOnUiThread(new Runnable() {
-            @Override
-            public void run() {
-                mLoadingObservable.notifyLoadingChanged();
-            }
-        });
+        dispatchState(mLoadingChangedRunnable);
     }
 
     /** Dispatch an error notification on the UI thread. */
     protected final void notifyError(@NonNull final Throwable e) {
-        runOnUiThread(new Runnable() {
+        dispatchState(new Runnable() {
             @Override
             public void run() {
                 mErrorObservable.notifyError(e);
@@ -411,15 +466,51 @@ public abstract class Data<T> implements Iterable<T> {
         });
     }
 
-    /** Runs a task on the UI thread. If caller thread is the UI thread, the task is executed immediately. */
+    /** Returns the scheduler this data was constructed with. */
+    @NonNull
+    protected final DataScheduler getScheduler() {
+        return mScheduler;
+    }
+
+    /**
+     * Runs a task on the UI thread, which is the delivery thread of this data's {@link DataScheduler}. If caller thread
+     * is the UI thread, the task is executed immediately.
+     */
     protected final void runOnUiThread(@NonNull Runnable runnable) {
-        if (Looper.myLooper() == Looper.getMainLooper()) {
+        if (mScheduler.isDeliveryThread()) {
             runnable.run();
         } else {
             mPoster.post(runnable);
         }
     }
 
+    /**
+     * Defers state notifications issued until the matching {@link #endDeferringState()}, by posting them instead of
+     * dispatching them immediately. Used around loading triggered by {@link #get(int, int)}, which may be called while
+     * the UI is laying out, when observers such as adapters that show a loading indicator must not change.
+     */
+    final void beginDeferringState() {
+        mStateDeferralDepth++;
+    }
+
+    /** @see #beginDeferringState() */
+    final void endDeferringState() {
+        mStateDeferralDepth--;
+    }
+
+    /**
+     * Runs a state notification immediately if called from the UI thread, unless posted runnables are currently being
+     * run, or state notifications are being deferred. In those cases, or if called from another thread, it's deferred
+     * until after the resulting data notifications.
+     */
+    private void dispatchState(@NonNull Runnable runnable) {
+        if (mScheduler.isDeliveryThread() && !mPoster.isFlushing() && mStateDeferralDepth == 0) {
+            runnable.run();
+        } else {
+            mPoster.postState(runnable);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     @CheckResult
     @NonNull
@@ -434,6 +525,17 @@ public abstract class Data<T> implements Iterable<T> {
         return new FilterData<>(this, predicate);
     }
 
+    /**
+     * Filters this data based on a predicate. If {@code background} is {@code true} and this data is large, the
+     * predicate is applied using worker threads, so it must be thread-safe. In that case, the filtered elements only
+     * appear once it has been applied to every element.
+     */
+    @CheckResult
+    @NonNull
+    public final Data<T> filter(@NonNull Predicate<? super T> predicate, boolean background) {
+        return new FilterData<>(this, predicate, background);
+    }
+
     /** Filter this data by class. The resulting elements are guaranteed to be of the given type. */
     @CheckResult
     @NonNull
@@ -454,13 +556,52 @@ public abstract class Data<T> implements Iterable<T> {
         return new SortData<>(this, comparator);
     }
 
-    /** Transforms this data by applying {@code function} to each element. */
+    /**
+     * Sorts this data using the specified {@link Comparator}. If {@code background} is {@code true} and this data is
+     * large, the comparator is called from worker threads, so it must be thread-safe. In that case, the sorted elements
+     * only appear once sorting completes.
+     */
+    @CheckResult
+    @NonNull
+    public final Data<T> sort(@NonNull Comparator<? super T> comparator, boolean background) {
+        return new SortData<>(this, comparator, background);
+    }
+
+    /**
+     * Transforms this data by applying {@code function} to each element. The function is called on the UI thread as
+     * elements are accessed, and also on whichever thread reads an element of a {@link #snapshot()}, so it must be
+     * safe to call from any thread.
+     */
     @CheckResult
     @NonNull
     public final <O> Data<O> transform(@NonNull Function<? super T, ? extends O> function) {
         return new TransformData<>(this, function);
     }
 
+    /**
+     * Transforms this data by applying {@code function} to each element, retaining the transformed elements so that
+     * {@code function} is only applied again once the corresponding source element changes. The threading
+     * requirements of {@link #transform(Function)} apply.
+     * @see #transformCached(Function, int)
+     */
+    @CheckResult
+    @NonNull
+    public final <O> Data<O> transformCached(@NonNull Function<? super T, ? extends O> function) {
+        return new TransformData<>(this, function, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Transforms this data by applying {@code function} to each element, retaining up to {@code maxCacheSize}
+     * transformed elements. Once the limit is reached, the least recently accessed element is discarded. Elements are
+     * only retained while this data has data observers. The threading requirements of {@link #transform(Function)}
+     * apply.
+     */
+    @CheckResult
+    @NonNull
+    public final <O> Data<O> transformCached(@NonNull Function<? super T, ? extends O> function, int maxCacheSize) {
+        return new TransformData<>(this, function, maxCacheSize);
+    }
+
     @CheckResult
     @NonNull
     public final Data<T> offset(int offset) {
@@ -486,6 +627,31 @@ public abstract class Data<T> implements Iterable<T> {
         return mList;
     }
 
+    /**
+     * Returns an immutable list of the current elements, which may be read from any thread, such as by background work
+     * over the contents of this data. Subsequent changes aren't reflected in the returned list. Elements are retrieved
+     * without any flags, so taking a snapshot doesn't trigger loading.
+     * <p>
+     * By default, this copies every element, which takes time proportional to {@link #size()}. Subclasses that can
+     * share structure with the snapshot of the data they wrap, or with their own contents, override this to make it
+     * cheaper. The array-backed implementations share their backing array, so taking a snapshot of them is constant
+     * time. Sorted and filtered data share the elements of the wrapped data's snapshot, but copy their index, which is
+     * still proportional to {@link #size()}. Transformed data defers applying its function to each element until that element is first read from the
+     * snapshot, on the reading thread.
+     */
+    @SuppressWarnings("unchecked")
+    @UiThread
+    @CheckResult
+    @NonNull
+    public List<T> snapshot() {
+        int size = size();
+        Object[] elements = new Object[size];
+        for (int i = 0; i < size; i++) {
+            elements[i] = get(i);
+        }
+        return unmodifiableList(Arrays.asList((T[]) elements));
+    }
+
     @NonNull
     public static <T> Data<T> emptyData() {
         return emptyImmutableData();
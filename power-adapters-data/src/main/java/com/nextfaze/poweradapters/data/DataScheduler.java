@@ -0,0 +1,27 @@
+package com.nextfaze.poweradapters.data;
+
+import lombok.NonNull;
+
+/**
+ * Determines where {@link Data} performs work in the background, and the thread on which results are delivered and
+ * observers are notified.
+ * @see DataSchedulers
+ */
+public interface DataScheduler {
+
+    /** Executes the specified runnable in the background. */
+    void execute(@NonNull Runnable runnable);
+
+    /** Enqueues the specified runnable to be run on the delivery thread. */
+    void post(@NonNull Runnable runnable);
+
+    /**
+     * Enqueues the specified runnable to be run on the delivery thread when it next renders a frame, so that updates
+     * delivered in quick succession are presented together. Schedulers whose delivery thread doesn't render frames
+     * may treat this the same as {@link #post(Runnable)}.
+     */
+    void postFrame(@NonNull Runnable runnable);
+
+    /** Returns {@code true} if the calling thread is the delivery thread. */
+    boolean isDeliveryThread();
+}
@@ -0,0 +1,156 @@
+package com.nextfaze.poweradapters.data;
+
+import android.annotation.TargetApi;
+import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import lombok.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import static android.os.Build.VERSION.SDK_INT;
+import static android.os.Build.VERSION_CODES.JELLY_BEAN;
+import static android.os.Looper.getMainLooper;
+
+public final class DataSchedulers {
+
+    @NonNull
+    private static final DataScheduler MAIN = new HandlerScheduler(AsyncTask.THREAD_POOL_EXECUTOR, getMainLooper());
+
+    private DataSchedulers() {
+    }
+
+    /**
+     * Executes work using {@link AsyncTask#THREAD_POOL_EXECUTOR}, and delivers results on the main thread. Frame-aligned
+     * runnables are run by the {@link Choreographer} on API 16 and above.
+     */
+    @NonNull
+    public static DataScheduler main() {
+        return MAIN;
+    }
+
+    /** Executes work using the specified executor, and delivers results on the main thread. */
+    @NonNull
+    public static DataScheduler main(@NonNull Executor executor) {
+        return new HandlerScheduler(executor, getMainLooper());
+    }
+
+    /** Executes work using the specified executor, and delivers results on the thread of the specified looper. */
+    @NonNull
+    public static DataScheduler looper(@NonNull Executor executor, @NonNull Looper looper) {
+        return new HandlerScheduler(executor, looper);
+    }
+
+    /**
+     * Returns a scheduler that executes all work immediately on the calling thread, which is always treated as the
+     * delivery thread. Posted runnables are run once the outermost running runnable returns. Useful for driving
+     * {@link Data} deterministically, such as in tests or benchmarks.
+     */
+    @NonNull
+    public static DataScheduler immediate() {
+        return new ImmediateScheduler();
+    }
+
+    private static final class HandlerScheduler implements DataScheduler {
+
+        @NonNull
+        private final Executor mExecutor;
+
+        @NonNull
+        private final Handler mHandler;
+
+        HandlerScheduler(@NonNull Executor executor, @NonNull Looper looper) {
+            mExecutor = executor;
+            mHandler = new Handler(looper);
+        }
+
+        @Override
+        public void execute(@NonNull Runnable runnable) {
+            mExecutor.execute(runnable);
+        }
+
+        @Override
+        public void post(@NonNull Runnable runnable) {
+            mHandler.post(runnable);
+        }
+
+        @Override
+        public void postFrame(@NonNull final Runnable runnable) {
+            if (SDK_INT < JELLY_BEAN) {
+                post(runnable);
+            } else if (isDeliveryThread()) {
+                postFrameCallback(runnable);
+            } else {
+                // Each looper thread has its own Choreographer, which can only be obtained from that thread.
+                mHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        postFrameCallback(runnable);
+                    }
+                });
+            }
+        }
+
+        @Override
+        public boolean isDeliveryThread() {
+            return Looper.myLooper() == mHandler.getLooper();
+        }
+
+        @TargetApi(JELLY_BEAN)
+        private static void postFrameCallback(@NonNull final Runnable runnable) {
+            Choreographer.getInstance().postFrameCallback(new Choreographer.FrameCallback() {
+                @Override
+                public void doFrame(long frameTimeNanos) {
+                    runnable.run();
+                }
+            });
+        }
+    }
+
+    private static final class ImmediateScheduler implements DataScheduler {
+
+        @NonNull
+        private final Queue<Runnable> mQueue = new ArrayDeque<>();
+
+        private boolean mRunning;
+
+        @Override
+        public void execute(@NonNull Runnable runnable) {
+            run(runnable);
+        }
+
+        @Override
+        public void post(@NonNull Runnable runnable) {
+            run(runnable);
+        }
+
+        @Override
+        public void postFrame(@NonNull Runnable runnable) {
+            run(runnable);
+        }
+
+        @Override
+        public boolean isDeliveryThread() {
+            return true;
+        }
+
+        private void run(@NonNull Runnable runnable) {
+            mQueue.offer(runnable);
+            if (mRunning) {
+                return;
+            }
+            mRunning = true;
+            try {
+                Runnable r;
+                while ((r = mQueue.poll()) != null) {
+                    r.run();
+                }
+            } finally {
+                mRunning = false;
+            }
+        }
+    }
+}
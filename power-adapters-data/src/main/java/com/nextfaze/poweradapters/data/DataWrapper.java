@@ -65,7 +65,9 @@ public abstract class DataWrapper<T> extends Data<T> {
     private boolean mObservingError;
     private boolean mObservingAvailable;
 
+    /** Creates a wrapper that shares the {@link DataScheduler} of the wrapped data. */
     public DataWrapper(@NonNull Data<?> data) {
+        super(data.getScheduler());
         mData = data;
     }
 
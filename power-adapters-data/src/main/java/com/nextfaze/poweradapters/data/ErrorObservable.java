@@ -1,27 +1,19 @@
 package com.nextfaze.poweradapters.data;
 
+import com.nextfaze.poweradapters.internal.ObserverList;
 import lombok.NonNull;
 
-import java.util.ArrayList;
-
 final class ErrorObservable {
 
     @NonNull
-    private final ArrayList<ErrorObserver> mObservers = new ArrayList<>();
+    private final ObserverList<ErrorObserver> mObservers = new ObserverList<>();
 
     void registerObserver(@NonNull ErrorObserver observer) {
-        if (mObservers.contains(observer)) {
-            throw new IllegalStateException("Observer is already registered.");
-        }
-        mObservers.add(observer);
+        mObservers.register(observer);
     }
 
     void unregisterObserver(@NonNull ErrorObserver observer) {
-        int index = mObservers.indexOf(observer);
-        if (index == -1) {
-            throw new IllegalStateException("Observer was not registered.");
-        }
-        mObservers.remove(index);
+        mObservers.unregister(observer);
     }
 
     int getObserverCount() {
@@ -29,8 +21,11 @@ final class ErrorObservable {
     }
 
     void notifyError(@NonNull Throwable e) {
-        for (int i = mObservers.size() - 1; i >= 0; i--) {
-            mObservers.get(i).onError(e);
+        Object[] observers = mObservers.snapshot();
+        for (int i = observers.length - 1; i >= 0; i--) {
+            if (mObservers.isRegistered(observers, observers[i])) {
+                ((ErrorObserver) observers[i]).onError(e);
+            }
         }
     }
 }
@@ -1,15 +1,31 @@
 package com.nextfaze.poweradapters.data;
 
+import android.support.annotation.Nullable;
 import com.nextfaze.poweradapters.Predicate;
 import lombok.NonNull;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
+import static com.nextfaze.poweradapters.data.ParallelTask.BACKGROUND_THRESHOLD;
+import static java.lang.Math.max;
 import static java.lang.String.format;
-
-/** Provides a filtered view of the wrapped data. */
+import static java.lang.System.arraycopy;
+
+/**
+ * Provides a filtered view of the wrapped data.
+ * <p>
+ * If constructed to filter in the background, and the wrapped data is large, the predicate is applied to every element
+ * in the background using a snapshot of the wrapped data, in which case it's called from worker threads. Until then,
+ * the previous index remains in use, so the filtered elements first appear once the rebuild completes. Changes to the
+ * wrapped data in the meantime are queued so they can be applied to the result.
+ */
 public final class FilterData<T> extends DataWrapper<T> {
 
+    /** The number of elements a rebuild chunk evaluates between checks for cancellation. */
+    private static final int CANCELLATION_CHECK_INTERVAL = 1024;
+
     private static final Predicate<Object> ALWAYS = new Predicate<Object>() {
         @Override
         public boolean apply(Object o) {
@@ -23,17 +39,37 @@ public final class FilterData<T> extends DataWrapper<T> {
     @NonNull
     private Predicate<? super T> mPredicate;
 
+    /** Indicates the predicate may be applied in the background, which requires it to be thread-safe. */
+    private final boolean mBackground;
+
     @NonNull
     private final Index mIndex = new Index();
 
+    /** Task applying the predicate to every element in the background, if any. */
+    @Nullable
+    private ParallelTask<int[]> mRebuildTask;
+
+    /** Changes to the wrapped data since the snapshot of the rebuild in progress was taken, in the order they occurred. */
+    @NonNull
+    private final List<Delta> mPendingDeltas = new ArrayList<>();
+
     public FilterData(@NonNull Data<? extends T> data) {
         this(data, ALWAYS);
     }
 
     public FilterData(@NonNull Data<? extends T> data, @NonNull Predicate<? super T> predicate) {
+        this(data, predicate, false);
+    }
+
+    /**
+     * @param background If {@code true}, the predicate is applied to large data in the background, so it and any
+     * predicate assigned later must be safe to call from worker threads.
+     */
+    public FilterData(@NonNull Data<? extends T> data, @NonNull Predicate<? super T> predicate, boolean background) {
         super(data);
         mData = data;
         mPredicate = predicate;
+        mBackground = background;
     }
 
     @NonNull
@@ -44,7 +80,11 @@ public final class FilterData<T> extends DataWrapper<T> {
     public void setPredicate(@NonNull Predicate<? super T> predicate) {
         if (!equal(predicate, mPredicate)) {
             mPredicate = predicate;
-            changeIndexRange(0, mData.size(), false, true, true);
+            if (getDataObserverCount() > 0 && shouldRebuildInBackground()) {
+                rebuildInBackground();
+            } else {
+                changeIndexRange(0, mData.size(), false, true, true);
+            }
         }
     }
 
@@ -70,9 +110,23 @@ public final class FilterData<T> extends DataWrapper<T> {
         return mData.get(innerPosition, flags);
     }
 
+    /**
+     * Returns an immutable snapshot that maps through a copy of the index onto the wrapped data's snapshot. Copying the
+     * index takes time proportional to {@link #size()}, though the elements themselves aren't copied.
+     */
+    @NonNull
+    @Override
+    public List<T> snapshot() {
+        return new IndexedSnapshot<>(mData.snapshot(), mIndex.toArray());
+    }
+
     @Override
     protected void onFirstDataObserverRegistered() {
         super.onFirstDataObserverRegistered();
+        if (shouldRebuildInBackground()) {
+            rebuildInBackground();
+            return;
+        }
         rebuild();
         int itemCount = mIndex.size();
         if (itemCount > 0) {
@@ -83,6 +137,7 @@ public final class FilterData<T> extends DataWrapper<T> {
     @Override
     protected void onLastDataObserverUnregistered() {
         super.onLastDataObserverUnregistered();
+        cancelRebuild();
         mIndex.clear();
     }
 
@@ -90,31 +145,213 @@ public final class FilterData<T> extends DataWrapper<T> {
         changeIndexRange(0, mData.size(), false, false, false);
     }
 
+    private boolean shouldRebuildInBackground() {
+        return mBackground && mData.size() >= BACKGROUND_THRESHOLD;
+    }
+
+    /**
+     * Applies the predicate to a snapshot of the wrapped data in the background, in chunks evaluated concurrently. The
+     * index continues to be maintained in the meantime, and changes to the wrapped data are queued. Once complete, they
+     * are applied to the result, and the index is then brought up to date with a minimal set of insertion and removal
+     * notifications. Any rebuild already in progress is abandoned, since it was using the old predicate.
+     */
+    private void rebuildInBackground() {
+        cancelRebuild();
+        final List<? extends T> values = mData.snapshot();
+        final Predicate<? super T> predicate = mPredicate;
+        mRebuildTask = new ParallelTask<int[]>(getScheduler(), values.size()) {
+
+            /** Included inner positions of each chunk, followed by their count in the last element. */
+            @NonNull
+            final int[][] mIncluded = new int[getChunkCount()][];
+
+            @Override
+            protected void processChunk(int chunk, int start, int end) {
+                int[] included = new int[end - start + 1];
+                int count = 0;
+                for (int innerPosition = start; innerPosition < end; innerPosition++) {
+                    if (innerPosition % CANCELLATION_CHECK_INTERVAL == 0 && isCanceled()) {
+                        return;
+                    }
+                    if (predicate.apply(values.get(innerPosition))) {
+                        included[count++] = innerPosition;
+                    }
+                }
+                included[included.length - 1] = count;
+                mIncluded[chunk] = included;
+            }
+
+            @NonNull
+            @Override
+            protected int[] combine() {
+                int size = 0;
+                for (int[] included : mIncluded) {
+                    size += included[included.length - 1];
+                }
+                int[] innerPositions = new int[size];
+                int offset = 0;
+                for (int[] included : mIncluded) {
+                    int count = included[included.length - 1];
+                    arraycopy(included, 0, innerPositions, offset, count);
+                    offset += count;
+                }
+                return innerPositions;
+            }
+
+            @Override
+            protected void onSuccess(@NonNull int[] innerPositions) {
+                mRebuildTask = null;
+                if (!mPendingDeltas.isEmpty()) {
+                    Index index = new Index();
+                    index.insert(0, innerPositions, innerPositions.length);
+                    for (Delta delta : mPendingDeltas) {
+                        delta.applyTo(index);
+                    }
+                    mPendingDeltas.clear();
+                    innerPositions = index.toArray();
+                }
+                replaceIndex(innerPositions);
+            }
+
+            @Override
+            protected void onFailure(@NonNull Throwable e) {
+                // Rebuild synchronously instead, so the error is thrown on this thread as it would have been otherwise.
+                mRebuildTask = null;
+                mPendingDeltas.clear();
+                changeIndexRange(0, mData.size(), false, true, true);
+            }
+        };
+        mRebuildTask.execute();
+    }
+
+    private void cancelRebuild() {
+        if (mRebuildTask != null) {
+            mRebuildTask.cancel();
+            mRebuildTask = null;
+            mPendingDeltas.clear();
+        }
+    }
+
+    /**
+     * Updates the index to the specified sorted inner positions, notifying of each contiguous block of entries removed
+     * or inserted as it goes.
+     */
+    private void replaceIndex(@NonNull int[] innerPositions) {
+        int outerPosition = 0;
+        int i = 0;
+        while (outerPosition < mIndex.size() || i < innerPositions.length) {
+            int current = outerPosition < mIndex.size() ? mIndex.outerToInner(outerPosition) : Integer.MAX_VALUE;
+            int next = i < innerPositions.length ? innerPositions[i] : Integer.MAX_VALUE;
+            if (current == next) {
+                outerPosition++;
+                i++;
+            } else if (current < next) {
+                int end = outerPosition + 1;
+                while (end < mIndex.size() && mIndex.outerToInner(end) < next) {
+                    end++;
+                }
+                mIndex.remove(outerPosition, end);
+                notifyItemRangeRemoved(outerPosition, end - outerPosition);
+            } else {
+                int start = i;
+                while (i < innerPositions.length && innerPositions[i] < current) {
+                    i++;
+                }
+                mIndex.insert(outerPosition, Arrays.copyOfRange(innerPositions, start, i), i - start);
+                notifyItemRangeInserted(outerPosition, i - start);
+                outerPosition += i - start;
+            }
+        }
+    }
+
     @Override
     protected void forwardChanged() {
+        if (mRebuildTask != null || shouldRebuildInBackground()) {
+            rebuildInBackground();
+            // The previous index is only trimmed to the new size of the wrapped data until the rebuild completes, so
+            // the elements it includes in the meantime haven't necessarily been evaluated by the predicate.
+            mIndex.remove(mIndex.lowerBound(mData.size()), mIndex.size());
+            notifyDataSetChanged();
+            return;
+        }
         changeIndexRange(0, mData.size(), true, true, true);
     }
 
     @Override
-    protected void forwardItemRangeChanged(int innerPositionStart, int innerItemCount) {
+    protected void forwardItemRangeChanged(final int innerPositionStart, final int innerItemCount) {
         changeIndexRange(innerPositionStart, innerItemCount, true, true, true);
+        if (mRebuildTask != null) {
+            // The index has already evaluated the changed elements, so its mappings for them are applied to the result.
+            final int[] entries = mIndex.entries(innerPositionStart, innerPositionStart + innerItemCount);
+            mPendingDeltas.add(new Delta() {
+                @Override
+                public void applyTo(@NonNull Index index) {
+                    index.replace(innerPositionStart, innerPositionStart + innerItemCount, entries);
+                }
+            });
+        }
     }
 
     @Override
-    protected void forwardItemRangeInserted(int innerPositionStart, int innerItemCount) {
+    protected void forwardItemRangeInserted(final int innerPositionStart, final int innerItemCount) {
         insertIndexRange(innerPositionStart, innerItemCount);
+        if (mRebuildTask != null) {
+            final int[] entries = mIndex.entries(innerPositionStart, innerPositionStart + innerItemCount);
+            mPendingDeltas.add(new Delta() {
+                @Override
+                public void applyTo(@NonNull Index index) {
+                    index.shift(index.lowerBound(innerPositionStart), innerItemCount);
+                    index.replace(innerPositionStart, innerPositionStart + innerItemCount, entries);
+                }
+            });
+        }
     }
 
     @Override
-    protected void forwardItemRangeRemoved(int innerPositionStart, int innerItemCount) {
+    protected void forwardItemRangeRemoved(final int innerPositionStart, final int innerItemCount) {
         removeIndexRange(innerPositionStart, innerItemCount);
+        if (mRebuildTask != null) {
+            mPendingDeltas.add(new Delta() {
+                @Override
+                public void applyTo(@NonNull Index index) {
+                    index.replace(innerPositionStart, innerPositionStart + innerItemCount, Index.EMPTY);
+                    index.shift(index.lowerBound(innerPositionStart), -innerItemCount);
+                }
+            });
+        }
     }
 
     @Override
-    protected void forwardItemRangeMoved(int innerFromPosition, int innerToPosition, int innerItemCount) {
-        // TODO: Fine-grained notifications for moves.
-        changeIndexRange(0, mData.size(), false, false, false);
-        notifyDataSetChanged();
+    protected void forwardItemRangeMoved(final int innerFromPosition,
+                                         final int innerToPosition,
+                                         final int innerItemCount) {
+        if (innerItemCount <= 0 || innerFromPosition == innerToPosition) {
+            return;
+        }
+        // Mappings of the moved elements, and of those they displace, are contiguous blocks that swap places.
+        int movedStart = mIndex.lowerBound(innerFromPosition);
+        int movedEnd = mIndex.lowerBound(innerFromPosition + innerItemCount);
+        int displacedCount;
+        if (innerFromPosition < innerToPosition) {
+            displacedCount = mIndex.lowerBound(innerToPosition + innerItemCount) - movedEnd;
+        } else {
+            displacedCount = movedStart - mIndex.lowerBound(innerToPosition);
+        }
+        mIndex.move(innerFromPosition, innerToPosition, innerItemCount);
+        int movedCount = movedEnd - movedStart;
+        if (movedCount > 0 && displacedCount > 0) {
+            int outerToPosition = innerFromPosition < innerToPosition ?
+                    movedStart + displacedCount : movedStart - displacedCount;
+            notifyItemRangeMoved(movedStart, outerToPosition, movedCount);
+        }
+        if (mRebuildTask != null) {
+            mPendingDeltas.add(new Delta() {
+                @Override
+                public void applyTo(@NonNull Index index) {
+                    index.move(innerFromPosition, innerToPosition, innerItemCount);
+                }
+            });
+        }
     }
 
     private void changeIndexRange(final int innerPositionStart,
@@ -161,26 +398,29 @@ public final class FilterData<T> extends DataWrapper<T> {
         // Use binary search result value to find out what the mapping should be.
         int insertionOuterPosition = i >= 0 ? i : ~i;
         mIndex.shift(insertionOuterPosition, +itemCount);
+        // Included elements are contiguous in the outer range, so they're inserted as a single block.
+        int[] innerPositions = new int[itemCount];
+        int includedCount = 0;
         for (int innerPosition = innerPositionStart; innerPosition < innerPositionStart + itemCount; innerPosition++) {
             T t = mData.get(innerPosition);
             if (apply(t)) {
-                mIndex.add(insertionOuterPosition, innerPosition);
-                notifyItemInserted(insertionOuterPosition);
-                insertionOuterPosition++;
+                innerPositions[includedCount++] = innerPosition;
             }
         }
+        if (includedCount > 0) {
+            mIndex.insert(insertionOuterPosition, innerPositions, includedCount);
+            notifyItemRangeInserted(insertionOuterPosition, includedCount);
+        }
     }
 
     private void removeIndexRange(final int innerPositionStart, final int itemCount) {
-        for (int innerPosition = innerPositionStart; innerPosition < innerPositionStart + itemCount; innerPosition++) {
-            int i = mIndex.binarySearch(innerPosition);
-            if (i >= 0) {
-                mIndex.remove(i);
-                mIndex.shift(i, -1);
-                notifyItemRemoved(i);
-            } else {
-                mIndex.shift(~i, -1);
-            }
+        // Mappings of the removed elements are contiguous in the outer range, so they're removed as a single block.
+        int outerPositionStart = mIndex.lowerBound(innerPositionStart);
+        int outerPositionEnd = mIndex.lowerBound(innerPositionStart + itemCount);
+        mIndex.remove(outerPositionStart, outerPositionEnd);
+        mIndex.shift(outerPositionStart, -itemCount);
+        if (outerPositionEnd > outerPositionStart) {
+            notifyItemRangeRemoved(outerPositionStart, outerPositionEnd - outerPositionStart);
         }
     }
 
@@ -192,44 +432,180 @@ public final class FilterData<T> extends DataWrapper<T> {
         return a == null ? b == null : a.equals(b);
     }
 
+    /**
+     * Sorted array of inner data positions, indexed by outer position. Shifting the tail of the array is deferred:
+     * entries at or after {@link #mShiftStart} are stored without {@link #mShiftDelta} applied, so consecutive shifts
+     * of the same tail (such as repeated insertions at the head or tail of the inner data) don't touch the array.
+     */
     private static final class Index {
 
-        /** Sorted list of inner data positions. */
+        private static final int[] EMPTY = new int[0];
+
         @NonNull
-        private final ArrayList<Integer> mArray = new ArrayList<>();
+        private int[] mArray = EMPTY;
+
+        private int mSize;
+
+        /** Outer position from which {@link #mShiftDelta} is yet to be applied. */
+        private int mShiftStart;
+
+        private int mShiftDelta;
 
         void clear() {
-            mArray.clear();
+            mSize = 0;
+            mShiftStart = 0;
+            mShiftDelta = 0;
         }
 
         int size() {
-            return mArray.size();
+            return mSize;
         }
 
-        void remove(int outerPosition) {
-            mArray.remove(outerPosition);
+        /** Returns a copy of the entries for the specified range of inner positions. */
+        @NonNull
+        int[] entries(int innerPositionStart, int innerPositionEnd) {
+            int outerPositionStart = lowerBound(innerPositionStart);
+            int[] entries = new int[lowerBound(innerPositionEnd) - outerPositionStart];
+            for (int i = 0; i < entries.length; i++) {
+                entries[i] = get(outerPositionStart + i);
+            }
+            return entries;
+        }
+
+        /**
+         * Replaces the entries for the specified range of inner positions with the specified entries, which must lie
+         * within the same range.
+         */
+        void replace(int innerPositionStart, int innerPositionEnd, @NonNull int[] entries) {
+            int outerPositionStart = lowerBound(innerPositionStart);
+            remove(outerPositionStart, lowerBound(innerPositionEnd));
+            if (entries.length > 0) {
+                insert(outerPositionStart, entries, entries.length);
+            }
+        }
+
+        /** Returns a copy of the inner positions of every entry, in order. */
+        @NonNull
+        int[] toArray() {
+            int[] array = Arrays.copyOf(mArray, mSize);
+            for (int i = mShiftStart; i < mSize; i++) {
+                array[i] += mShiftDelta;
+            }
+            return array;
         }
 
         int outerToInner(int outerPosition) {
-            return mArray.get(outerPosition);
+            if (outerPosition < 0 || outerPosition >= mSize) {
+                throw new IndexOutOfBoundsException(format("Position %s, size %s", outerPosition, mSize));
+            }
+            return get(outerPosition);
         }
 
         void add(int outerPosition, int innerPosition) {
-            mArray.add(outerPosition, innerPosition);
+            int delta = makeRoom(outerPosition, 1);
+            mArray[outerPosition] = innerPosition - delta;
+        }
+
+        /** Inserts the first {@code count} elements of {@code innerPositions} as a block at the specified position. */
+        void insert(int outerPosition, @NonNull int[] innerPositions, int count) {
+            int delta = makeRoom(outerPosition, count);
+            for (int i = 0; i < count; i++) {
+                mArray[outerPosition + i] = innerPositions[i] - delta;
+            }
         }
 
+        /**
+         * Updates the entries to reflect a move of the specified range of inner positions. The entries of the moved
+         * positions and those of the positions they displace exchange places, without changing the size.
+         */
+        void move(int innerFromPosition, int innerToPosition, int innerItemCount) {
+            int movedStart = lowerBound(innerFromPosition);
+            int movedEnd = lowerBound(innerFromPosition + innerItemCount);
+            int start;
+            int end;
+            int displacement;
+            if (innerFromPosition < innerToPosition) {
+                start = movedStart;
+                end = lowerBound(innerToPosition + innerItemCount);
+                displacement = -innerItemCount;
+            } else {
+                start = lowerBound(innerToPosition);
+                end = movedEnd;
+                displacement = innerItemCount;
+            }
+            int[] entries = new int[end - start];
+            int i = 0;
+            // Entries are rewritten in their new order, which is also sorted.
+            if (innerFromPosition > innerToPosition) {
+                for (int outerPosition = movedStart; outerPosition < movedEnd; outerPosition++) {
+                    entries[i++] = get(outerPosition) + innerToPosition - innerFromPosition;
+                }
+            }
+            for (int outerPosition = start; outerPosition < end; outerPosition++) {
+                if (outerPosition < movedStart || outerPosition >= movedEnd) {
+                    entries[i++] = get(outerPosition) + displacement;
+                }
+            }
+            if (innerFromPosition < innerToPosition) {
+                for (int outerPosition = movedStart; outerPosition < movedEnd; outerPosition++) {
+                    entries[i++] = get(outerPosition) + innerToPosition - innerFromPosition;
+                }
+            }
+            for (i = 0; i < entries.length; i++) {
+                int outerPosition = start + i;
+                mArray[outerPosition] = outerPosition >= mShiftStart ? entries[i] - mShiftDelta : entries[i];
+            }
+        }
+
+        void remove(int outerPosition) {
+            remove(outerPosition, outerPosition + 1);
+        }
+
+        /** Removes the entries from {@code outerPositionStart}, inclusive, to {@code outerPositionEnd}, exclusive. */
+        void remove(int outerPositionStart, int outerPositionEnd) {
+            int count = outerPositionEnd - outerPositionStart;
+            if (count <= 0) {
+                return;
+            }
+            arraycopy(mArray, outerPositionEnd, mArray, outerPositionStart, mSize - outerPositionEnd);
+            mSize -= count;
+            if (outerPositionEnd <= mShiftStart) {
+                mShiftStart -= count;
+            } else if (outerPositionStart < mShiftStart) {
+                mShiftStart = outerPositionStart;
+            }
+        }
+
+        /** Adds {@code delta} to every entry from {@code outerPositionStart} onwards. */
         void shift(int outerPositionStart, int delta) {
-            for (int i = outerPositionStart; i < mArray.size(); i++) {
-                mArray.set(i, mArray.get(i) + delta);
+            if (delta == 0 || outerPositionStart >= mSize) {
+                return;
+            }
+            // Apply the pending delta to any entries between the old and new starting points, so only a single
+            // deferred shift needs to be tracked.
+            if (mShiftDelta != 0) {
+                if (outerPositionStart > mShiftStart) {
+                    addToRange(mShiftStart, outerPositionStart, mShiftDelta);
+                } else if (outerPositionStart < mShiftStart) {
+                    addToRange(outerPositionStart, mShiftStart, -mShiftDelta);
+                }
             }
+            mShiftStart = outerPositionStart;
+            mShiftDelta += delta;
+        }
+
+        /** Returns the position of the first entry that is greater than or equal to {@code innerPosition}. */
+        int lowerBound(int innerPosition) {
+            int i = binarySearch(innerPosition);
+            return i >= 0 ? i : ~i;
         }
 
         int binarySearch(int innerPosition) {
             int lo = 0;
-            int hi = mArray.size() - 1;
+            int hi = mSize - 1;
             while (lo <= hi) {
                 int mid = (lo + hi) >>> 1;
-                int midVal = mArray.get(mid);
+                int midVal = get(mid);
                 if (midVal < innerPosition) {
                     lo = mid + 1;
                 } else if (midVal > innerPosition) {
@@ -240,5 +616,43 @@ public final class FilterData<T> extends DataWrapper<T> {
             }
             return ~lo;
         }
+
+        private int get(int outerPosition) {
+            int value = mArray[outerPosition];
+            return outerPosition >= mShiftStart ? value + mShiftDelta : value;
+        }
+
+        /**
+         * Opens a gap of {@code count} entries at the specified position. Returns the pending delta that values
+         * stored in the gap must be offset by.
+         */
+        private int makeRoom(int outerPosition, int count) {
+            if (outerPosition < 0 || outerPosition > mSize) {
+                throw new IndexOutOfBoundsException(format("Position %s, size %s", outerPosition, mSize));
+            }
+            if (mSize + count > mArray.length) {
+                int[] array = new int[max(mSize + count, mArray.length * 2)];
+                arraycopy(mArray, 0, array, 0, mSize);
+                mArray = array;
+            }
+            arraycopy(mArray, outerPosition, mArray, outerPosition + count, mSize - outerPosition);
+            mSize += count;
+            if (outerPosition <= mShiftStart) {
+                mShiftStart += count;
+                return 0;
+            }
+            return mShiftDelta;
+        }
+
+        private void addToRange(int start, int end, int delta) {
+            for (int i = start; i < end; i++) {
+                mArray[i] += delta;
+            }
+        }
+    }
+
+    /** A change to the wrapped data, queued while a rebuild is in progress. */
+    private interface Delta {
+        void applyTo(@NonNull Index index);
     }
 }
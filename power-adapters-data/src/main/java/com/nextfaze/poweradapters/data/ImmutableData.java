@@ -8,6 +8,7 @@ import java.util.List;
 
 import static java.util.Collections.addAll;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
 
 @SuppressWarnings("WeakerAccess")
 public final class ImmutableData<T> extends Data<T> {
@@ -61,6 +62,12 @@ public final class ImmutableData<T> extends Data<T> {
         return mElements.size();
     }
 
+    @NonNull
+    @Override
+    public List<T> snapshot() {
+        return unmodifiableList(mElements);
+    }
+
     @Override
     public boolean isLoading() {
         return false;
@@ -9,46 +9,80 @@ import lombok.NonNull;
 
 import java.io.Closeable;
 import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
+import static java.lang.Math.ceil;
 import static java.lang.Math.max;
-import static java.lang.Thread.currentThread;
+import static java.lang.Math.min;
+import static java.util.concurrent.Executors.newCachedThreadPool;
 
 /**
  * Mutable {@link Data} implementation backed by an {@link ArrayList}, which is loaded incrementally until the source
  * has no more data. Cannot contain {@code null} elements. Not thread-safe.
+ * <p>
+ * Each increment is loaded by a separate task submitted to an {@link Executor}, so no thread is occupied while waiting
+ * for the next increment to be requested. By default, all instances share a single pool of threads, which are
+ * discarded once idle.
+ * <h3>Prefetching</h3>
+ * <p>
+ * The next increment is requested when an element within the prefetch distance of the end is presented. The prefetch
+ * distance is at least the look ahead row count, and grows with the observed rate at which rows are presented and the
+ * observed time taken to load an increment. If {@link #setMaxConcurrentIncrements(int)} is greater than {@code 1},
+ * multiple increments may be loaded concurrently to cover the prefetch distance, in which case
+ * {@link #load(int)} must be overridden. Loaded increments are always applied in order.
+ * </p>
  * @param <T> The type of element this data contains.
  */
 public abstract class IncrementalArrayData<T> extends Data<T> implements Closeable {
 
     private static final ThreadFactory DEFAULT_THREAD_FACTORY = new NamedThreadFactory("Incremental Array Data Thread %d");
 
+    @Nullable
+    private static Executor sDefaultExecutor;
+
     @NonNull
     private final NotifyingArrayList<T> mData = new NotifyingArrayList<>(mDataObservable);
 
-    @NonNull
-    private final ThreadFactory mThreadFactory;
+    /** The number of rows to look ahead before loading. */
+    private int mLookAheadRowCount = 5;
 
-    @NonNull
-    private final Lock mLock = new ReentrantLock();
+    /** @see #setMaxConcurrentIncrements(int) */
+    private int mMaxConcurrentIncrements = 1;
 
+    /** Increments that are loading, or loaded but waiting for preceding increments, in order. */
     @NonNull
-    private final Condition mLoad = mLock.newCondition();
+    private final ArrayDeque<Increment> mIncrements = new ArrayDeque<>();
 
-    /** The number of rows to look ahead before loading. */
-    private volatile int mLookAheadRowCount = 5;
+    /** The index of the next increment to be loaded, counting from {@code 0} when loading begins. */
+    private int mNextIncrement;
 
-    @Nullable
-    private Thread mThread;
+    /** Indicates loading has begun from the start, and hasn't been stopped since. */
+    private boolean mStarted;
+
+    /** Moving average of the time taken to load an increment, in milliseconds. */
+    private float mLoadMillis;
+
+    /** Moving average of the number of elements in an increment. */
+    private float mIncrementSize;
+
+    /** Moving average of the rate at which rows are presented while moving towards the end, in rows per millisecond. */
+    private float mPresentationRate;
+
+    private int mLastPresentedPosition = -1;
+    private long mLastPresentedNanos;
+
+    /** Indicates the source has more elements to be loaded. */
+    private boolean mMoreAvailable;
 
     /** Indicates the last attempt to load a page failed. */
-    private volatile boolean mError;
+    private boolean mError;
 
     private boolean mLoading;
     private int mAvailable = Integer.MAX_VALUE;
@@ -56,18 +90,41 @@ public abstract class IncrementalArrayData<T> extends Data<T> implements Closeab
     private boolean mClear;
 
     protected IncrementalArrayData() {
-        this(DEFAULT_THREAD_FACTORY);
+        this(defaultExecutor());
     }
 
+    /**
+     * Creates an instance that loads using its own pool of threads created by {@code threadFactory}. Idle threads are
+     * discarded.
+     */
     @SuppressWarnings("WeakerAccess")
     protected IncrementalArrayData(@NonNull ThreadFactory threadFactory) {
-        mThreadFactory = threadFactory;
+        this(newCachedThreadPool(threadFactory));
+    }
+
+    /**
+     * Creates an instance that loads each increment by submitting a task to {@code executor}, and delivers the results
+     * on the main thread. Loading is canceled by interrupting the thread executing the task.
+     */
+    @SuppressWarnings("WeakerAccess")
+    protected IncrementalArrayData(@NonNull Executor executor) {
+        this(DataSchedulers.main(executor));
+    }
+
+    /**
+     * Creates an instance that loads each increment by submitting a task to the background executor of
+     * {@code scheduler}, and delivers the results on its delivery thread. Loading is canceled by interrupting the
+     * thread executing the task.
+     */
+    @SuppressWarnings("WeakerAccess")
+    protected IncrementalArrayData(@NonNull DataScheduler scheduler) {
+        super(scheduler);
     }
 
     @CallSuper
     @Override
     public void close() {
-        stopThread();
+        stopLoading();
         mData.clear();
         mData.trimToSize();
     }
@@ -82,8 +139,17 @@ public abstract class IncrementalArrayData<T> extends Data<T> implements Closeab
     public final T get(int position, int flags) {
         // Requested end of data? Time to load more.
         // The presence of the presentation flag indicates this is a good time to continue loading elements.
-        if ((flags & FLAG_PRESENTATION) != 0 && position >= size() - 1 - mLookAheadRowCount) {
-            proceed();
+        if ((flags & FLAG_PRESENTATION) != 0) {
+            recordPresentation(position);
+            if (position >= size() - 1 - getPrefetchDistance()) {
+                // May be called during layout, so loading state changes mustn't be dispatched from here.
+                beginDeferringState();
+                try {
+                    proceed();
+                } finally {
+                    endDeferringState();
+                }
+            }
         }
         return mData.get(position);
     }
@@ -102,9 +168,9 @@ public abstract class IncrementalArrayData<T> extends Data<T> implements Closeab
 
     @Override
     public final void refresh() {
-        stopThread();
+        stopLoading();
         mDirty = true;
-        if (!startThreadIfNeeded()) {
+        if (!startLoadingIfNeeded()) {
             setLoading(false);
         }
     }
@@ -132,6 +198,23 @@ public abstract class IncrementalArrayData<T> extends Data<T> implements Closeab
         mLookAheadRowCount = lookAheadRowCount;
     }
 
+    @UiThread
+    public final int getMaxConcurrentIncrements() {
+        return mMaxConcurrentIncrements;
+    }
+
+    /**
+     * Sets the maximum number of increments that may be loaded concurrently, which defaults to {@code 1}. Values
+     * greater than {@code 1} require {@link #load(int)} to be overridden, and to be safe to call concurrently.
+     */
+    @UiThread
+    public final void setMaxConcurrentIncrements(int maxConcurrentIncrements) {
+        if (maxConcurrentIncrements < 1) {
+            throw new IllegalArgumentException("Max concurrent increments must be >= 1");
+        }
+        mMaxConcurrentIncrements = maxConcurrentIncrements;
+    }
+
     @Override
     public final boolean isLoading() {
         return mLoading;
@@ -152,6 +235,13 @@ public abstract class IncrementalArrayData<T> extends Data<T> implements Closeab
         return mData;
     }
 
+    /** Returns an immutable snapshot of the elements in constant time, by sharing the backing array. */
+    @NonNull
+    @Override
+    public List<T> snapshot() {
+        return mData.snapshot();
+    }
+
     @CallSuper
     @Override
     protected void onFirstDataObserverRegistered() {
@@ -165,7 +255,7 @@ public abstract class IncrementalArrayData<T> extends Data<T> implements Closeab
             onClear();
             mData.clear();
         }
-        startThreadIfNeeded();
+        startLoadingIfNeeded();
     }
 
     /**
@@ -178,6 +268,21 @@ public abstract class IncrementalArrayData<T> extends Data<T> implements Closeab
     @Nullable
     protected abstract Result<? extends T> load() throws Throwable;
 
+    /**
+     * Called from a worker thread to load the specified increment of items. By default, calls {@link #load()}. Must be
+     * overridden to load the increment by index if {@link #setMaxConcurrentIncrements(int)} is greater than {@code 1},
+     * since in that case this method may be called concurrently, and out of order.
+     * @param increment The index of the increment to load, starting from {@code 0} when loading begins.
+     * @return A result containing the specified set of elements to be appended, or {@code null} if there are no more
+     * items. The result also indicates if these are the final elements of the data set.
+     * @throws Throwable If any error occurs while trying to load.
+     */
+    @WorkerThread
+    @Nullable
+    protected Result<? extends T> load(int increment) throws Throwable {
+        return load();
+    }
+
     /** Called prior to elements being cleared. Always called from the UI thread. */
     @UiThread
     protected void onClear() {
@@ -188,99 +293,113 @@ public abstract class IncrementalArrayData<T> extends Data<T> implements Closeab
     protected void onLoadBegin() {
     }
 
-    private boolean startThreadIfNeeded() {
-        if (mDirty && mThread == null && getDataObserverCount() > 0) {
+    private boolean startLoadingIfNeeded() {
+        if (mDirty && !mStarted && getDataObserverCount() > 0) {
             mDirty = false;
+            mStarted = true;
+            mNextIncrement = 0;
+            mMoreAvailable = true;
             onLoadBegin();
-            setLoading(true);
-            mThread = mThreadFactory.newThread(new Runnable() {
-                @Override
-                public void run() {
-                    runLoadLoop();
-                }
-            });
-            mThread.start();
+            loadIncrement();
             return true;
         }
         return false;
     }
 
-    private void stopThread() {
-        if (mThread != null) {
-            mThread.interrupt();
-            mThread = null;
-        }
+    private void stopLoading() {
+        cancelIncrements();
+        mStarted = false;
     }
 
-    private void runLoadLoop() {
-        try {
-            loadLoop();
-        } catch (InterruptedException e) {
-            // Normal thread termination.
+    /**
+     * Submits tasks to load as many increments as are needed to cover the prefetch distance, up to the maximum number
+     * of concurrent increments. Always loads at least one, unless one is already loading or none remain.
+     */
+    private void proceed() {
+        mError = false;
+        int count = min(mMaxConcurrentIncrements, max(1, getIncrementsNeeded())) - mIncrements.size();
+        // Increments may be applied synchronously by some schedulers, so check the state after each one.
+        for (int i = 0; i < count && mStarted && mMoreAvailable && !mError; i++) {
+            loadIncrement();
         }
     }
 
-    /**
-     * Loads each increment until full range has been loading, halting in between increment until instructed to
-     * proceed.
-     */
-    private void loadLoop() throws InterruptedException {
-        boolean firstItem = true;
-        boolean moreAvailable = true;
-
-        // Loop until all loaded.
-        while (moreAvailable) {
-            // Thread interruptions terminate the loop.
-            if (currentThread().isInterrupted()) {
-                throw new InterruptedException();
-            }
-            try {
-                setLoading(true);
-
-                // Load next increment of items.
-                final Result<? extends T> result = load();
-                moreAvailable = result != null && result.getRemaining() > 0;
-                setAvailable(result != null ? result.getRemaining() : 0);
-
-                // If invalidated while shown, we lazily clear the data so the user doesn't see blank data while loading.
-                final boolean needToClear = firstItem;
-                firstItem = false;
-                runOnUiThread(new Runnable() {
-                    @Override
-                    public void run() {
-                        List<? extends T> elements =
-                                result != null ? result.getElements() : Collections.<T>emptyList();
-                        if (needToClear) {
-                            overwriteResult(elements);
-                        } else {
-                            appendResult(elements);
-                        }
-                        setLoading(false);
-                    }
-                });
-            } catch (InterruptedException e) {
-                throw e;
-            } catch (InterruptedIOException e) {
-                InterruptedException interruptedException = new InterruptedException();
-                interruptedException.initCause(e);
-                throw interruptedException;
-            } catch (final Throwable e) {
-                runOnUiThread(new Runnable() {
-                    @Override
-                    public void run() {
-                        notifyError(e);
-                    }
-                });
+    private void loadIncrement() {
+        Increment increment = new Increment(mNextIncrement++);
+        mIncrements.addLast(increment);
+        setLoading(true);
+        getScheduler().execute(increment.mTask);
+    }
+
+    /** Applies loaded increments in order, stopping at the first that hasn't finished loading. */
+    private void applyIncrements() {
+        Increment increment;
+        while ((increment = mIncrements.peekFirst()) != null && increment.mDone) {
+            mIncrements.removeFirst();
+            if (increment.mError != null) {
+                // Subsequent increments are discarded, and must be loaded again once loading is explicitly resumed.
+                cancelIncrements();
+                mNextIncrement = increment.mIndex;
                 mError = true;
-                setLoading(false);
+                notifyError(increment.mError);
+                break;
             }
+            Result<? extends T> result = increment.mResult;
+            mMoreAvailable = result != null && result.getRemaining() > 0;
+            setAvailable(result != null ? result.getRemaining() : 0);
+            List<? extends T> elements = result != null ? result.getElements() : Collections.<T>emptyList();
+            mIncrementSize = average(mIncrementSize, elements.size());
+            // If invalidated while shown, we lazily clear the data so the user doesn't see blank data while loading.
+            if (increment.mIndex == 0) {
+                overwriteResult(elements);
+            } else {
+                appendResult(elements);
+            }
+            if (!mMoreAvailable) {
+                cancelIncrements();
+                break;
+            }
+        }
+        setLoading(!mIncrements.isEmpty());
+    }
+
+    private void cancelIncrements() {
+        for (Increment increment : mIncrements) {
+            increment.cancel();
+        }
+        mIncrements.clear();
+    }
+
+    /** Returns the number of rows from the end within which presenting a row triggers loading. */
+    private int getPrefetchDistance() {
+        return max(mLookAheadRowCount, (int) ceil(mPresentationRate * mLoadMillis));
+    }
 
-            // Block until instructed to continue, even if an error occurred.
-            // In this case, loading must be explicitly resumed.
-            block();
+    /** Returns the number of increments needed to extend the elements past the prefetch distance. */
+    private int getIncrementsNeeded() {
+        if (mIncrementSize <= 0) {
+            return 1;
+        }
+        int shortfall = mLastPresentedPosition + getPrefetchDistance() - (size() - 1);
+        return (int) ceil(shortfall / mIncrementSize);
+    }
+
+    private void recordPresentation(int position) {
+        long now = System.nanoTime();
+        if (mLastPresentedPosition >= 0 && position > mLastPresentedPosition) {
+            float elapsedMillis = max(1, (now - mLastPresentedNanos) / 1000000f);
+            mPresentationRate = average(mPresentationRate, (position - mLastPresentedPosition) / elapsedMillis);
+        }
+        if (position != mLastPresentedPosition) {
+            mLastPresentedPosition = position;
+            mLastPresentedNanos = now;
         }
     }
 
+    private static float average(float average, float sample) {
+        return average <= 0 ? sample : average + (sample - average) * 0.25f;
+    }
+
     private void overwriteResult(@NonNull List<? extends T> result) {
         mClear = false;
         onClear();
@@ -291,46 +410,90 @@ public abstract class IncrementalArrayData<T> extends Data<T> implements Closeab
         mData.addAll(result);
     }
 
-    private void setLoading(final boolean loading) {
-        runOnUiThread(new Runnable() {
-            @Override
-            public void run() {
-                if (mLoading != loading) {
-                    mLoading = loading;
-                    notifyLoadingChanged();
-                }
-            }
-        });
+    private void setLoading(boolean loading) {
+        if (mLoading != loading) {
+            mLoading = loading;
+            notifyLoadingChanged();
+        }
+    }
+
+    private void setAvailable(int available) {
+        if (mAvailable != available) {
+            mAvailable = available;
+            notifyAvailableChanged();
+        }
     }
 
-    private void setAvailable(final int available) {
-        runOnUiThread(new Runnable() {
+    @NonNull
+    private static synchronized Executor defaultExecutor() {
+        if (sDefaultExecutor == null) {
+            sDefaultExecutor = newCachedThreadPool(DEFAULT_THREAD_FACTORY);
+        }
+        return sDefaultExecutor;
+    }
+
+    private final class Increment {
+
+        final int mIndex;
+
+        final long mStartNanos = System.nanoTime();
+
+        @NonNull
+        final FutureTask<Void> mTask = new FutureTask<>(new Callable<Void>() {
             @Override
-            public void run() {
-                if (mAvailable != available) {
-                    mAvailable = available;
-                    notifyAvailableChanged();
+            public Void call() throws Exception {
+                try {
+                    final Result<? extends T> result = load(mIndex);
+                    runOnUiThread(new Runnable() {
+                        @Override
+                        public void run() {
+                            onDone(result, null);
+                        }
+                    });
+                } catch (InterruptedException | InterruptedIOException e) {
+                    // Loading was canceled.
+                } catch (final Throwable e) {
+                    runOnUiThread(new Runnable() {
+                        @Override
+                        public void run() {
+                            onDone(null, e);
+                        }
+                    });
                 }
+                return null;
             }
         });
-    }
 
-    private void block() throws InterruptedException {
-        mLock.lock();
-        try {
-            mLoad.await();
-        } finally {
-            mLock.unlock();
+        @Nullable
+        Result<? extends T> mResult;
+
+        @Nullable
+        Throwable mError;
+
+        boolean mDone;
+
+        /** Only accessed from the UI thread. */
+        boolean mCanceled;
+
+        Increment(int index) {
+            mIndex = index;
         }
-    }
 
-    private void proceed() {
-        mError = false;
-        mLock.lock();
-        try {
-            mLoad.signal();
-        } finally {
-            mLock.unlock();
+        void cancel() {
+            mCanceled = true;
+            mTask.cancel(true);
+        }
+
+        void onDone(@Nullable Result<? extends T> result, @Nullable Throwable error) {
+            // Results of canceled increments are discarded.
+            if (mCanceled) {
+                return;
+            }
+            mResult = result;
+            mError = error;
+            mDone = true;
+            mLoadMillis = average(mLoadMillis, (System.nanoTime() - mStartNanos) / 1000000f);
+            applyIncrements();
         }
     }
 
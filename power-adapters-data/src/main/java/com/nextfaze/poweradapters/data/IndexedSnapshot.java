@@ -0,0 +1,41 @@
+package com.nextfaze.poweradapters.data;
+
+import lombok.NonNull;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import static java.lang.String.format;
+
+/**
+ * Immutable view of the elements of an inner snapshot at the specified inner positions, used by wrappers that map
+ * their positions through an index. The elements of the inner snapshot are shared, but the inner positions are a copy
+ * of the index, so creating one takes time proportional to its size.
+ */
+final class IndexedSnapshot<T> extends AbstractList<T> implements RandomAccess {
+
+    @NonNull
+    private final List<? extends T> mElements;
+
+    @NonNull
+    private final int[] mInnerPositions;
+
+    IndexedSnapshot(@NonNull List<? extends T> elements, @NonNull int[] innerPositions) {
+        mElements = elements;
+        mInnerPositions = innerPositions;
+    }
+
+    @Override
+    public T get(int location) {
+        if (location < 0 || location >= mInnerPositions.length) {
+            throw new IndexOutOfBoundsException(format("Position %s, size %s", location, mInnerPositions.length));
+        }
+        return mElements.get(mInnerPositions[location]);
+    }
+
+    @Override
+    public int size() {
+        return mInnerPositions.length;
+    }
+}
@@ -2,7 +2,10 @@ package com.nextfaze.poweradapters.data;
 
 import lombok.NonNull;
 
+import java.util.List;
+
 import static java.lang.Math.*;
+import static java.util.Collections.unmodifiableList;
 
 final class LimitData<T> extends DataWrapper<T> {
 
@@ -55,6 +58,13 @@ final class LimitData<T> extends DataWrapper<T> {
         return min(super.size(), mLimit);
     }
 
+    @NonNull
+    @Override
+    public List<T> snapshot() {
+        List<? extends T> snapshot = mData.snapshot();
+        return unmodifiableList(snapshot.subList(0, min(snapshot.size(), mLimit)));
+    }
+
     @Override
     protected void forwardItemRangeChanged(int innerPositionStart, int innerItemCount) {
         if (innerItemCount > 0 && innerPositionStart < mLimit) {
@@ -105,12 +115,23 @@ final class LimitData<T> extends DataWrapper<T> {
 
     @Override
     protected void forwardItemRangeMoved(int innerFromPosition, int innerToPosition, int innerItemCount) {
-        int upperBound = max(innerFromPosition + innerItemCount, innerToPosition + innerItemCount);
-        if (upperBound < mLimit) {
+        if (innerItemCount <= 0 || min(innerFromPosition, innerToPosition) >= mLimit) {
+            // Entirely beyond the limit.
+            return;
+        }
+        if (max(innerFromPosition, innerToPosition) + innerItemCount <= mLimit) {
+            // Entirely within the limit.
             notifyItemRangeMoved(innerFromPosition, innerToPosition, innerItemCount);
+        } else if (innerFromPosition < innerToPosition) {
+            // Visible moved items leave through the limit, and are replaced by those shifting into range.
+            int count = min(innerItemCount, mLimit - innerFromPosition);
+            notifyItemRangeRemoved(innerFromPosition, count);
+            notifyItemRangeInserted(mLimit - count, count);
         } else {
-            // TODO: Split into a removal and an insertion?
-            notifyDataSetChanged();
+            // Moved items enter through the limit, and push the items preceding them out of range.
+            int count = min(innerItemCount, mLimit - innerToPosition);
+            notifyItemRangeRemoved(mLimit - count, count);
+            notifyItemRangeInserted(innerToPosition, count);
         }
     }
 }
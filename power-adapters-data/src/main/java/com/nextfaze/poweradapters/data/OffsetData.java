@@ -2,7 +2,10 @@ package com.nextfaze.poweradapters.data;
 
 import lombok.NonNull;
 
+import java.util.List;
+
 import static java.lang.Math.*;
+import static java.util.Collections.unmodifiableList;
 
 final class OffsetData<T> extends DataWrapper<T> {
 
@@ -50,6 +53,13 @@ final class OffsetData<T> extends DataWrapper<T> {
         return max(0, super.size() - mOffset);
     }
 
+    @NonNull
+    @Override
+    public List<T> snapshot() {
+        List<? extends T> snapshot = mData.snapshot();
+        return unmodifiableList(snapshot.subList(min(mOffset, snapshot.size()), snapshot.size()));
+    }
+
     @Override
     protected void forwardItemRangeChanged(int innerPositionStart, int innerItemCount) {
         if (innerPositionStart + innerItemCount > mOffset) {
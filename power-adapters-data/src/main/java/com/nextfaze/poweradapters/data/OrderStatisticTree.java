@@ -0,0 +1,287 @@
+package com.nextfaze.poweradapters.data;
+
+import android.support.annotation.Nullable;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A randomized balanced binary tree (treap) that maintains a sequence of values, and supports accessing, inserting and
+ * removing elements by rank in {@code O(log n)} expected time. Nodes keep a reference to their parent, so the rank of
+ * a {@link Node} can also be determined in {@code O(log n)} time without a search.
+ * @param <E> The type of value stored in each node.
+ */
+final class OrderStatisticTree<E> {
+
+    @Nullable
+    private Node<E> mRoot;
+
+    /** State of the xorshift generator used to assign node priorities. */
+    private int mSeed = 0x2545F491;
+
+    int size() {
+        return size(mRoot);
+    }
+
+    void clear() {
+        mRoot = null;
+    }
+
+    /** Returns the node at the specified rank. */
+    @NonNull
+    Node<E> get(int rank) {
+        if (rank < 0 || rank >= size()) {
+            throw new IndexOutOfBoundsException("Rank: " + rank + ", size: " + size());
+        }
+        Node<E> node = mRoot;
+        while (true) {
+            //noinspection ConstantConditions
+            int leftSize = size(node.mLeft);
+            if (rank < leftSize) {
+                node = node.mLeft;
+            } else if (rank > leftSize) {
+                rank -= leftSize + 1;
+                node = node.mRight;
+            } else {
+                return node;
+            }
+        }
+    }
+
+    /** Returns the values of this tree in rank order, in time proportional to its size. */
+    @NonNull
+    List<E> values() {
+        List<E> values = new ArrayList<>(size());
+        addValues(mRoot, values);
+        return values;
+    }
+
+    /** Returns the rank of the specified node, which must be a member of this tree. */
+    int rankOf(@NonNull Node<E> node) {
+        int rank = size(node.mLeft);
+        for (Node<E> child = node, parent = node.mParent; parent != null; child = parent, parent = parent.mParent) {
+            if (child == parent.mRight) {
+                rank += size(parent.mLeft) + 1;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Returns the rank at which {@code value} should be inserted to keep this tree sorted according to {@code
+     * comparator}. The rank is after any existing values that compare equal, so insertion order is preserved among
+     * them. Assumes the tree is already sorted.
+     */
+    int upperBound(E value, @NonNull Comparator<? super E> comparator) {
+        int rank = 0;
+        Node<E> node = mRoot;
+        while (node != null) {
+            if (comparator.compare(node.mValue, value) <= 0) {
+                rank += size(node.mLeft) + 1;
+                node = node.mRight;
+            } else {
+                node = node.mLeft;
+            }
+        }
+        return rank;
+    }
+
+    /** Inserts a new node containing {@code value} at the specified rank, and returns it. */
+    @NonNull
+    Node<E> insert(int rank, E value) {
+        if (rank < 0 || rank > size()) {
+            throw new IndexOutOfBoundsException("Rank: " + rank + ", size: " + size());
+        }
+        Node<E> node = new Node<>(value, nextPriority());
+        if (mRoot == null) {
+            mRoot = node;
+            return node;
+        }
+        Node<E> parent = mRoot;
+        while (true) {
+            int leftSize = size(parent.mLeft);
+            if (rank <= leftSize) {
+                if (parent.mLeft == null) {
+                    parent.mLeft = node;
+                    break;
+                }
+                parent = parent.mLeft;
+            } else {
+                rank -= leftSize + 1;
+                if (parent.mRight == null) {
+                    parent.mRight = node;
+                    break;
+                }
+                parent = parent.mRight;
+            }
+        }
+        node.mParent = parent;
+        for (Node<E> n = parent; n != null; n = n.mParent) {
+            n.mSize++;
+        }
+        // Restore heap order of priorities.
+        while (node.mParent != null && node.mPriority > node.mParent.mPriority) {
+            rotateUp(node);
+        }
+        return node;
+    }
+
+    /**
+     * Replaces the contents of this tree with a balanced tree of the specified values, in order, without any rotations.
+     * Returns the new nodes, in order.
+     */
+    @SuppressWarnings("unchecked")
+    @NonNull
+    Node<E>[] replaceAll(@NonNull List<? extends E> values) {
+        int size = values.size();
+        Node<E>[] nodes = (Node<E>[]) new Node<?>[size];
+        int[] priorities = new int[size];
+        for (int i = 0; i < size; i++) {
+            priorities[i] = nextPriority();
+        }
+        Arrays.sort(priorities);
+        // Visit the subtree ranges breadth first, assigning descending priorities, so every node has a priority no
+        // greater than its parent.
+        int[] ranges = new int[size * 2];
+        int head = 0;
+        int tail = 0;
+        if (size > 0) {
+            ranges[tail++] = 0;
+            ranges[tail++] = size;
+        }
+        int priority = size - 1;
+        while (head < tail) {
+            int start = ranges[head++];
+            int end = ranges[head++];
+            int mid = (start + end) >>> 1;
+            nodes[mid] = new Node<>(values.get(mid), priorities[priority--]);
+            if (start < mid) {
+                ranges[tail++] = start;
+                ranges[tail++] = mid;
+            }
+            if (mid + 1 < end) {
+                ranges[tail++] = mid + 1;
+                ranges[tail++] = end;
+            }
+        }
+        mRoot = link(nodes, 0, size, null);
+        return nodes;
+    }
+
+    /** Removes the specified node, which must be a member of this tree. */
+    void remove(@NonNull Node<E> node) {
+        // Rotate the node down until it has at most one child.
+        while (node.mLeft != null && node.mRight != null) {
+            rotateUp(node.mLeft.mPriority > node.mRight.mPriority ? node.mLeft : node.mRight);
+        }
+        Node<E> child = node.mLeft != null ? node.mLeft : node.mRight;
+        Node<E> parent = node.mParent;
+        replaceChild(parent, node, child);
+        for (Node<E> n = parent; n != null; n = n.mParent) {
+            n.mSize--;
+        }
+        node.mParent = null;
+        node.mLeft = null;
+        node.mRight = null;
+        node.mSize = 1;
+    }
+
+    /** Rotates {@code node} above its parent. */
+    private void rotateUp(@NonNull Node<E> node) {
+        Node<E> parent = node.mParent;
+        //noinspection ConstantConditions
+        Node<E> grandparent = parent.mParent;
+        if (node == parent.mLeft) {
+            parent.mLeft = node.mRight;
+            if (node.mRight != null) {
+                node.mRight.mParent = parent;
+            }
+            node.mRight = parent;
+        } else {
+            parent.mRight = node.mLeft;
+            if (node.mLeft != null) {
+                node.mLeft.mParent = parent;
+            }
+            node.mLeft = parent;
+        }
+        parent.mParent = node;
+        replaceChild(grandparent, parent, node);
+        parent.mSize = size(parent.mLeft) + size(parent.mRight) + 1;
+        node.mSize = size(node.mLeft) + size(node.mRight) + 1;
+    }
+
+    private void replaceChild(@Nullable Node<E> parent, @NonNull Node<E> oldChild, @Nullable Node<E> newChild) {
+        if (parent == null) {
+            mRoot = newChild;
+        } else if (parent.mLeft == oldChild) {
+            parent.mLeft = newChild;
+        } else {
+            parent.mRight = newChild;
+        }
+        if (newChild != null) {
+            newChild.mParent = parent;
+        }
+    }
+
+    /** Links the nodes of the specified range into a subtree, and returns its root. */
+    @Nullable
+    private static <E> Node<E> link(@NonNull Node<E>[] nodes, int start, int end, @Nullable Node<E> parent) {
+        if (start >= end) {
+            return null;
+        }
+        int mid = (start + end) >>> 1;
+        Node<E> node = nodes[mid];
+        node.mParent = parent;
+        node.mLeft = link(nodes, start, mid, node);
+        node.mRight = link(nodes, mid + 1, end, node);
+        node.mSize = end - start;
+        return node;
+    }
+
+    private static <E> void addValues(@Nullable Node<E> node, @NonNull List<E> values) {
+        if (node != null) {
+            addValues(node.mLeft, values);
+            values.add(node.mValue);
+            addValues(node.mRight, values);
+        }
+    }
+
+    private int nextPriority() {
+        int x = mSeed;
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        mSeed = x;
+        return x;
+    }
+
+    private static int size(@Nullable Node<?> node) {
+        return node != null ? node.mSize : 0;
+    }
+
+    static final class Node<E> {
+
+        final int mPriority;
+
+        E mValue;
+
+        @Nullable
+        Node<E> mParent;
+
+        @Nullable
+        Node<E> mLeft;
+
+        @Nullable
+        Node<E> mRight;
+
+        int mSize = 1;
+
+        Node(E value, int priority) {
+            mValue = value;
+            mPriority = priority;
+        }
+    }
+}
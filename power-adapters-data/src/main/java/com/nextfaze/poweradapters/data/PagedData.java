@@ -0,0 +1,459 @@
+package com.nextfaze.poweradapters.data;
+
+import android.support.annotation.CallSuper;
+import android.support.annotation.UiThread;
+import android.support.annotation.WorkerThread;
+import lombok.NonNull;
+
+import java.io.Closeable;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * {@link Data} implementation that is loaded a page at a time, on demand, and only retains a bounded number of pages.
+ * The size of this data is the full size of the source, as reported by each loaded page. Positions belonging to pages
+ * that are not loaded are occupied by placeholder elements, and presenting a placeholder causes its page to be loaded.
+ * Once more than the maximum number of pages are loaded, the least recently presented pages are evicted, and their
+ * elements are replaced with placeholders again. Not thread-safe.
+ * <p>
+ * {@link #available()} returns the number of positions currently occupied by placeholders.
+ * @param <T> The type of element this data contains.
+ */
+public abstract class PagedData<T> extends Data<T> implements Closeable {
+
+    private final int mPageSize;
+
+    /** Loaded pages, keyed by page index, in order of least to most recently presented. */
+    @NonNull
+    private final LinkedHashMap<Integer, Page<T>> mPages = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** The same pages as {@link #mPages}, for looking them up without affecting their recency. */
+    @NonNull
+    private final Map<Integer, Page<T>> mPagesByIndex = new HashMap<>();
+
+    /** Pages currently being loaded, keyed by page index. */
+    @NonNull
+    private final Map<Integer, PageLoad> mPageLoads = new HashMap<>();
+
+    /** Pages that failed to load, which aren't loaded again until refreshed. */
+    @NonNull
+    private final Set<Integer> mFailedPages = new HashSet<>();
+
+    /** @see #setMaxPages(int) */
+    private int mMaxPages = 10;
+
+    /** @see #setPrefetchPageCount(int) */
+    private int mPrefetchPageCount = 1;
+
+    /** The full size of the source, as reported by the most recently loaded page. */
+    private int mSize;
+
+    /** The number of loaded elements, which are not placeholders. */
+    private int mLoadedCount;
+
+    /** Incremented whenever loaded pages become stale, so they're loaded again when next presented. */
+    private int mGeneration;
+
+    /** The most recently presented page, which is loaded first when loading starts. */
+    private int mLastPresentedPage;
+
+    private boolean mLoading;
+
+    protected PagedData(int pageSize) {
+        this(pageSize, DataSchedulers.main());
+    }
+
+    /**
+     * @param pageSize The number of elements in each page.
+     * @param scheduler The scheduler used to load pages in the background, and deliver them.
+     */
+    protected PagedData(int pageSize, @NonNull DataScheduler scheduler) {
+        super(scheduler);
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be > 0");
+        }
+        mPageSize = pageSize;
+    }
+
+    @CallSuper
+    @Override
+    public void close() {
+        cancelPageLoads();
+        updateLoading();
+        clear();
+    }
+
+    @Override
+    public final int size() {
+        return mSize;
+    }
+
+    @NonNull
+    @Override
+    public final T get(int position, int flags) {
+        if (position < 0 || position >= mSize) {
+            throw new IndexOutOfBoundsException("Position: " + position + ", size: " + mSize);
+        }
+        int pageIndex = position / mPageSize;
+        Page<T> page;
+        if ((flags & FLAG_PRESENTATION) != 0) {
+            mLastPresentedPage = pageIndex;
+            // May be called during layout, so loading state changes mustn't be dispatched from here.
+            beginDeferringState();
+            try {
+                loadPagesAround(pageIndex);
+            } finally {
+                endDeferringState();
+            }
+            // Presentation also marks the page as the most recently used.
+            page = mPages.get(pageIndex);
+        } else {
+            page = mPagesByIndex.get(pageIndex);
+        }
+        if (page != null) {
+            int index = position - pageIndex * mPageSize;
+            if (index < page.mElements.size()) {
+                return page.mElements.get(index);
+            }
+        }
+        return getPlaceholder(position);
+    }
+
+    @Override
+    public final void invalidate() {
+        // Loaded pages remain visible until loaded again.
+        mGeneration++;
+        mFailedPages.clear();
+    }
+
+    @Override
+    public final void refresh() {
+        invalidate();
+        cancelPageLoads();
+        if (getDataObserverCount() > 0) {
+            loadPagesAround(mLastPresentedPage);
+        }
+        updateLoading();
+    }
+
+    @Override
+    public final void reload() {
+        cancelPageLoads();
+        clear();
+        refresh();
+    }
+
+    /** Discards all loaded pages, and reports a size of {@code 0} until a page is loaded again. */
+    @UiThread
+    public final void clear() {
+        onClear();
+        mPages.clear();
+        mPagesByIndex.clear();
+        mLoadedCount = 0;
+        int size = mSize;
+        mSize = 0;
+        notifyItemRangeRemoved(0, size);
+        notifyAvailableChanged();
+    }
+
+    @Override
+    public final boolean isLoading() {
+        return mLoading;
+    }
+
+    @Override
+    public final int available() {
+        return mSize - mLoadedCount;
+    }
+
+    public final int getPageSize() {
+        return mPageSize;
+    }
+
+    @UiThread
+    public final int getMaxPages() {
+        return mMaxPages;
+    }
+
+    /**
+     * Sets the maximum number of pages retained. Once exceeded, the least recently presented pages are evicted. Must
+     * be large enough to hold the pages visible at once, plus those prefetched.
+     */
+    @UiThread
+    public final void setMaxPages(int maxPages) {
+        if (maxPages < 1) {
+            throw new IllegalArgumentException("Max pages must be >= 1");
+        }
+        mMaxPages = maxPages;
+        evictPages();
+    }
+
+    @UiThread
+    public final int getPrefetchPageCount() {
+        return mPrefetchPageCount;
+    }
+
+    /** Sets the number of pages either side of a presented page that are loaded along with it. */
+    @UiThread
+    public final void setPrefetchPageCount(int prefetchPageCount) {
+        if (prefetchPageCount < 0) {
+            throw new IllegalArgumentException("Prefetch page count must be >= 0");
+        }
+        mPrefetchPageCount = prefetchPageCount;
+    }
+
+    @CallSuper
+    @Override
+    protected void onFirstDataObserverRegistered() {
+        super.onFirstDataObserverRegistered();
+        mFailedPages.clear();
+        loadPagesAround(mLastPresentedPage);
+        updateLoading();
+    }
+
+    /**
+     * Called from a worker thread to load the specified page. May be called concurrently for different pages.
+     * @param offset The position of the first element of the page.
+     * @param count The number of elements in a page.
+     * @return A result containing the elements of the page, and the full size of the source.
+     * @throws Throwable If any error occurs while trying to load.
+     */
+    @WorkerThread
+    @NonNull
+    protected abstract Result<? extends T> load(int offset, int count) throws Throwable;
+
+    /**
+     * Returns the placeholder element presented at the specified position while its page is not loaded. Always called
+     * from the UI thread.
+     */
+    @UiThread
+    @NonNull
+    protected abstract T getPlaceholder(int position);
+
+    /** Called prior to elements being cleared. Always called from the UI thread. */
+    @UiThread
+    protected void onClear() {
+    }
+
+    private void loadPagesAround(int pageIndex) {
+        if (getDataObserverCount() <= 0) {
+            return;
+        }
+        loadPageIfNeeded(pageIndex);
+        int pageCount = (mSize + mPageSize - 1) / mPageSize;
+        for (int i = 1; i <= mPrefetchPageCount; i++) {
+            if (pageIndex + i < pageCount) {
+                loadPageIfNeeded(pageIndex + i);
+            }
+            if (pageIndex - i >= 0) {
+                loadPageIfNeeded(pageIndex - i);
+            }
+        }
+        updateLoading();
+    }
+
+    private void loadPageIfNeeded(int pageIndex) {
+        if (mPageLoads.containsKey(pageIndex) || mFailedPages.contains(pageIndex)) {
+            return;
+        }
+        Page<T> page = mPagesByIndex.get(pageIndex);
+        if (page != null && page.mGeneration == mGeneration) {
+            return;
+        }
+        PageLoad pageLoad = new PageLoad(pageIndex, mGeneration);
+        mPageLoads.put(pageIndex, pageLoad);
+        getScheduler().execute(pageLoad.mTask);
+    }
+
+    private void onPageLoaded(int pageIndex, int generation, @NonNull Result<? extends T> result) {
+        setSize(result.getSize());
+        int offset = pageIndex * mPageSize;
+        int count = min(min(result.getElements().size(), mPageSize), max(0, mSize - offset));
+        Page<T> previous = mPages.remove(pageIndex);
+        mPagesByIndex.remove(pageIndex);
+        if (previous != null) {
+            mLoadedCount -= previous.mElements.size();
+        }
+        if (count > 0) {
+            List<T> elements = new ArrayList<T>(result.getElements().subList(0, count));
+            Page<T> page = new Page<>(elements, generation);
+            mPages.put(pageIndex, page);
+            mPagesByIndex.put(pageIndex, page);
+            mLoadedCount += count;
+        }
+        notifyItemRangeChanged(offset, max(count, previous != null ? previous.mElements.size() : 0));
+        evictPages();
+        notifyAvailableChanged();
+    }
+
+    private void setSize(int size) {
+        int oldSize = mSize;
+        if (size > oldSize) {
+            mSize = size;
+            notifyItemRangeInserted(oldSize, size - oldSize);
+        } else if (size < oldSize) {
+            // Discard pages or parts of pages that no longer exist.
+            for (Iterator<Map.Entry<Integer, Page<T>>> it = mPages.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<Integer, Page<T>> entry = it.next();
+                int offset = entry.getKey() * mPageSize;
+                List<T> elements = entry.getValue().mElements;
+                int retained = max(0, min(elements.size(), size - offset));
+                if (retained < elements.size()) {
+                    mLoadedCount -= elements.size() - retained;
+                    if (retained == 0) {
+                        it.remove();
+                        mPagesByIndex.remove(entry.getKey());
+                    } else {
+                        elements.subList(retained, elements.size()).clear();
+                    }
+                }
+            }
+            mSize = size;
+            notifyItemRangeRemoved(size, oldSize - size);
+        }
+    }
+
+    private void evictPages() {
+        Iterator<Map.Entry<Integer, Page<T>>> it = mPages.entrySet().iterator();
+        while (mPages.size() > mMaxPages && it.hasNext()) {
+            Map.Entry<Integer, Page<T>> entry = it.next();
+            it.remove();
+            mPagesByIndex.remove(entry.getKey());
+            int count = entry.getValue().mElements.size();
+            mLoadedCount -= count;
+            // Evicted elements are replaced by placeholders.
+            notifyItemRangeChanged(entry.getKey() * mPageSize, count);
+        }
+    }
+
+    private void cancelPageLoads() {
+        for (PageLoad pageLoad : mPageLoads.values()) {
+            pageLoad.cancel();
+        }
+        mPageLoads.clear();
+    }
+
+    private void updateLoading() {
+        boolean loading = !mPageLoads.isEmpty();
+        if (mLoading != loading) {
+            mLoading = loading;
+            notifyLoadingChanged();
+        }
+    }
+
+    private static final class Page<T> {
+
+        @NonNull
+        final List<T> mElements;
+
+        /** The value of {@link #mGeneration} when the page began loading. */
+        final int mGeneration;
+
+        Page(@NonNull List<T> elements, int generation) {
+            mElements = elements;
+            mGeneration = generation;
+        }
+    }
+
+    private final class PageLoad {
+
+        final int mPageIndex;
+
+        final int mGeneration;
+
+        @NonNull
+        final FutureTask<Void> mTask = new FutureTask<>(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                try {
+                    final Result<? extends T> result = load(mPageIndex * mPageSize, mPageSize);
+                    runOnUiThread(new Runnable() {
+                        @Override
+                        public void run() {
+                            if (finish()) {
+                                onPageLoaded(mPageIndex, mGeneration, result);
+                            }
+                        }
+                    });
+                } catch (InterruptedException | InterruptedIOException e) {
+                    // Loading was canceled.
+                } catch (final Throwable e) {
+                    runOnUiThread(new Runnable() {
+                        @Override
+                        public void run() {
+                            if (finish()) {
+                                mFailedPages.add(mPageIndex);
+                                notifyError(e);
+                            }
+                        }
+                    });
+                }
+                return null;
+            }
+        });
+
+        /** Only accessed from the UI thread. */
+        boolean mCanceled;
+
+        PageLoad(int pageIndex, int generation) {
+            mPageIndex = pageIndex;
+            mGeneration = generation;
+        }
+
+        void cancel() {
+            mCanceled = true;
+            mTask.cancel(true);
+        }
+
+        /** Removes this load from the set of page loads. Returns {@code false} if it was canceled. */
+        boolean finish() {
+            if (mCanceled) {
+                return false;
+            }
+            mPageLoads.remove(mPageIndex);
+            updateLoading();
+            return true;
+        }
+    }
+
+    public static final class Result<T> {
+
+        @NonNull
+        private final List<? extends T> mElements;
+
+        /** The full size of the source. */
+        private final int mSize;
+
+        public Result(@NonNull List<? extends T> elements, int size) {
+            mElements = elements;
+            mSize = max(0, size);
+        }
+
+        @NonNull
+        public static <T> Result<T> empty() {
+            return new Result<>(Collections.<T>emptyList(), 0);
+        }
+
+        @NonNull
+        public List<? extends T> getElements() {
+            return mElements;
+        }
+
+        public int getSize() {
+            return mSize;
+        }
+    }
+}
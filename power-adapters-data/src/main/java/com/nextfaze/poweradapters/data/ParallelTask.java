@@ -0,0 +1,155 @@
+package com.nextfaze.poweradapters.data;
+
+import android.support.annotation.UiThread;
+import android.support.annotation.WorkerThread;
+import lombok.NonNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * Computes a result over a range of elements in the background, by splitting it into chunks which are processed
+ * concurrently using the background executor of a {@link DataScheduler}. Once every chunk has been processed, the
+ * thread that processed the last one combines them, and the result is delivered on the delivery thread. No thread ever
+ * waits for another, so this is safe to use with bounded executors.
+ * @param <R> The type of result.
+ */
+abstract class ParallelTask<R> {
+
+    /**
+     * The size at or above which rebuilding an index over all elements is worth doing in the background, for wrappers
+     * that have been allowed to do so.
+     */
+    static final int BACKGROUND_THRESHOLD = 8192;
+
+    /** The minimum number of elements in a chunk, below which the overhead of a separate task isn't worthwhile. */
+    private static final int MIN_CHUNK_SIZE = 1024;
+
+    @NonNull
+    private final DataScheduler mScheduler;
+
+    private final int mSize;
+
+    private final int mChunkCount;
+
+    @NonNull
+    private final AtomicInteger mRemaining;
+
+    @NonNull
+    private final AtomicReference<Throwable> mError = new AtomicReference<>();
+
+    private volatile boolean mCanceled;
+
+    ParallelTask(@NonNull DataScheduler scheduler, int size) {
+        mScheduler = scheduler;
+        mSize = size;
+        int processors = Runtime.getRuntime().availableProcessors();
+        mChunkCount = max(1, min(processors, size / MIN_CHUNK_SIZE));
+        mRemaining = new AtomicInteger(mChunkCount);
+    }
+
+    final int getChunkCount() {
+        return mChunkCount;
+    }
+
+    /** Returns the start of the specified chunk. The end of a chunk is the start of the next. */
+    final int chunkStart(int chunk) {
+        return (int) ((long) mSize * chunk / mChunkCount);
+    }
+
+    @UiThread
+    final void execute() {
+        for (int i = 0; i < mChunkCount; i++) {
+            final int chunk = i;
+            mScheduler.execute(new Runnable() {
+                @Override
+                public void run() {
+                    runChunk(chunk);
+                }
+            });
+        }
+    }
+
+    /**
+     * Prevents the result being delivered. Chunks not yet started are skipped, and those in progress may stop early by
+     * checking {@link #isCanceled()}.
+     */
+    @UiThread
+    final void cancel() {
+        mCanceled = true;
+    }
+
+    /** Returns whether this task has been canceled. May be called from any thread. */
+    final boolean isCanceled() {
+        return mCanceled;
+    }
+
+    /**
+     * Processes the elements of the specified chunk, from {@code start} inclusive to {@code end} exclusive. Long-running
+     * implementations should periodically check {@link #isCanceled()}, and return early if so.
+     */
+    @WorkerThread
+    protected abstract void processChunk(int chunk, int start, int end) throws Throwable;
+
+    /** Combines the processed chunks into the result. */
+    @WorkerThread
+    @NonNull
+    protected abstract R combine() throws Throwable;
+
+    @UiThread
+    protected abstract void onSuccess(@NonNull R result);
+
+    @UiThread
+    protected abstract void onFailure(@NonNull Throwable e);
+
+    private void runChunk(int chunk) {
+        if (!mCanceled && mError.get() == null) {
+            try {
+                processChunk(chunk, chunkStart(chunk), chunkStart(chunk + 1));
+            } catch (Throwable e) {
+                mError.compareAndSet(null, e);
+            }
+        }
+        if (mRemaining.decrementAndGet() == 0 && !mCanceled) {
+            finish();
+        }
+    }
+
+    private void finish() {
+        Throwable error = mError.get();
+        if (error == null) {
+            try {
+                deliverSuccess(combine());
+                return;
+            } catch (Throwable e) {
+                error = e;
+            }
+        }
+        deliverFailure(error);
+    }
+
+    private void deliverSuccess(@NonNull final R result) {
+        mScheduler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (!mCanceled) {
+                    onSuccess(result);
+                }
+            }
+        });
+    }
+
+    private void deliverFailure(@NonNull final Throwable e) {
+        mScheduler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (!mCanceled) {
+                    onFailure(e);
+                }
+            }
+        });
+    }
+}
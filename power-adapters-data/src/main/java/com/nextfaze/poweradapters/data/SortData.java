@@ -1,25 +1,64 @@
 package com.nextfaze.poweradapters.data;
 
+import android.support.annotation.Nullable;
 import lombok.NonNull;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.List;
 
+import static com.nextfaze.poweradapters.data.ParallelTask.BACKGROUND_THRESHOLD;
+import static java.lang.Math.min;
+import static java.lang.System.arraycopy;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Provides a sorted view of the wrapped data. The sort is stable: elements that compare equal are always in the same
+ * relative order as in the wrapped data, including after the wrapped data inserts, changes or moves elements.
+ * <p>
+ * If constructed to sort in the background, and the wrapped data is large, the index is rebuilt in the background
+ * using a snapshot of the wrapped data, in which case the comparator is called from worker threads. The sorted
+ * elements then appear once the rebuild completes. Changes to the wrapped data while a rebuild is in progress are
+ * queued, and applied to the rebuilt index once it completes.
+ */
 final class SortData<T> extends DataWrapper<T> {
 
+    /** Ranges of this size or less are sorted by insertion, rather than split further. */
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
     @NonNull
     private final Data<? extends T> mData;
 
     @NonNull
     private final Comparator<? super T> mComparator;
 
+    /** Indicates the index may be rebuilt in the background, which requires the comparator to be thread-safe. */
+    private final boolean mBackground;
+
     @NonNull
-    private final Index mIndex = new Index();
+    private Index mIndex = new Index();
+
+    /**
+     * Task rebuilding the index in the background, if any. Until it completes, the index doesn't reflect the wrapped
+     * data, so elements are served from the values cached by the index instead.
+     */
+    @Nullable
+    private ParallelTask<Index> mRebuildTask;
+
+    /** Changes to the wrapped data since the snapshot of the rebuild in progress was taken, in the order they occurred. */
+    @NonNull
+    private final List<Delta> mPendingDeltas = new ArrayList<>();
 
     SortData(@NonNull Data<? extends T> data, @NonNull Comparator<? super T> comparator) {
+        this(data, comparator, false);
+    }
+
+    SortData(@NonNull Data<? extends T> data, @NonNull Comparator<? super T> comparator, boolean background) {
         super(data);
         mData = data;
         mComparator = comparator;
+        mBackground = background;
     }
 
     @Override
@@ -30,12 +69,33 @@ final class SortData<T> extends DataWrapper<T> {
     @NonNull
     @Override
     public T get(int position, int flags) {
+        if (mRebuildTask != null) {
+            return mIndex.valueAt(position);
+        }
         return mData.get(mIndex.outerToInner(position));
     }
 
+    /**
+     * Returns an immutable snapshot that maps through a copy of the index onto the wrapped data's snapshot. While a
+     * rebuild is in progress, the values cached by the index are copied instead, as they're used by {@link #get(int,
+     * int)}. Either way, the index is copied, which takes time proportional to {@link #size()}.
+     */
+    @NonNull
+    @Override
+    public List<T> snapshot() {
+        if (mRebuildTask != null) {
+            return unmodifiableList(mIndex.values());
+        }
+        return new IndexedSnapshot<>(mData.snapshot(), mIndex.innerPositions());
+    }
+
     @Override
     protected void onFirstDataObserverRegistered() {
         super.onFirstDataObserverRegistered();
+        if (shouldRebuildInBackground()) {
+            rebuildInBackground();
+            return;
+        }
         rebuild();
         int itemCount = mIndex.size();
         if (itemCount > 0) {
@@ -46,130 +106,503 @@ final class SortData<T> extends DataWrapper<T> {
     @Override
     protected void onLastDataObserverUnregistered() {
         super.onLastDataObserverUnregistered();
+        cancelRebuild();
         mIndex.clear();
     }
 
     @Override
     protected void forwardChanged() {
+        if (mRebuildTask != null || shouldRebuildInBackground()) {
+            rebuildInBackground();
+            return;
+        }
         rebuild();
         notifyDataSetChanged();
     }
 
     @Override
-    protected void forwardItemRangeChanged(int innerPositionStart, int innerItemCount) {
+    protected void forwardItemRangeChanged(final int innerPositionStart, int innerItemCount) {
+        if (mRebuildTask != null) {
+            final List<T> values = values(innerPositionStart, innerItemCount);
+            mPendingDeltas.add(new Delta() {
+                @Override
+                void applyTo(@NonNull Index index) {
+                    for (int i = 0; i < values.size(); i++) {
+                        index.remove(innerPositionStart + i);
+                        index.insert(innerPositionStart + i, values.get(i));
+                    }
+                }
+            });
+            return;
+        }
         for (int innerPosition = innerPositionStart; innerPosition < innerPositionStart + innerItemCount; innerPosition++) {
-            T t = mData.get(innerPosition);
-            int oldOuterPosition = mIndex.remove(innerPosition);
-            notifyItemRemoved(oldOuterPosition);
-            int newOuterPosition = findOuterPositionForValue(t);
-            mIndex.insert(newOuterPosition, innerPosition);
-            notifyItemInserted(newOuterPosition);
+            T value = mData.get(innerPosition);
+            notifyItemRemoved(mIndex.remove(innerPosition));
+            notifyItemInserted(mIndex.insert(innerPosition, value));
         }
     }
 
     @Override
-    protected void forwardItemRangeInserted(int innerPositionStart, int innerItemCount) {
-        mIndex.shift(innerPositionStart, +innerItemCount);
+    protected void forwardItemRangeInserted(final int innerPositionStart, int innerItemCount) {
+        if (mRebuildTask != null) {
+            final List<T> values = values(innerPositionStart, innerItemCount);
+            mPendingDeltas.add(new Delta() {
+                @Override
+                void applyTo(@NonNull Index index) {
+                    for (int i = 0; i < values.size(); i++) {
+                        index.add(innerPositionStart + i, values.get(i));
+                    }
+                }
+            });
+            return;
+        }
         for (int innerPosition = innerPositionStart; innerPosition < innerPositionStart + innerItemCount; innerPosition++) {
             T value = mData.get(innerPosition);
-            int outerPosition = findOuterPositionForValue(value);
-            mIndex.insert(outerPosition, innerPosition);
-            notifyItemInserted(outerPosition);
+            notifyItemInserted(mIndex.add(innerPosition, value));
         }
     }
 
     @Override
-    protected void forwardItemRangeRemoved(int innerPositionStart, int innerItemCount) {
-        for (int innerPosition = innerPositionStart; innerPosition < innerPositionStart + innerItemCount; innerPosition++) {
-            notifyItemRemoved(mIndex.remove(innerPosition));
+    protected void forwardItemRangeRemoved(final int innerPositionStart, final int innerItemCount) {
+        if (mRebuildTask != null) {
+            mPendingDeltas.add(new Delta() {
+                @Override
+                void applyTo(@NonNull Index index) {
+                    for (int i = 0; i < innerItemCount; i++) {
+                        index.delete(innerPositionStart);
+                    }
+                }
+            });
+            return;
+        }
+        // Positions of subsequent elements shift down as each one is removed.
+        for (int i = 0; i < innerItemCount; i++) {
+            notifyItemRemoved(mIndex.delete(innerPositionStart));
         }
-        mIndex.shift(innerPositionStart, -innerItemCount);
     }
 
     @Override
-    protected void forwardItemRangeMoved(int innerFromPosition, int innerToPosition, int innerItemCount) {
-        // TODO: Support fine-grained notifications for moves.
-        rebuild();
-        notifyDataSetChanged();
+    protected void forwardItemRangeMoved(final int innerFromPosition,
+                                         final int innerToPosition,
+                                         final int innerItemCount) {
+        if (mRebuildTask != null) {
+            mPendingDeltas.add(new Delta() {
+                @Override
+                void applyTo(@NonNull Index index) {
+                    int[] tiedInnerPositions = index.move(innerFromPosition, innerToPosition, innerItemCount);
+                    for (int innerPosition : tiedInnerPositions) {
+                        index.remove(innerPosition);
+                    }
+                    for (int innerPosition : tiedInnerPositions) {
+                        index.reinsert(innerPosition);
+                    }
+                }
+            });
+            return;
+        }
+        // Moved elements with equals are removed before any is reinserted, since the position of each depends on the
+        // others.
+        int[] tiedInnerPositions = mIndex.move(innerFromPosition, innerToPosition, innerItemCount);
+        if (tiedInnerPositions.length == 1) {
+            int innerPosition = tiedInnerPositions[0];
+            int oldOuterPosition = mIndex.remove(innerPosition);
+            int newOuterPosition = mIndex.reinsert(innerPosition);
+            if (oldOuterPosition != newOuterPosition) {
+                notifyItemMoved(oldOuterPosition, newOuterPosition);
+            }
+            return;
+        }
+        for (int innerPosition : tiedInnerPositions) {
+            notifyItemRemoved(mIndex.remove(innerPosition));
+        }
+        for (int innerPosition : tiedInnerPositions) {
+            notifyItemInserted(mIndex.reinsert(innerPosition));
+        }
     }
 
     private void rebuild() {
-        mIndex.clear();
-        int size = mData.size();
-        for (int innerPosition = 0; innerPosition < size; innerPosition++) {
-            T value = mData.get(innerPosition);
-            int outerPosition = findOuterPositionForValue(value);
-            mIndex.put(outerPosition, innerPosition);
+        List<? extends T> values = mData.snapshot();
+        int[] order = identity(values.size());
+        mergeSort(values, order, new int[order.length], 0, order.length, null);
+        mIndex = new Index(values, order);
+    }
+
+    /** Returns the current values of the specified range of the wrapped data. */
+    @NonNull
+    private List<T> values(int innerPositionStart, int innerItemCount) {
+        List<T> values = new ArrayList<>(innerItemCount);
+        for (int innerPosition = innerPositionStart; innerPosition < innerPositionStart + innerItemCount; innerPosition++) {
+            values.add(mData.get(innerPosition));
+        }
+        return values;
+    }
+
+    private boolean shouldRebuildInBackground() {
+        return mBackground && mData.size() >= BACKGROUND_THRESHOLD;
+    }
+
+    /**
+     * Rebuilds the index from a snapshot of the wrapped data in the background, sorting chunks of it concurrently, then
+     * merging them. Any rebuild already in progress is abandoned. This is only necessary when the wrapped data has
+     * changed wholesale, since finer-grained changes are queued and applied once the rebuild in progress completes.
+     */
+    private void rebuildInBackground() {
+        cancelRebuild();
+        final List<? extends T> values = mData.snapshot();
+        final int[] order = identity(values.size());
+        final int[] buffer = new int[order.length];
+        mRebuildTask = new ParallelTask<Index>(getScheduler(), values.size()) {
+            @Override
+            protected void processChunk(int chunk, int start, int end) {
+                mergeSort(values, order, buffer, start, end, this);
+            }
+
+            @NonNull
+            @Override
+            protected Index combine() {
+                int[] src = order;
+                int[] dst = buffer;
+                int chunkCount = getChunkCount();
+                for (int width = 1; width < chunkCount && !isCanceled(); width *= 2) {
+                    for (int chunk = 0; chunk < chunkCount; chunk += width * 2) {
+                        merge(values, src, dst, chunkStart(chunk), chunkStart(min(chunk + width, chunkCount)),
+                                chunkStart(min(chunk + width * 2, chunkCount)));
+                    }
+                    int[] temp = src;
+                    src = dst;
+                    dst = temp;
+                }
+                return new Index(values, src);
+            }
+
+            @Override
+            protected void onSuccess(@NonNull Index index) {
+                mRebuildTask = null;
+                for (Delta delta : mPendingDeltas) {
+                    delta.applyTo(index);
+                }
+                mPendingDeltas.clear();
+                replaceIndex(index);
+            }
+
+            @Override
+            protected void onFailure(@NonNull Throwable e) {
+                // Rebuild synchronously instead, so the error is thrown on this thread as it would have been otherwise.
+                mRebuildTask = null;
+                mPendingDeltas.clear();
+                int oldSize = mIndex.size();
+                rebuild();
+                notifyReplaced(oldSize);
+            }
+        };
+        mRebuildTask.execute();
+    }
+
+    private void cancelRebuild() {
+        if (mRebuildTask != null) {
+            mRebuildTask.cancel();
+            mRebuildTask = null;
+            mPendingDeltas.clear();
+        }
+    }
+
+    private void replaceIndex(@NonNull Index index) {
+        int oldSize = mIndex.size();
+        mIndex = index;
+        notifyReplaced(oldSize);
+    }
+
+    private void notifyReplaced(int oldSize) {
+        if (oldSize == 0) {
+            notifyItemRangeInserted(0, mIndex.size());
+        } else {
+            notifyDataSetChanged();
         }
     }
 
-    private int findOuterPositionForValue(T value) {
-        final int size = mIndex.size();
-        int lo = 0;
-        int hi = size - 1;
-        while (lo <= hi) {
-            final int mid = (lo + hi) >>> 1;
-            final T midVal = mData.get(mIndex.outerToInner(mid));
-            int result = mComparator.compare(midVal, value);
-            if (result < 0) {
-                lo = mid + 1;
-            } else if (result > 0) {
-                hi = mid - 1;
-            } else {
-                return mid;
+    /**
+     * Stably sorts the specified range of inner positions by their values, using the same range of {@code buffer}.
+     * Stops early, leaving the range unsorted, if the specified task is canceled.
+     */
+    private void mergeSort(@NonNull List<? extends T> values,
+                           @NonNull int[] order,
+                           @NonNull int[] buffer,
+                           int start,
+                           int end,
+                           @Nullable ParallelTask<?> task) {
+        if (task != null && task.isCanceled()) {
+            return;
+        }
+        if (end - start <= INSERTION_SORT_THRESHOLD) {
+            for (int i = start + 1; i < end; i++) {
+                int innerPosition = order[i];
+                int j = i;
+                for (; j > start && compare(values, order[j - 1], innerPosition) > 0; j--) {
+                    order[j] = order[j - 1];
+                }
+                order[j] = innerPosition;
             }
+            return;
+        }
+        int mid = (start + end) >>> 1;
+        mergeSort(values, order, buffer, start, mid, task);
+        mergeSort(values, order, buffer, mid, end, task);
+        if (compare(values, order[mid - 1], order[mid]) <= 0) {
+            // Already in order.
+            return;
+        }
+        arraycopy(order, start, buffer, start, end - start);
+        merge(values, buffer, order, start, mid, end);
+    }
+
+    /** Merges the sorted ranges of {@code src} into {@code dst}. Elements of the first range come first among equals. */
+    private void merge(@NonNull List<? extends T> values,
+                       @NonNull int[] src,
+                       @NonNull int[] dst,
+                       int start,
+                       int mid,
+                       int end) {
+        int i = start;
+        int j = mid;
+        int k = start;
+        while (i < mid && j < end) {
+            dst[k++] = compare(values, src[j], src[i]) < 0 ? src[j++] : src[i++];
+        }
+        arraycopy(src, i, dst, k, mid - i);
+        arraycopy(src, j, dst, k + mid - i, end - j);
+    }
+
+    private int compare(@NonNull List<? extends T> values, int innerPositionA, int innerPositionB) {
+        return mComparator.compare(values.get(innerPositionA), values.get(innerPositionB));
+    }
+
+    @NonNull
+    private static int[] identity(int size) {
+        int[] array = new int[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = i;
         }
-        return -(~lo) - 1;
+        return array;
     }
 
-    private static final class Index {
+    /**
+     * Maintains the sorted order of the wrapped data. Each element is a member of two trees: one in inner order, and
+     * one in sorted (outer) order. Positions are implicit in the trees, so inserting or removing inner elements never
+     * requires shifting the positions of the others, and mapping in either direction is {@code O(log n)}. Equal
+     * elements are ordered by inner position, so finding the outer position of an element is {@code O(log^2 n)}.
+     */
+    private final class Index {
+
+        /** Elements in inner order. */
+        @NonNull
+        private final OrderStatisticTree<Element<T>> mInner = new OrderStatisticTree<>();
 
+        /** Elements in sorted order. */
         @NonNull
-        private final ArrayList<Integer> mInnerPositions = new ArrayList<>();
+        private final OrderStatisticTree<Element<T>> mOuter = new OrderStatisticTree<>();
+
+        @NonNull
+        private final Comparator<Element<T>> mElementComparator = new Comparator<Element<T>>() {
+            @Override
+            public int compare(Element<T> a, Element<T> b) {
+                return mComparator.compare(a.mValue, b.mValue);
+            }
+        };
+
+        /** Orders elements by value, then equal elements by inner position, which is their stable sorted order. */
+        @NonNull
+        private final Comparator<Element<T>> mStableComparator = new Comparator<Element<T>>() {
+            @Override
+            public int compare(Element<T> a, Element<T> b) {
+                int result = mComparator.compare(a.mValue, b.mValue);
+                if (result != 0) {
+                    return result;
+                }
+                int innerPositionA = mInner.rankOf(a.mInnerNode);
+                int innerPositionB = mInner.rankOf(b.mInnerNode);
+                return innerPositionA < innerPositionB ? -1 : (innerPositionA == innerPositionB ? 0 : 1);
+            }
+        };
+
+        Index() {
+        }
+
+        /** Creates an index of the specified values in inner order, sorted in the specified order of inner positions. */
+        Index(@NonNull List<? extends T> values, @NonNull int[] order) {
+            int size = values.size();
+            List<Element<T>> elements = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                elements.add(new Element<T>(values.get(i)));
+            }
+            List<Element<T>> sorted = new ArrayList<>(size);
+            for (int innerPosition : order) {
+                sorted.add(elements.get(innerPosition));
+            }
+            OrderStatisticTree.Node<Element<T>>[] innerNodes = mInner.replaceAll(elements);
+            OrderStatisticTree.Node<Element<T>>[] outerNodes = mOuter.replaceAll(sorted);
+            for (int i = 0; i < size; i++) {
+                elements.get(i).mInnerNode = innerNodes[i];
+                sorted.get(i).mOuterNode = outerNodes[i];
+            }
+        }
 
         int size() {
-            return mInnerPositions.size();
+            return mOuter.size();
         }
 
-        int outerToInner(int outerPosition) {
-            return mInnerPositions.get(outerPosition);
+        /** Returns the value cached for the element at the specified outer position. */
+        @NonNull
+        T valueAt(int outerPosition) {
+            return mOuter.get(outerPosition).mValue.mValue;
+        }
+
+        /** Returns the values cached for the elements in outer order. */
+        @NonNull
+        List<T> values() {
+            List<Element<T>> elements = mOuter.values();
+            List<T> values = new ArrayList<>(elements.size());
+            for (Element<T> element : elements) {
+                values.add(element.mValue);
+            }
+            return values;
+        }
+
+        /**
+         * Returns the inner positions of the elements in outer order. Takes time proportional to {@link #size()}, since
+         * the inner positions are found with a single in-order walk rather than by ranking each element.
+         */
+        @NonNull
+        int[] innerPositions() {
+            List<Element<T>> innerElements = mInner.values();
+            for (int i = 0; i < innerElements.size(); i++) {
+                innerElements.get(i).mInnerPosition = i;
+            }
+            List<Element<T>> outerElements = mOuter.values();
+            int[] innerPositions = new int[outerElements.size()];
+            for (int i = 0; i < innerPositions.length; i++) {
+                innerPositions[i] = outerElements.get(i).mInnerPosition;
+            }
+            return innerPositions;
         }
 
-        void put(int outerPosition, int innerPosition) {
-            mInnerPositions.add(outerPosition, innerPosition);
+        int outerToInner(int outerPosition) {
+            return mInner.rankOf(mOuter.get(outerPosition).mValue.mInnerNode);
         }
 
-        void insert(int outerPosition, int innerPosition) {
-            mInnerPositions.add(outerPosition, innerPosition);
+        /**
+         * Adds a new element at the specified inner position, shifting subsequent inner positions up. Returns its outer
+         * position.
+         */
+        int add(int innerPosition, @NonNull T value) {
+            Element<T> element = new Element<>(value);
+            element.mInnerNode = mInner.insert(innerPosition, element);
+            return insertOuter(element);
         }
 
+        /** Removes the outer mapping of the element at the specified inner position, returning its outer position. */
         int remove(int innerPosition) {
-            // TODO: Avoid O(N) search.
-            int outerPosition = mInnerPositions.indexOf(innerPosition);
-            mInnerPositions.remove(outerPosition);
+            Element<T> element = mInner.get(innerPosition).mValue;
+            int outerPosition = mOuter.rankOf(element.mOuterNode);
+            mOuter.remove(element.mOuterNode);
             return outerPosition;
         }
 
-        void shift(int innerPositionStart, int delta) {
-            if (delta > 0) {
-                for (int i = mInnerPositions.size() - 1; i >= 0; i--) {
-                    int innerPosition = mInnerPositions.get(i);
-                    if (innerPosition >= innerPositionStart) {
-                        mInnerPositions.set(i, innerPosition + delta);
-                    }
-                }
-            } else if (delta < 0) {
-                for (int i = 0; i < mInnerPositions.size(); i++) {
-                    int innerPosition = mInnerPositions.get(i);
-                    if (innerPosition >= innerPositionStart) {
-                        mInnerPositions.set(i, innerPosition + delta);
-                    }
+        /**
+         * Re-inserts the outer mapping of the element at the specified inner position, which must have been removed
+         * with {@link #remove(int)}. Returns its new outer position.
+         */
+        int insert(int innerPosition, @NonNull T value) {
+            mInner.get(innerPosition).mValue.mValue = value;
+            return reinsert(innerPosition);
+        }
+
+        /**
+         * Re-inserts the outer mapping of the element at the specified inner position, which must have been removed
+         * with {@link #remove(int)}, using its cached value. Returns its new outer position.
+         */
+        int reinsert(int innerPosition) {
+            return insertOuter(mInner.get(innerPosition).mValue);
+        }
+
+        /** Returns whether the element at the specified inner position compares equal to an adjacent element. */
+        boolean isTied(int innerPosition) {
+            Element<T> element = mInner.get(innerPosition).mValue;
+            int outerPosition = mOuter.rankOf(element.mOuterNode);
+            if (outerPosition > 0 && mElementComparator.compare(mOuter.get(outerPosition - 1).mValue, element) == 0) {
+                return true;
+            }
+            return outerPosition + 1 < mOuter.size() &&
+                    mElementComparator.compare(mOuter.get(outerPosition + 1).mValue, element) == 0;
+        }
+
+        /** Deletes the element at the specified inner position, shifting subsequent inner positions down. */
+        int delete(int innerPosition) {
+            OrderStatisticTree.Node<Element<T>> innerNode = mInner.get(innerPosition);
+            int outerPosition = remove(innerPosition);
+            mInner.remove(innerNode);
+            return outerPosition;
+        }
+
+        /**
+         * Moves elements in inner order only, leaving their outer positions unchanged. Only the order of equal elements
+         * depends on inner order, so returns the new inner positions of the moved elements that compare equal to an
+         * adjacent element, which must then be repositioned to restore stable order.
+         */
+        @NonNull
+        int[] move(int innerFromPosition, int innerToPosition, int innerItemCount) {
+            List<Element<T>> elements = new ArrayList<>(innerItemCount);
+            for (int i = 0; i < innerItemCount; i++) {
+                OrderStatisticTree.Node<Element<T>> innerNode = mInner.get(innerFromPosition);
+                elements.add(innerNode.mValue);
+                mInner.remove(innerNode);
+            }
+            for (int i = 0; i < innerItemCount; i++) {
+                Element<T> element = elements.get(i);
+                element.mInnerNode = mInner.insert(innerToPosition + i, element);
+            }
+            int[] tiedInnerPositions = new int[innerItemCount];
+            int tiedCount = 0;
+            for (int innerPosition = innerToPosition; innerPosition < innerToPosition + innerItemCount; innerPosition++) {
+                if (isTied(innerPosition)) {
+                    tiedInnerPositions[tiedCount++] = innerPosition;
                 }
             }
+            return Arrays.copyOf(tiedInnerPositions, tiedCount);
         }
 
         void clear() {
-            mInnerPositions.clear();
+            mInner.clear();
+            mOuter.clear();
+        }
+
+        /** Inserts the outer mapping of an element already in inner order, returning its outer position. */
+        private int insertOuter(@NonNull Element<T> element) {
+            int outerPosition = mOuter.upperBound(element, mStableComparator);
+            element.mOuterNode = mOuter.insert(outerPosition, element);
+            return outerPosition;
+        }
+    }
+
+    /** A change to the wrapped data, queued while a rebuild is in progress. */
+    private abstract class Delta {
+        abstract void applyTo(@NonNull Index index);
+    }
+
+    private static final class Element<T> {
+
+        /** Cached value of the inner element, used for comparisons. Refreshed when a change is forwarded. */
+        @NonNull
+        T mValue;
+
+        OrderStatisticTree.Node<Element<T>> mInnerNode;
+
+        OrderStatisticTree.Node<Element<T>> mOuterNode;
+
+        /** Inner position as of the last {@link Index#innerPositions()} walk. Not maintained otherwise. */
+        int mInnerPosition;
+
+        Element(@NonNull T value) {
+            mValue = value;
         }
     }
 }
@@ -1,77 +1,63 @@
 package com.nextfaze.poweradapters.data;
 
-import android.os.AsyncTask;
-import android.os.Handler;
-import android.os.Looper;
-import android.support.annotation.Nullable;
 import android.util.Log;
 import lombok.NonNull;
 
 import java.io.InterruptedIOException;
 import java.util.concurrent.Callable;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.Executor;
 import java.util.concurrent.FutureTask;
 
-import static android.os.Looper.getMainLooper;
-
+/**
+ * Performs work in the background, then delivers the result to callbacks on the delivery thread of a
+ * {@link DataScheduler}. Callbacks are posted without waiting for them to run, so a thread is only occupied by this
+ * task while it's executing {@link #call()}.
+ */
 abstract class Task<T> {
 
     private static final String TAG = Task.class.getSimpleName();
 
-    private interface Action {
-        void run() throws Throwable;
-    }
-
     @NonNull
-    private static Executor sExecutor = AsyncTask.THREAD_POOL_EXECUTOR;
-
-    @NonNull
-    private final Handler mHandler = new Handler(getMainLooper());
+    private final DataScheduler mScheduler;
 
     @NonNull
     private final FutureTask<?> mFutureTask = new FutureTask<>(new Callable<Void>() {
         @Override
         public Void call() throws Exception {
-            mExecutingThread = Thread.currentThread();
+            if (isCanceled()) {
+                return null;
+            }
             try {
-                if (isCanceled()) {
-                    return null;
-                }
-                doPreExecute();
-                if (isCanceled()) {
-                    return null;
-                }
-                T result = doCall();
-                if (isCanceled()) {
-                    return null;
+                final T result = doCall();
+                if (!isCanceled()) {
+                    post(new Runnable() {
+                        @Override
+                        public void run() {
+                            deliverSuccess(result);
+                        }
+                    });
                 }
-                doSuccess(result);
-            } catch (Throwable e) {
+            } catch (final Throwable e) {
                 if (!isCanceled()) {
-                    doFailure(e);
+                    post(new Runnable() {
+                        @Override
+                        public void run() {
+                            // A canceled task has already received its final callbacks.
+                            if (!isCanceled()) {
+                                deliverFailure(e);
+                            }
+                        }
+                    });
                 }
-            } finally {
-                mExecutingThread = null;
             }
             return null;
         }
     });
 
-    @Nullable
-    private volatile Thread mExecutingThread;
-
     private boolean mCanceled;
     private volatile boolean mExecuted;
 
-    private void doPreExecute() throws Throwable {
-        post(new Action() {
-            @Override
-            public void run() throws Throwable {
-                onPreExecute();
-            }
-        });
-    }
+    /** Indicates {@link #onFinally()} has been called. Only accessed from the delivery thread. */
+    private boolean mFinished;
 
     private T doCall() throws Throwable {
         try {
@@ -85,80 +71,88 @@ abstract class Task<T> {
         }
     }
 
-    private void doSuccess(final T result) {
+    private void deliverPreExecute() {
+        if (isCanceled()) {
+            return;
+        }
         try {
-            post(new Action() {
-                @Override
-                public void run() throws Throwable {
-                    onSuccess(result);
-                }
-            });
-            doFinally();
-        } catch (InterruptedException | InterruptedIOException e) {
-            // Ignore interruptions.
+            onPreExecute();
         } catch (Throwable e) {
-            if (!isCanceled()) {
-                logError("onSuccess", e);
-                doFailure(e);
-            }
+            logError("onPreExecute", e);
+            deliverFailure(e);
+            return;
         }
+        mScheduler.execute(mFutureTask);
     }
 
-    private void doFailure(final Throwable e) {
+    private void deliverSuccess(T result) {
+        // A canceled task has already received its final callbacks.
+        if (isCanceled()) {
+            return;
+        }
         try {
-            post(new Action() {
-                @Override
-                public void run() throws Throwable {
-                    onFailure(e);
-                }
-            });
+            onSuccess(result);
+        } catch (Throwable e) {
+            logError("onSuccess", e);
+            deliverFailure(e);
+            return;
+        }
+        deliverFinally();
+    }
+
+    private void deliverFailure(@NonNull Throwable e) {
+        try {
+            onFailure(e);
         } catch (Throwable t) {
             logError("onFailure", t);
         } finally {
-            doFinally();
+            deliverFinally();
         }
     }
 
-    private void doCanceled() {
+    private void deliverCanceled() {
         try {
-            post(new Action() {
-                @Override
-                public void run() throws Throwable {
-                    onCanceled();
-                }
-            });
-            doFinally();
+            onCanceled();
         } catch (Throwable e) {
             logError("onCanceled", e);
-            doFailure(e);
+            deliverFailure(e);
+            return;
         }
+        deliverFinally();
     }
 
-    private void doFinally() {
+    private void deliverFinally() {
+        if (mFinished) {
+            return;
+        }
+        mFinished = true;
         try {
-            post(new Action() {
-                @Override
-                public void run() throws Throwable {
-                    onFinally();
-                }
-            });
-        } catch (InterruptedException | InterruptedIOException e) {
-            // Ignore interruptions.
+            onFinally();
         } catch (Throwable e) {
             logError("onFinally", e);
         }
     }
 
-    Task() {
+    Task(@NonNull DataScheduler scheduler) {
+        mScheduler = scheduler;
     }
 
+    /**
+     * Executes the task. {@link #onPreExecute()} is called on the delivery thread, after which {@link #call()} is executed
+     * in the background.
+     */
     @NonNull
     Task<T> execute() {
         synchronized (this) {
             mCanceled = false;
         }
         mExecuted = true;
-        sExecutor.execute(mFutureTask);
+        post(new Runnable() {
+            @Override
+            public void run() {
+                deliverPreExecute();
+            }
+        });
         return this;
     }
 
@@ -173,7 +167,7 @@ abstract class Task<T> {
 
     /**
      * Cancels the task, as long as it was executed to begin with. The {@link #onCanceled()} callback will be invoked
-     * here if the task was indeed canceled.
+     * here if the task was indeed canceled, and no further callbacks will be invoked except {@link #onFinally()}.
      * @param mayInterruptIfRunning Interrupts the running thread if <code>true</code>.
      * @return <code>true</code> if the task was canceled, otherwise <code>false</code>.
      */
@@ -195,7 +189,12 @@ abstract class Task<T> {
             // We don't care about why cancel threw.
         }
 
-        doCanceled();
+        post(new Runnable() {
+            @Override
+            public void run() {
+                deliverCanceled();
+            }
+        });
         return true;
     }
 
@@ -232,34 +231,15 @@ abstract class Task<T> {
     protected void onFinally() throws Throwable {
     }
 
-    private void post(final Action action) throws Throwable {
-        if (!isHandlerThread()) {
-            final CountDownLatch latch = new CountDownLatch(1);
-            final Throwable[] ex = new Throwable[1];
-            mHandler.post(new Runnable() {
-                public void run() {
-                    try {
-                        action.run();
-                    } catch (Throwable e) {
-                        ex[0] = e;
-                    } finally {
-                        latch.countDown();
-                    }
-                }
-            });
-            latch.await();
-            if (ex[0] != null) {
-                throw ex[0];
-            }
+    /** Runs the runnable immediately if called from the delivery thread, otherwise posts it without waiting. */
+    private void post(@NonNull Runnable runnable) {
+        if (mScheduler.isDeliveryThread()) {
+            runnable.run();
         } else {
-            action.run();
+            mScheduler.post(runnable);
         }
     }
 
-    private boolean isHandlerThread() {
-        return Looper.myLooper() == mHandler.getLooper();
-    }
-
     private void logError(String callbackName, Throwable e) {
         Log.e(TAG, callbackName + " error", e);
     }
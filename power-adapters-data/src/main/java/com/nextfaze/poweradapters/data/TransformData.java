@@ -1,24 +1,299 @@
 package com.nextfaze.poweradapters.data;
 
+import android.support.annotation.Nullable;
 import lombok.NonNull;
 
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static java.lang.Math.max;
+import static java.lang.String.format;
+import static java.lang.System.arraycopy;
+
 final class TransformData<F, T> extends DataWrapper<T> {
 
+    /** Indicates transformed elements are not retained. */
+    static final int NO_CACHE = 0;
+
     @NonNull
     private final Data<? extends F> mData;
 
     @NonNull
     private final Function<? super F, ? extends T> mFunction;
 
+    /** Maximum number of transformed elements retained, or {@link #NO_CACHE}. */
+    private final int mMaxCacheSize;
+
+    /**
+     * Cache entries aligned with the positions of the wrapped data, kept in sync using its notifications. A slot may be
+     * {@code null} or hold an evicted entry, in which case the element is transformed again upon access.
+     */
+    @NonNull
+    private Entry<T>[] mEntries = newEntryArray(0);
+
+    /** The number of slots in {@link #mEntries} in use. Equal to the wrapped data size while observing it. */
+    private int mEntryCount;
+
+    /** The number of entries currently holding a transformed element. */
+    private int mCacheSize;
+
+    /** Sentinel of the circular list of cached entries, ordered from least to most recently accessed. */
+    @NonNull
+    private final Entry<T> mLru = new Entry<>();
+
     TransformData(@NonNull Data<? extends F> data, @NonNull Function<? super F, ? extends T> function) {
+        this(data, function, NO_CACHE);
+    }
+
+    TransformData(@NonNull Data<? extends F> data,
+                  @NonNull Function<? super F, ? extends T> function,
+                  int maxCacheSize) {
         super(data);
+        if (maxCacheSize < 0) {
+            throw new IllegalArgumentException("Max cache size must be >= 0");
+        }
         mData = data;
         mFunction = function;
+        mMaxCacheSize = maxCacheSize;
+        mLru.mPrev = mLru;
+        mLru.mNext = mLru;
     }
 
     @NonNull
     @Override
     public T get(int position, int flags) {
-        return mFunction.apply(mData.get(position, flags));
+        // Cached elements are only valid while we're observing the wrapped data, and therefore being notified of changes.
+        if (mMaxCacheSize == NO_CACHE || getDataObserverCount() <= 0 || position >= mEntryCount) {
+            return mFunction.apply(mData.get(position, flags));
+        }
+        Entry<T> entry = mEntries[position];
+        if (entry != null && entry.mValue != null) {
+            if ((flags & FLAG_PRESENTATION) != 0) {
+                // Still pass presentation requests through, since they may trigger loading.
+                mData.get(position, flags);
+            }
+            unlink(entry);
+            linkLast(entry);
+            return entry.mValue;
+        }
+        T value = mFunction.apply(mData.get(position, flags));
+        if (entry == null) {
+            entry = new Entry<>();
+            mEntries[position] = entry;
+        }
+        entry.mValue = value;
+        linkLast(entry);
+        if (++mCacheSize > mMaxCacheSize) {
+            evict(mLru.mNext);
+        }
+        return value;
+    }
+
+    /**
+     * Returns an immutable view of the wrapped data's snapshot that transforms each element when it's first read, so
+     * taking it is constant time apart from reusing currently cached elements. The function is called on the thread
+     * reading the element, at most once per element.
+     */
+    @NonNull
+    @Override
+    public List<T> snapshot() {
+        List<? extends F> elements = mData.snapshot();
+        AtomicReferenceArray<T> values = new AtomicReferenceArray<>(elements.size());
+        if (mMaxCacheSize != NO_CACHE && getDataObserverCount() > 0) {
+            for (int i = 0; i < mEntryCount && i < values.length(); i++) {
+                Entry<T> entry = mEntries[i];
+                if (entry != null && entry.mValue != null) {
+                    values.set(i, entry.mValue);
+                }
+            }
+        }
+        return new Snapshot<>(elements, mFunction, values);
+    }
+
+    @Override
+    protected void onFirstDataObserverRegistered() {
+        super.onFirstDataObserverRegistered();
+        resetCache(mData.size());
+    }
+
+    @Override
+    protected void onLastDataObserverUnregistered() {
+        super.onLastDataObserverUnregistered();
+        resetCache(0);
+    }
+
+    @Override
+    protected void forwardChanged() {
+        resetCache(mData.size());
+        super.forwardChanged();
+    }
+
+    @Override
+    protected void forwardItemRangeChanged(int innerPositionStart, int innerItemCount) {
+        evictRange(innerPositionStart, innerPositionStart + innerItemCount);
+        super.forwardItemRangeChanged(innerPositionStart, innerItemCount);
+    }
+
+    @Override
+    protected void forwardItemRangeInserted(int innerPositionStart, int innerItemCount) {
+        if (innerPositionStart <= mEntryCount) {
+            makeRoom(innerPositionStart, innerItemCount);
+        } else {
+            resetCache(mData.size());
+        }
+        super.forwardItemRangeInserted(innerPositionStart, innerItemCount);
+    }
+
+    @Override
+    protected void forwardItemRangeRemoved(int innerPositionStart, int innerItemCount) {
+        int end = innerPositionStart + innerItemCount;
+        if (end <= mEntryCount) {
+            evictRange(innerPositionStart, end);
+            arraycopy(mEntries, end, mEntries, innerPositionStart, mEntryCount - end);
+            for (int i = mEntryCount - innerItemCount; i < mEntryCount; i++) {
+                mEntries[i] = null;
+            }
+            mEntryCount -= innerItemCount;
+        } else {
+            resetCache(mData.size());
+        }
+        super.forwardItemRangeRemoved(innerPositionStart, innerItemCount);
+    }
+
+    @Override
+    protected void forwardItemRangeMoved(int innerFromPosition, int innerToPosition, int innerItemCount) {
+        if (max(innerFromPosition, innerToPosition) + innerItemCount <= mEntryCount) {
+            Entry<T>[] moved = newEntryArray(innerItemCount);
+            arraycopy(mEntries, innerFromPosition, moved, 0, innerItemCount);
+            if (innerFromPosition < innerToPosition) {
+                arraycopy(mEntries, innerFromPosition + innerItemCount, mEntries, innerFromPosition,
+                        innerToPosition - innerFromPosition);
+            } else {
+                arraycopy(mEntries, innerToPosition, mEntries, innerToPosition + innerItemCount,
+                        innerFromPosition - innerToPosition);
+            }
+            arraycopy(moved, 0, mEntries, innerToPosition, innerItemCount);
+        } else {
+            resetCache(mData.size());
+        }
+        super.forwardItemRangeMoved(innerFromPosition, innerToPosition, innerItemCount);
+    }
+
+    private void resetCache(int size) {
+        if (mMaxCacheSize == NO_CACHE) {
+            return;
+        }
+        mEntries = newEntryArray(size);
+        mEntryCount = size;
+        mCacheSize = 0;
+        mLru.mPrev = mLru;
+        mLru.mNext = mLru;
+    }
+
+    private void makeRoom(int position, int count) {
+        if (mEntryCount + count > mEntries.length) {
+            Entry<T>[] entries = newEntryArray(max(mEntryCount + count, mEntries.length * 2));
+            arraycopy(mEntries, 0, entries, 0, position);
+            arraycopy(mEntries, position, entries, position + count, mEntryCount - position);
+            mEntries = entries;
+        } else {
+            arraycopy(mEntries, position, mEntries, position + count, mEntryCount - position);
+            for (int i = position; i < position + count; i++) {
+                mEntries[i] = null;
+            }
+        }
+        mEntryCount += count;
+    }
+
+    private void evictRange(int start, int end) {
+        for (int i = start; i < end && i < mEntryCount; i++) {
+            Entry<T> entry = mEntries[i];
+            if (entry != null && entry.mValue != null) {
+                evict(entry);
+            }
+        }
+    }
+
+    private void evict(@NonNull Entry<T> entry) {
+        unlink(entry);
+        entry.mValue = null;
+        mCacheSize--;
+    }
+
+    private void linkLast(@NonNull Entry<T> entry) {
+        entry.mPrev = mLru.mPrev;
+        entry.mNext = mLru;
+        mLru.mPrev.mNext = entry;
+        mLru.mPrev = entry;
+    }
+
+    private static <T> void unlink(@NonNull Entry<T> entry) {
+        entry.mPrev.mNext = entry.mNext;
+        entry.mNext.mPrev = entry.mPrev;
+        entry.mPrev = null;
+        entry.mNext = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @NonNull
+    private static <T> Entry<T>[] newEntryArray(int length) {
+        return (Entry<T>[]) new Entry<?>[length];
+    }
+
+    private static final class Snapshot<F, T> extends AbstractList<T> implements RandomAccess {
+
+        @NonNull
+        private final List<? extends F> mElements;
+
+        @NonNull
+        private final Function<? super F, ? extends T> mFunction;
+
+        /** Transformed elements, or {@code null} where not yet transformed. */
+        @NonNull
+        private final AtomicReferenceArray<T> mValues;
+
+        Snapshot(@NonNull List<? extends F> elements,
+                 @NonNull Function<? super F, ? extends T> function,
+                 @NonNull AtomicReferenceArray<T> values) {
+            mElements = elements;
+            mFunction = function;
+            mValues = values;
+        }
+
+        @Override
+        public T get(int location) {
+            if (location < 0 || location >= mValues.length()) {
+                throw new IndexOutOfBoundsException(format("Position %s, size %s", location, mValues.length()));
+            }
+            T value = mValues.get(location);
+            if (value == null) {
+                // Checked again while holding the lock, so concurrent readers don't transform the element twice.
+                synchronized (this) {
+                    value = mValues.get(location);
+                    if (value == null) {
+                        value = mFunction.apply(mElements.get(location));
+                        mValues.set(location, value);
+                    }
+                }
+            }
+            return value;
+        }
+
+        @Override
+        public int size() {
+            return mValues.length();
+        }
+    }
+
+    private static final class Entry<T> {
+
+        @Nullable
+        T mValue;
+
+        Entry<T> mPrev;
+
+        Entry<T> mNext;
     }
 }
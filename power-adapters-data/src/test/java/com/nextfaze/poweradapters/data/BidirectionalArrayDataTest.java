@@ -0,0 +1,158 @@
+package com.nextfaze.poweradapters.data;
+
+import com.nextfaze.poweradapters.DataObserver;
+import com.nextfaze.poweradapters.SimpleDataObserver;
+import com.nextfaze.poweradapters.data.IncrementalArrayData.Result;
+import lombok.NonNull;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.*;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public final class BidirectionalArrayDataTest {
+
+    private static final int INCREMENT = 10;
+
+    @Rule
+    public MockitoRule mMockito = MockitoJUnit.rule();
+
+    /** The first element that would be loaded by the next tail load. */
+    private int mTail = 100;
+
+    /** The element following the last element that would be loaded by the next head load. */
+    private int mHead = 100;
+
+    private BidirectionalArrayData<Integer> mData;
+
+    @Before
+    public void setUp() throws Exception {
+        mData = newData(DataSchedulers.immediate());
+        mData.setLookAheadRowCount(0);
+        mData.registerDataObserver(new VerifyingDataObserver(mData));
+    }
+
+    @NonNull
+    private BidirectionalArrayData<Integer> newData(@NonNull DataScheduler scheduler) {
+        return new BidirectionalArrayData<Integer>(scheduler) {
+            @Override
+            protected Result<Integer> loadHead() throws Throwable {
+                List<Integer> elements = range(mHead - INCREMENT, mHead);
+                mHead -= INCREMENT;
+                return new Result<>(elements, mHead);
+            }
+
+            @Override
+            protected Result<Integer> loadTail() throws Throwable {
+                List<Integer> elements = range(mTail, mTail + INCREMENT);
+                mTail += INCREMENT;
+                return Result.moreRemaining(elements);
+            }
+
+            @Override
+            protected void onHeadTrimmed(int count) {
+                mHead += count;
+            }
+
+            @Override
+            protected void onTailTrimmed(int count) {
+                mTail -= count;
+            }
+        };
+    }
+
+    @Test
+    public void initialIncrementLoaded() {
+        assertThat(mData).containsExactlyElementsIn(range(100, 110)).inOrder();
+    }
+
+    @Test
+    public void presentingFirstElementInsertsAtHead() {
+        DataObserver observer = registerMockObserver();
+        mData.get(0, Data.FLAG_PRESENTATION);
+        assertThat(mData).containsExactlyElementsIn(range(90, 110)).inOrder();
+        verify(observer).onItemRangeInserted(0, INCREMENT);
+        verifyNoMoreInteractions(observer);
+    }
+
+    @Test
+    public void presentingLastElementAppends() {
+        DataObserver observer = registerMockObserver();
+        mData.get(9, Data.FLAG_PRESENTATION);
+        assertThat(mData).containsExactlyElementsIn(range(100, 120)).inOrder();
+        verify(observer).onItemRangeInserted(10, INCREMENT);
+        verifyNoMoreInteractions(observer);
+    }
+
+    @Test
+    public void farEndTrimmedWhenMaxSizeExceeded() {
+        mData.setMaxSize(25);
+        mData.get(0, Data.FLAG_PRESENTATION);
+        DataObserver observer = registerMockObserver();
+        mData.get(0, Data.FLAG_PRESENTATION);
+        assertThat(mData).containsExactlyElementsIn(range(80, 105)).inOrder();
+        InOrder inOrder = inOrder(observer);
+        inOrder.verify(observer).onItemRangeInserted(0, INCREMENT);
+        inOrder.verify(observer).onItemRangeRemoved(25, 5);
+        inOrder.verifyNoMoreInteractions();
+        mData.get(24, Data.FLAG_PRESENTATION);
+        assertThat(mData).containsExactlyElementsIn(range(90, 115)).inOrder();
+    }
+
+    @Test
+    public void presentationDuringObserverCallbackDefersLoadingChange() {
+        ManualDataScheduler scheduler = new ManualDataScheduler();
+        final BidirectionalArrayData<Integer> data = newData(scheduler);
+        data.setLookAheadRowCount(0);
+        data.registerDataObserver(new VerifyingDataObserver(data));
+        scheduler.runAll();
+        final LoadingObserver loadingObserver = mock(LoadingObserver.class);
+        data.registerLoadingObserver(loadingObserver);
+        DataObserver presentingObserver = new SimpleDataObserver() {
+            @Override
+            public void onChanged() {
+                // Presenting both ends starts loading at the head and the tail.
+                data.get(0, Data.FLAG_PRESENTATION);
+                data.get(data.size() - 1, Data.FLAG_PRESENTATION);
+                verifyZeroInteractions(loadingObserver);
+            }
+        };
+        data.registerDataObserver(presentingObserver);
+        data.asList().set(0, -1);
+        data.unregisterDataObserver(presentingObserver);
+        assertThat(data.isLoading()).isTrue();
+        verifyZeroInteractions(loadingObserver);
+        scheduler.runAll();
+        verify(loadingObserver, atLeastOnce()).onLoadingChange();
+        assertThat(data.isLoading()).isFalse();
+        assertThat(data.size()).isEqualTo(3 * INCREMENT);
+    }
+
+    @NonNull
+    private DataObserver registerMockObserver() {
+        DataObserver observer = mock(DataObserver.class);
+        mData.registerDataObserver(observer);
+        return observer;
+    }
+
+    @NonNull
+    private static List<Integer> range(int start, int end) {
+        List<Integer> list = new ArrayList<>();
+        for (int i = start; i < end; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,208 @@
+package com.nextfaze.poweradapters.data;
+
+import com.nextfaze.poweradapters.DataObserver;
+import com.nextfaze.poweradapters.SimpleDataObserver;
+import com.nextfaze.poweradapters.internal.DataObservable;
+import com.nextfaze.poweradapters.internal.NotifyingArrayList;
+import lombok.NonNull;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.Arrays.asList;
+import static org.mockito.Mockito.*;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public final class CoalescingPosterTest {
+
+    @Rule
+    public MockitoRule mMockito = MockitoJUnit.rule();
+
+    @Mock
+    private DataObserver mObserver;
+
+    @NonNull
+    private final List<Runnable> mFrames = new ArrayList<>();
+
+    @NonNull
+    private final DataObservable mDataObservable = new DataObservable();
+
+    private CoalescingPoster mPoster;
+
+    @Before
+    public void setUp() throws Exception {
+        mDataObservable.registerObserver(mObserver);
+        mPoster = new CoalescingPoster(new DataScheduler() {
+            @Override
+            public void execute(@NonNull Runnable runnable) {
+                runnable.run();
+            }
+
+            @Override
+            public void post(@NonNull Runnable runnable) {
+                runnable.run();
+            }
+
+            @Override
+            public void postFrame(@NonNull Runnable runnable) {
+                mFrames.add(runnable);
+            }
+
+            @Override
+            public boolean isDeliveryThread() {
+                return true;
+            }
+        }, mDataObservable);
+    }
+
+    @Test
+    public void runnablesDeferredUntilFrame() {
+        mPoster.post(notifyInserted(0, 1));
+        verifyZeroInteractions(mObserver);
+        assertThat(mFrames).hasSize(1);
+        runFrames();
+        verify(mObserver).onItemRangeInserted(0, 1);
+        verifyNoMoreInteractions(mObserver);
+    }
+
+    @Test
+    public void loneRunnableNotifiesInDetail() {
+        mPoster.post(new Runnable() {
+            @Override
+            public void run() {
+                mDataObservable.notifyItemRangeChanged(0, 5);
+                mDataObservable.notifyItemRangeInserted(5, 3);
+            }
+        });
+        runFrames();
+        InOrder inOrder = inOrder(mObserver);
+        inOrder.verify(mObserver).onItemRangeChanged(0, 5);
+        inOrder.verify(mObserver).onItemRangeInserted(5, 3);
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void multipleRunnablesCoalesced() {
+        mPoster.post(notifyInserted(0, 2));
+        mPoster.post(notifyInserted(2, 3));
+        assertThat(mFrames).hasSize(1);
+        runFrames();
+        verify(mObserver).onItemRangeInserted(0, 5);
+        verifyNoMoreInteractions(mObserver);
+    }
+
+    @Test
+    public void multipleUnmergeableRunnablesNotifyInOrder() {
+        mPoster.post(notifyInserted(4, 2));
+        mPoster.post(new Runnable() {
+            @Override
+            public void run() {
+                mDataObservable.notifyItemRangeRemoved(0, 1);
+            }
+        });
+        runFrames();
+        InOrder inOrder = inOrder(mObserver);
+        inOrder.verify(mObserver).onItemRangeInserted(4, 2);
+        inOrder.verify(mObserver).onItemRangeRemoved(0, 1);
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void headAndTailInsertionsInOneFrameNotifyInDetail() {
+        final NotifyingArrayList<String> list = new NotifyingArrayList<>(mDataObservable);
+        list.addAll(asList("c", "d"));
+        reset(mObserver);
+        final int[] shadowSize = { list.size() };
+        mDataObservable.registerObserver(new SimpleDataObserver() {
+            @Override
+            public void onChanged() {
+                throw new AssertionError("Frame collapsed to a data set change");
+            }
+
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                shadowSize[0] += itemCount;
+                assertThat(list.size()).isEqualTo(shadowSize[0]);
+            }
+        });
+        mPoster.post(new Runnable() {
+            @Override
+            public void run() {
+                list.addAll(0, asList("a", "b"));
+            }
+        });
+        mPoster.post(new Runnable() {
+            @Override
+            public void run() {
+                list.add("e");
+            }
+        });
+        runFrames();
+        InOrder inOrder = inOrder(mObserver);
+        inOrder.verify(mObserver).onItemRangeInserted(0, 2);
+        inOrder.verify(mObserver).onItemRangeInserted(4, 1);
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void stateDispatchedAfterData() {
+        final List<String> events = new ArrayList<>();
+        mPoster.postState(new Runnable() {
+            @Override
+            public void run() {
+                events.add("state");
+            }
+        });
+        mPoster.post(new Runnable() {
+            @Override
+            public void run() {
+                events.add("data");
+            }
+        });
+        runFrames();
+        assertThat(events).containsExactly("data", "state").inOrder();
+    }
+
+    @Test
+    public void identicalStateCollapsed() {
+        final int[] count = new int[1];
+        Runnable state = new Runnable() {
+            @Override
+            public void run() {
+                count[0]++;
+            }
+        };
+        mPoster.postState(state);
+        mPoster.postState(state);
+        runFrames();
+        assertThat(count[0]).isEqualTo(1);
+    }
+
+    @NonNull
+    private Runnable notifyInserted(final int positionStart, final int itemCount) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                mDataObservable.notifyItemRangeInserted(positionStart, itemCount);
+            }
+        };
+    }
+
+    private void runFrames() {
+        while (!mFrames.isEmpty()) {
+            mFrames.remove(0).run();
+        }
+    }
+}
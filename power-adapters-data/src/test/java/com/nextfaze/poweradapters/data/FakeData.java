@@ -18,6 +18,13 @@ public class FakeData<T> extends Data<T> {
 
     private boolean mLoading;
 
+    public FakeData() {
+    }
+
+    public FakeData(@NonNull DataScheduler scheduler) {
+        super(scheduler);
+    }
+
     @Override
     public int size() {
         return mData.size();
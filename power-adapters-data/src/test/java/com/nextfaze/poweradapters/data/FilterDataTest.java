@@ -14,6 +14,8 @@ import org.mockito.junit.MockitoRule;
 import org.robolectric.RobolectricGradleTestRunner;
 import org.robolectric.annotation.Config;
 
+import java.util.List;
+
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.truth.Truth.assertThat;
 import static com.nextfaze.poweradapters.internal.NotificationType.COARSE;
@@ -164,13 +166,41 @@ public final class FilterDataTest {
         verifyZeroInteractions(observer);
     }
 
+    @Test
+    public void insertionOfMultipleElementsNotifiesAsSingleRange() {
+        DataObserver observer = registerMockObserver();
+        mData.insert(1, "bob", "fowl", "bib");
+        assertContains("bear", "bob", "bib", "bar", "baz");
+        verify(observer).onItemRangeInserted(1, 2);
+        verifyNoMoreInteractions(observer);
+    }
+
+    @Test
+    public void removalOfMultipleElementsNotifiesAsSingleRange() {
+        DataObserver observer = registerMockObserver();
+        mData.remove(2, 3);
+        assertContains("bear");
+        verify(observer).onItemRangeRemoved(1, 2);
+        verifyNoMoreInteractions(observer);
+    }
+
+    @Test
+    public void repeatedInsertionsAtHeadRemainConsistent() {
+        for (int i = 0; i < 100; i++) {
+            mData.insert(0, "b" + i, "cat");
+        }
+        mData.remove(50, 100);
+        mData.insert(75, "bee");
+        assertContentsFiltered();
+    }
+
     @Test
     public void moveForwardsSingle() {
         DataObserver observer = registerMockObserver();
         mData.move(0, 5, 1);
         assertThat(mData).containsExactly("cat", "foo", "bar", "baz", "fish", "bear").inOrder();
         assertContains("bar", "baz", "bear");
-        verify(observer).onChanged();
+        verify(observer).onItemRangeMoved(0, 2, 1);
         verifyNoMoreInteractions(observer);
     }
 
@@ -180,7 +210,7 @@ public final class FilterDataTest {
         mData.move(0, 2, 2);
         assertThat(mData).containsExactly("foo", "bar", "bear", "cat", "baz", "fish").inOrder();
         assertThat(mFilterData).containsExactly("bar", "bear", "baz").inOrder();
-        verify(observer).onChanged();
+        verify(observer).onItemRangeMoved(0, 1, 1);
         verifyNoMoreInteractions(observer);
     }
 
@@ -190,7 +220,7 @@ public final class FilterDataTest {
         mData.move(0, 5, 1);
         assertThat(mData).containsExactly("cat", "foo", "bar", "baz", "fish", "bear").inOrder();
         assertContains("bar", "baz", "bear");
-        verify(observer).onChanged();
+        verify(observer).onItemRangeMoved(0, 2, 1);
         verifyNoMoreInteractions(observer);
     }
 
@@ -200,7 +230,7 @@ public final class FilterDataTest {
         mData.move(3, 0, 2);
         assertThat(mData).containsExactly("bar", "baz", "bear", "cat", "foo", "fish").inOrder();
         assertContains("bar", "baz", "bear");
-        verify(observer).onChanged();
+        verify(observer).onItemRangeMoved(1, 0, 2);
         verifyNoMoreInteractions(observer);
     }
 
@@ -210,8 +240,7 @@ public final class FilterDataTest {
         mData.move(5, 0, 1);
         assertThat(mData).containsExactly("fish", "bear", "cat", "foo", "bar", "baz").inOrder();
         assertContains("bear", "bar", "baz");
-        verify(observer).onChanged();
-        verifyNoMoreInteractions(observer);
+        verifyZeroInteractions(observer);
     }
 
     @Test
@@ -237,6 +266,136 @@ public final class FilterDataTest {
         verifyNoMoreInteractions(observer);
     }
 
+    @Test
+    public void snapshotContainsFilteredElements() {
+        assertThat(mFilterData.snapshot()).containsExactly("bear", "bar", "baz").inOrder();
+    }
+
+    @Test
+    public void snapshotUnaffectedBySubsequentChanges() {
+        List<String> snapshot = mFilterData.snapshot();
+        mData.insert(0, "abc");
+        mData.remove(2, 2);
+        assertThat(snapshot).containsExactly("bear", "bar", "baz").inOrder();
+        assertThat(mFilterData.snapshot()).containsExactly("abc", "bear", "bar", "baz").inOrder();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void snapshotIsImmutable() {
+        mFilterData.snapshot().set(0, "x");
+    }
+
+    @Test
+    public void largeDataFilteredInBackground() {
+        FakeData<String> fakeData = new FakeData<>(DataSchedulers.immediate());
+        for (int i = 0; i < 10000; i++) {
+            fakeData.append(i % 2 == 0 ? "b" + i : "a" + i);
+        }
+        FilterData<String> filterData = new FilterData<>(fakeData, contains("b"), true);
+        DataObserver observer = mock(DataObserver.class);
+        filterData.registerDataObserver(observer);
+        filterData.registerDataObserver(new VerifyingDataObserver(filterData));
+        verify(observer).onItemRangeInserted(0, 5000);
+        assertThat(filterData).containsExactlyElementsIn(FluentIterable.from(fakeData).filter(new com.google.common.base.Predicate<String>() {
+            @Override
+            public boolean apply(String s) {
+                return s.contains("b");
+            }
+        })).inOrder();
+    }
+
+    @Test
+    public void largeDataPredicateReassignedInBackground() {
+        FakeData<String> fakeData = new FakeData<>(DataSchedulers.immediate());
+        for (int i = 0; i < 10000; i++) {
+            fakeData.append(i < 5000 ? "b" + i : "a" + i);
+        }
+        FilterData<String> filterData = new FilterData<>(fakeData, contains("b"), true);
+        filterData.registerDataObserver(new VerifyingDataObserver(filterData));
+        DataObserver observer = mock(DataObserver.class);
+        filterData.registerDataObserver(observer);
+        filterData.setPredicate(contains("a"));
+        verify(observer).onItemRangeRemoved(0, 5000);
+        verify(observer).onItemRangeInserted(0, 5000);
+        verifyNoMoreInteractions(observer);
+        assertThat(filterData.get(0)).isEqualTo("a5000");
+    }
+
+    @Test
+    public void largeDataFilteredSynchronouslyByDefault() {
+        ManualDataScheduler scheduler = new ManualDataScheduler();
+        FakeData<String> fakeData = new FakeData<>(scheduler);
+        for (int i = 0; i < 10000; i++) {
+            fakeData.append(i % 2 == 0 ? "b" + i : "a" + i);
+        }
+        FilterData<String> filterData = new FilterData<>(fakeData, contains("b"));
+        DataObserver observer = mock(DataObserver.class);
+        filterData.registerDataObserver(observer);
+        filterData.registerDataObserver(new VerifyingDataObserver(filterData));
+        assertThat(filterData.size()).isEqualTo(5000);
+        filterData.setPredicate(contains("a"));
+        assertThat(filterData.size()).isEqualTo(5000);
+        assertThat(filterData.get(0)).isEqualTo("a1");
+        assertThat(scheduler.getExecutedCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void changesDuringBackgroundFilterAppliedWithoutRestarting() {
+        ManualDataScheduler scheduler = new ManualDataScheduler();
+        FakeData<String> fakeData = new FakeData<>(scheduler);
+        for (int i = 0; i < 10000; i++) {
+            fakeData.append(i % 2 == 0 ? "b" + i : "a" + i);
+        }
+        FilterData<String> filterData = new FilterData<>(fakeData, contains("b"), true);
+        DataObserver observer = mock(DataObserver.class);
+        filterData.registerDataObserver(observer);
+        filterData.registerDataObserver(new VerifyingDataObserver(filterData));
+        int executedCount = scheduler.getExecutedCount();
+        fakeData.append("b10000", "a10001");
+        fakeData.insert(0, "b-1");
+        fakeData.change(5001, "a5000");
+        fakeData.remove(100, 2);
+        fakeData.move(0, 9000, 10);
+        assertThat(scheduler.getExecutedCount()).isEqualTo(executedCount);
+        scheduler.runAll();
+        assertThat(filterData).containsExactlyElementsIn(FluentIterable.from(fakeData).filter(new com.google.common.base.Predicate<String>() {
+            @Override
+            public boolean apply(String s) {
+                return s.contains("b");
+            }
+        })).inOrder();
+    }
+
+    @Test
+    public void largeDataChangeFilteredInBackground() {
+        ManualDataScheduler scheduler = new ManualDataScheduler();
+        FakeData<String> fakeData = new FakeData<>(scheduler);
+        for (int i = 0; i < 10000; i++) {
+            fakeData.append(i % 2 == 0 ? "b" + i : "a" + i);
+        }
+        final int[] applyCount = new int[1];
+        FilterData<String> filterData = new FilterData<>(fakeData, new Predicate<String>() {
+            @Override
+            public boolean apply(String s) {
+                applyCount[0]++;
+                return s.contains("b");
+            }
+        }, true);
+        filterData.registerDataObserver(new VerifyingDataObserver(filterData));
+        scheduler.runAll();
+        applyCount[0] = 0;
+        fakeData.notifyDataSetChanged();
+        assertThat(applyCount[0]).isEqualTo(0);
+        scheduler.runAll();
+        assertThat(applyCount[0]).isEqualTo(10000);
+        assertThat(filterData).containsExactlyElementsIn(FluentIterable.from(fakeData).filter(new com.google.common.base.Predicate<String>() {
+            @Override
+            public boolean apply(String s) {
+                return s.contains("b");
+            }
+        })).inOrder();
+    }
+
     @NonNull
     private static Predicate<String> contains(@NonNull final String substring) {
         return new Predicate<String>() {
@@ -0,0 +1,248 @@
+package com.nextfaze.poweradapters.data;
+
+import com.nextfaze.poweradapters.SimpleDataObserver;
+import lombok.NonNull;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.lang.Thread.sleep;
+import static org.mockito.Mockito.*;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public final class IncrementalArrayDataTest {
+
+    private static final int INCREMENT = 10;
+
+    @Rule
+    public MockitoRule mMockito = MockitoJUnit.rule();
+
+    @Mock
+    private LoadingObserver mLoadingObserver;
+
+    @NonNull
+    private final ManualDataScheduler mScheduler = new ManualDataScheduler();
+
+    private int mLoaded;
+
+    private IncrementalArrayData<Integer> mData;
+
+    @Before
+    public void setUp() throws Exception {
+        mData = new IncrementalArrayData<Integer>(mScheduler) {
+            @Override
+            protected Result<Integer> load() throws Throwable {
+                List<Integer> elements = new ArrayList<>();
+                for (int i = mLoaded; i < mLoaded + INCREMENT; i++) {
+                    elements.add(i);
+                }
+                mLoaded += INCREMENT;
+                return Result.moreRemaining(elements);
+            }
+        };
+        mData.setLookAheadRowCount(0);
+        mData.registerDataObserver(new VerifyingDataObserver(mData));
+        mScheduler.runAll();
+        mData.registerLoadingObserver(mLoadingObserver);
+    }
+
+    @Test
+    public void initialIncrementLoaded() {
+        assertThat(mData.size()).isEqualTo(INCREMENT);
+        assertThat(mData.isLoading()).isFalse();
+    }
+
+    @Test
+    public void presentationDuringObserverCallbackDefersLoadingChange() {
+        mData.registerDataObserver(new SimpleDataObserver() {
+            @Override
+            public void onChanged() {
+                // Observers such as adapters may present elements while their own observers are being notified.
+                mData.get(INCREMENT - 1, Data.FLAG_PRESENTATION);
+                verifyZeroInteractions(mLoadingObserver);
+            }
+        });
+        mData.asList().set(0, -1);
+        assertThat(mData.isLoading()).isTrue();
+        verifyZeroInteractions(mLoadingObserver);
+        mScheduler.runAll();
+        verify(mLoadingObserver, atLeastOnce()).onLoadingChange();
+        assertThat(mData.isLoading()).isFalse();
+        assertThat(mData.size()).isEqualTo(2 * INCREMENT);
+    }
+
+    @Test
+    public void presentationDefersLoadingChange() {
+        mData.get(INCREMENT - 1, Data.FLAG_PRESENTATION);
+        assertThat(mData.isLoading()).isTrue();
+        verifyZeroInteractions(mLoadingObserver);
+        mScheduler.runAll();
+        verify(mLoadingObserver, atLeastOnce()).onLoadingChange();
+    }
+
+    @Test
+    public void incrementsLoadedOutOfOrderAppliedInOrder() {
+        IndexedData data = new IndexedData();
+        data.setMaxConcurrentIncrements(3);
+        register(data);
+        // Prefetch enough rows to need three more increments.
+        data.setLookAheadRowCount(3 * INCREMENT + 5);
+        data.loadNext();
+        assertThat(mScheduler.getBackgroundCount()).isEqualTo(3);
+        mScheduler.runBackground(2);
+        mScheduler.runBackground(1);
+        assertThat(data.size()).isEqualTo(INCREMENT);
+        assertThat(data.isLoading()).isTrue();
+        mScheduler.runBackground(0);
+        mScheduler.runAll();
+        assertThat(data.mRequested).containsExactly(0, 3, 2, 1).inOrder();
+        assertThat(data).containsExactlyElementsIn(range(0, 4 * INCREMENT)).inOrder();
+        assertThat(data.isLoading()).isFalse();
+    }
+
+    @Test
+    public void failedIncrementDiscardsLaterIncrementsAndIsLoadedAgain() {
+        IndexedData data = new IndexedData();
+        data.mFailingIncrement = 2;
+        data.setMaxConcurrentIncrements(3);
+        register(data);
+        ErrorObserver errorObserver = mock(ErrorObserver.class);
+        data.registerErrorObserver(errorObserver);
+        data.setLookAheadRowCount(3 * INCREMENT + 5);
+        data.loadNext();
+        mScheduler.runBackground(2);
+        mScheduler.runBackground(1);
+        mScheduler.runBackground(0);
+        mScheduler.runAll();
+        verify(errorObserver).onError(any(Throwable.class));
+        assertThat(data).containsExactlyElementsIn(range(0, 2 * INCREMENT)).inOrder();
+        assertThat(data.isLoading()).isFalse();
+        data.mRequested.clear();
+        data.loadNext();
+        mScheduler.runAll();
+        assertThat(data.mRequested.get(0)).isEqualTo(2);
+        assertThat(data).containsExactlyElementsIn(range(0, data.size())).inOrder();
+        assertThat(data.size()).isGreaterThan(2 * INCREMENT);
+    }
+
+    @Test
+    public void loadingStopsWhenNoMoreAvailable() {
+        IndexedData data = new IndexedData();
+        data.mFinalIncrement = 1;
+        data.setMaxConcurrentIncrements(3);
+        register(data);
+        data.setLookAheadRowCount(3 * INCREMENT + 5);
+        data.loadNext();
+        mScheduler.runAll();
+        assertThat(data.mRequested).containsExactly(0, 1).inOrder();
+        assertThat(data).containsExactlyElementsIn(range(0, 2 * INCREMENT)).inOrder();
+        assertThat(data.available()).isEqualTo(0);
+        assertThat(data.isLoading()).isFalse();
+        int executedCount = mScheduler.getExecutedCount();
+        data.loadNext();
+        data.get(data.size() - 1, Data.FLAG_PRESENTATION);
+        assertThat(mScheduler.getExecutedCount()).isEqualTo(executedCount);
+    }
+
+    @Test
+    public void concurrentIncrementsBoundedByMax() {
+        IndexedData data = new IndexedData();
+        data.setMaxConcurrentIncrements(2);
+        register(data);
+        data.setLookAheadRowCount(10 * INCREMENT);
+        data.loadNext();
+        assertThat(mScheduler.getBackgroundCount()).isEqualTo(2);
+        data.loadNext();
+        data.get(data.size() - 1, Data.FLAG_PRESENTATION);
+        assertThat(mScheduler.getBackgroundCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void singleIncrementLoadedAtATimeByDefault() {
+        IndexedData data = new IndexedData();
+        register(data);
+        data.setLookAheadRowCount(10 * INCREMENT);
+        data.loadNext();
+        data.loadNext();
+        assertThat(mScheduler.getBackgroundCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void prefetchDistanceGrowsWithLoadTimeAndPresentationRate() {
+        IndexedData data = new IndexedData();
+        data.mLoadDelayMillis = 100;
+        register(data);
+        int executedCount = mScheduler.getExecutedCount();
+        // Presenting rows in quick succession, when an increment takes a while to load, triggers loading well before
+        // the look ahead row count is reached.
+        data.get(0, Data.FLAG_PRESENTATION);
+        data.get(1, Data.FLAG_PRESENTATION);
+        data.get(2, Data.FLAG_PRESENTATION);
+        assertThat(mScheduler.getExecutedCount()).isGreaterThan(executedCount);
+    }
+
+    private void register(@NonNull IncrementalArrayData<Integer> data) {
+        data.setLookAheadRowCount(0);
+        data.registerDataObserver(new VerifyingDataObserver(data));
+        mScheduler.runAll();
+    }
+
+    @NonNull
+    private static List<Integer> range(int start, int end) {
+        List<Integer> elements = new ArrayList<>();
+        for (int i = start; i < end; i++) {
+            elements.add(i);
+        }
+        return elements;
+    }
+
+    /** Loads increments by index, recording the indices requested. */
+    private final class IndexedData extends IncrementalArrayData<Integer> {
+
+        @NonNull
+        final List<Integer> mRequested = new ArrayList<>();
+
+        /** Index of an increment that fails the first time it's loaded, if any. */
+        int mFailingIncrement = -1;
+
+        /** Index of the increment after which no more elements are available. */
+        int mFinalIncrement = Integer.MAX_VALUE;
+
+        /** Time taken to load each increment. */
+        long mLoadDelayMillis;
+
+        IndexedData() {
+            super(mScheduler);
+        }
+
+        @Override
+        protected Result<Integer> load() throws Throwable {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected Result<Integer> load(int increment) throws Throwable {
+            mRequested.add(increment);
+            if (mLoadDelayMillis > 0) {
+                sleep(mLoadDelayMillis);
+            }
+            if (increment == mFailingIncrement) {
+                mFailingIncrement = -1;
+                throw new RuntimeException("Increment " + increment + " failed");
+            }
+            List<Integer> elements = range(increment * INCREMENT, (increment + 1) * INCREMENT);
+            return new Result<>(elements, increment < mFinalIncrement ? Integer.MAX_VALUE : 0);
+        }
+    }
+}
@@ -3,7 +3,6 @@ package com.nextfaze.poweradapters.data;
 import com.nextfaze.poweradapters.DataObserver;
 import lombok.NonNull;
 import org.junit.Before;
-import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -62,6 +61,11 @@ public final class LimitDataTest {
         verifyLimitDataContentsIsClipped();
     }
 
+    @Test
+    public void snapshotContentsClipped() {
+        assertThat(mLimitedData.snapshot()).containsExactly("a", "bc", "def", "ghij", "klmno").inOrder();
+    }
+
     @Test(expected = IndexOutOfBoundsException.class)
     public void getOutOfBoundsThrows() {
         mLimitedData.get(7);
@@ -243,11 +247,37 @@ public final class LimitDataTest {
         verifyNoMoreInteractions(mObserver);
     }
 
-    @Ignore
     @Test
     public void moveOutOfBoundsDropped() {
-        // TODO: Check that a move that's entirely out of bounds results in no notification.
-        throw new UnsupportedOperationException();
+        mData.move(5, 6, 1);
+        verifyLimitDataContentsIsClipped();
+        verifyZeroInteractions(mObserver);
+    }
+
+    @Test
+    public void moveWithinBoundsForwarded() {
+        mData.move(0, 3, 2);
+        assertThat(mLimitedData).containsExactly("def", "ghij", "klmno", "a", "bc").inOrder();
+        verify(mObserver).onItemRangeMoved(0, 3, 2);
+        verifyNoMoreInteractions(mObserver);
+    }
+
+    @Test
+    public void moveForwardsBoundaryStraddlingBrokenIntoRemoveAndInsert() {
+        mData.move(3, 5, 2);
+        assertThat(mLimitedData).containsExactly("a", "bc", "def", "pqrstu", "vwxyz12").inOrder();
+        verify(mObserver).onItemRangeRemoved(3, 2);
+        verify(mObserver).onItemRangeInserted(3, 2);
+        verifyNoMoreInteractions(mObserver);
+    }
+
+    @Test
+    public void moveBackwardsBoundaryStraddlingBrokenIntoRemoveAndInsert() {
+        mData.move(5, 1, 2);
+        assertThat(mLimitedData).containsExactly("a", "pqrstu", "vwxyz12", "bc", "def").inOrder();
+        verify(mObserver).onItemRangeRemoved(3, 2);
+        verify(mObserver).onItemRangeInserted(1, 2);
+        verifyNoMoreInteractions(mObserver);
     }
 
     private void verifyLimitDataContentsIsClipped() {
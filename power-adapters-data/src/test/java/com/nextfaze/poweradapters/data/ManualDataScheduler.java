@@ -0,0 +1,72 @@
+package com.nextfaze.poweradapters.data;
+
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Queues background tasks and posted runnables until explicitly run, so tests can interleave changes with background
+ * work. The calling thread is always considered the delivery thread.
+ */
+final class ManualDataScheduler implements DataScheduler {
+
+    @NonNull
+    private final List<Runnable> mBackground = new ArrayList<>();
+
+    @NonNull
+    private final List<Runnable> mPosted = new ArrayList<>();
+
+    private int mExecutedCount;
+
+    @Override
+    public void execute(@NonNull Runnable runnable) {
+        mBackground.add(runnable);
+        mExecutedCount++;
+    }
+
+    @Override
+    public void post(@NonNull Runnable runnable) {
+        mPosted.add(runnable);
+    }
+
+    @Override
+    public void postFrame(@NonNull Runnable runnable) {
+        mPosted.add(runnable);
+    }
+
+    @Override
+    public boolean isDeliveryThread() {
+        return true;
+    }
+
+    /** Returns the total number of background tasks submitted to {@link #execute(Runnable)}. */
+    int getExecutedCount() {
+        return mExecutedCount;
+    }
+
+    /** Returns the number of background tasks queued but not yet run. */
+    int getBackgroundCount() {
+        return mBackground.size();
+    }
+
+    /**
+     * Runs only the queued background task at the specified index, leaving the others queued, so tests can complete
+     * tasks out of order.
+     */
+    void runBackground(int index) {
+        mBackground.remove(index).run();
+    }
+
+    /** Runs queued background tasks and posted runnables until there are none left. */
+    void runAll() {
+        while (!mBackground.isEmpty() || !mPosted.isEmpty()) {
+            while (!mBackground.isEmpty()) {
+                mBackground.remove(0).run();
+            }
+            while (!mPosted.isEmpty()) {
+                mPosted.remove(0).run();
+            }
+        }
+    }
+}
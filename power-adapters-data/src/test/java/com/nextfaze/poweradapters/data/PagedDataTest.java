@@ -0,0 +1,174 @@
+package com.nextfaze.poweradapters.data;
+
+import com.nextfaze.poweradapters.DataObserver;
+import com.nextfaze.poweradapters.SimpleDataObserver;
+import lombok.NonNull;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.*;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public final class PagedDataTest {
+
+    private static final int SIZE = 100;
+    private static final int PAGE_SIZE = 10;
+    private static final int PLACEHOLDER = -1;
+
+    @Rule
+    public MockitoRule mMockito = MockitoJUnit.rule();
+
+    @NonNull
+    private final List<Integer> mLoadedOffsets = new ArrayList<>();
+
+    private PagedData<Integer> mData;
+
+    @Before
+    public void setUp() throws Exception {
+        mData = newData(DataSchedulers.immediate());
+        mData.setPrefetchPageCount(0);
+        mData.registerDataObserver(new VerifyingDataObserver(mData));
+    }
+
+    @NonNull
+    private PagedData<Integer> newData(@NonNull DataScheduler scheduler) {
+        return new PagedData<Integer>(PAGE_SIZE, scheduler) {
+            @NonNull
+            @Override
+            protected Result<Integer> load(int offset, int count) throws Throwable {
+                mLoadedOffsets.add(offset);
+                List<Integer> elements = new ArrayList<>();
+                for (int i = offset; i < offset + count && i < SIZE; i++) {
+                    elements.add(i);
+                }
+                return new Result<>(elements, SIZE);
+            }
+
+            @NonNull
+            @Override
+            protected Integer getPlaceholder(int position) {
+                return PLACEHOLDER;
+            }
+        };
+    }
+
+    @Test
+    public void sizeIsFullSizeOfSource() {
+        assertThat(mData.size()).isEqualTo(SIZE);
+        assertThat(mData.available()).isEqualTo(SIZE - PAGE_SIZE);
+        assertThat(mLoadedOffsets).containsExactly(0);
+    }
+
+    @Test
+    public void unloadedPagesArePlaceholders() {
+        assertThat(mData.get(9)).isEqualTo(9);
+        assertThat(mData.get(55)).isEqualTo(PLACEHOLDER);
+        assertThat(mLoadedOffsets).containsExactly(0);
+    }
+
+    @Test
+    public void presentationLoadsPage() {
+        DataObserver observer = registerMockObserver();
+        mData.get(55, Data.FLAG_PRESENTATION);
+        assertThat(mData.get(55)).isEqualTo(55);
+        assertThat(mLoadedOffsets).containsExactly(0, 50).inOrder();
+        verify(observer).onItemRangeChanged(50, 10);
+        verifyNoMoreInteractions(observer);
+    }
+
+    @Test
+    public void prefetchLoadsAdjacentPages() {
+        mData.setPrefetchPageCount(1);
+        mData.get(55, Data.FLAG_PRESENTATION);
+        assertThat(mLoadedOffsets).containsExactly(0, 50, 60, 40).inOrder();
+    }
+
+    @Test
+    public void leastRecentlyPresentedPagesEvicted() {
+        mData.setMaxPages(2);
+        mData.get(15, Data.FLAG_PRESENTATION);
+        DataObserver observer = registerMockObserver();
+        mData.get(25, Data.FLAG_PRESENTATION);
+        verify(observer).onItemRangeChanged(20, 10);
+        verify(observer).onItemRangeChanged(0, 10);
+        verifyNoMoreInteractions(observer);
+        assertThat(mData.get(5)).isEqualTo(PLACEHOLDER);
+        assertThat(mData.get(15)).isEqualTo(15);
+        assertThat(mData.get(25)).isEqualTo(25);
+        assertThat(mData.available()).isEqualTo(SIZE - 2 * PAGE_SIZE);
+    }
+
+    @Test
+    public void invalidatedPagesLoadedAgainWhenPresented() {
+        mData.invalidate();
+        mData.get(5, Data.FLAG_PRESENTATION);
+        mData.get(6, Data.FLAG_PRESENTATION);
+        assertThat(mLoadedOffsets).containsExactly(0, 0).inOrder();
+    }
+
+    @Test
+    public void presentationDuringObserverCallbackDefersLoadingChange() {
+        ManualDataScheduler scheduler = new ManualDataScheduler();
+        final PagedData<Integer> data = newData(scheduler);
+        data.setPrefetchPageCount(0);
+        data.registerDataObserver(new VerifyingDataObserver(data));
+        scheduler.runAll();
+        final int[] loadingChanges = new int[1];
+        data.registerLoadingObserver(new LoadingObserver() {
+            @Override
+            public void onLoadingChange() {
+                loadingChanges[0]++;
+            }
+        });
+        data.registerDataObserver(new SimpleDataObserver() {
+            @Override
+            public void onChanged() {
+                int before = loadingChanges[0];
+                data.get(55, Data.FLAG_PRESENTATION);
+                assertThat(loadingChanges[0]).isEqualTo(before);
+            }
+        });
+        data.invalidate();
+        data.get(5, Data.FLAG_PRESENTATION);
+        assertThat(data.isLoading()).isTrue();
+        assertThat(loadingChanges[0]).isEqualTo(0);
+        scheduler.runAll();
+        assertThat(loadingChanges[0]).isGreaterThan(0);
+        assertThat(data.isLoading()).isFalse();
+        assertThat(data.get(55)).isEqualTo(55);
+    }
+
+    @Test
+    public void closeWhileLoadingStopsLoading() {
+        ManualDataScheduler scheduler = new ManualDataScheduler();
+        PagedData<Integer> data = newData(scheduler);
+        data.registerDataObserver(new VerifyingDataObserver(data));
+        assertThat(data.isLoading()).isTrue();
+        LoadingObserver loadingObserver = mock(LoadingObserver.class);
+        data.registerLoadingObserver(loadingObserver);
+        data.close();
+        assertThat(data.isLoading()).isFalse();
+        verify(loadingObserver).onLoadingChange();
+        scheduler.runAll();
+        assertThat(data.isLoading()).isFalse();
+        assertThat(data.size()).isEqualTo(0);
+    }
+
+    @NonNull
+    private DataObserver registerMockObserver() {
+        DataObserver observer = mock(DataObserver.class);
+        mData.registerDataObserver(observer);
+        return observer;
+    }
+}
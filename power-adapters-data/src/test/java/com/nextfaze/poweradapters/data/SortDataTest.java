@@ -2,6 +2,8 @@ package com.nextfaze.poweradapters.data;
 
 import com.google.common.collect.Ordering;
 import com.nextfaze.poweradapters.DataObserver;
+import com.nextfaze.poweradapters.SimpleDataObserver;
+import com.nextfaze.poweradapters.internal.NotificationType;
 import lombok.NonNull;
 import org.junit.Before;
 import org.junit.Rule;
@@ -13,6 +15,7 @@ import org.mockito.junit.MockitoRule;
 import org.robolectric.RobolectricGradleTestRunner;
 import org.robolectric.annotation.Config;
 
+import java.util.Comparator;
 import java.util.List;
 
 import static com.google.common.collect.Lists.newArrayList;
@@ -159,6 +162,211 @@ public final class SortDataTest {
         verifyNoMoreInteractions(observer);
     }
 
+    @Test
+    public void moveDoesNotNotify() {
+        DataObserver observer = registerMockObserver();
+        mFakeData.move(0, 3, 2);
+        assertContentsSorted();
+        verifyZeroInteractions(observer);
+    }
+
+    @Test
+    public void changeAfterMove() {
+        DataObserver observer = registerMockObserver();
+        mFakeData.move(0, 3, 2);
+        mFakeData.change(3, 30);
+        assertContentsSorted();
+        verify(observer).onItemRangeRemoved(0, 1);
+        verify(observer).onItemRangeInserted(5, 1);
+        verifyNoMoreInteractions(observer);
+    }
+
+    @Test
+    public void equalElementsInsertedInInnerOrder() {
+        FakeData<String> fakeData = new FakeData<>();
+        fakeData.insert(0, "b1", "a1", "b2", "a2");
+        SortData<String> sortData = firstCharacterSortData(fakeData);
+        fakeData.insert(1, "a3");
+        fakeData.append("a4");
+        assertThat(sortData).containsExactly("a3", "a1", "a2", "a4", "b1", "b2").inOrder();
+    }
+
+    @Test
+    public void equalElementsChangedInInnerOrder() {
+        FakeData<String> fakeData = new FakeData<>();
+        fakeData.insert(0, "a1", "b1", "a2", "b2");
+        SortData<String> sortData = firstCharacterSortData(fakeData);
+        fakeData.change(3, "a3");
+        fakeData.change(0, "b3");
+        assertThat(sortData).containsExactly("a2", "a3", "b3", "b1").inOrder();
+    }
+
+    @Test
+    public void moveRepositionsEqualElement() {
+        FakeData<String> fakeData = new FakeData<>();
+        fakeData.insert(0, "a1", "b1", "a2", "b2");
+        SortData<String> sortData = firstCharacterSortData(fakeData);
+        DataObserver observer = mock(DataObserver.class);
+        sortData.registerDataObserver(observer);
+        fakeData.move(0, 3, 1);
+        assertThat(sortData).containsExactly("a2", "a1", "b1", "b2").inOrder();
+        verify(observer).onItemRangeMoved(0, 1, 1);
+        verifyNoMoreInteractions(observer);
+    }
+
+    @Test
+    public void moveRepositionsMultipleEqualElements() {
+        FakeData<String> fakeData = new FakeData<>();
+        fakeData.insert(0, "a1", "b1", "a2", "b2", "c1");
+        SortData<String> sortData = firstCharacterSortData(fakeData);
+        fakeData.move(0, 2, 3);
+        assertThat(sortData).containsExactly("a1", "a2", "b2", "b1", "c1").inOrder();
+        fakeData.move(2, 0, 2);
+        assertThat(sortData).containsExactly("a1", "a2", "b1", "b2", "c1").inOrder();
+    }
+
+    @Test
+    public void largeIncrementalAppendRemainsSorted() {
+        DataObserver observer = registerMockObserver();
+        for (int i = 0; i < 1000; i++) {
+            mFakeData.append((i * 7919) % 1000);
+        }
+        assertContentsSorted();
+        verify(observer, times(1000)).onItemRangeInserted(anyInt(), eq(1));
+        verifyNoMoreInteractions(observer);
+    }
+
+    @Test
+    public void largeDataSortedInBackground() {
+        FakeData<Integer> fakeData = new FakeData<>(DataSchedulers.immediate());
+        for (int i = 0; i < 10000; i++) {
+            fakeData.append((i * 7919) % 5000);
+        }
+        SortData<Integer> sortData = new SortData<>(fakeData, Ordering.<Integer>natural(), true);
+        DataObserver observer = mock(DataObserver.class);
+        sortData.registerDataObserver(observer);
+        sortData.registerDataObserver(new VerifyingDataObserver(sortData));
+        verify(observer).onItemRangeInserted(0, 10000);
+        fakeData.append(2500);
+        List<Integer> sortedFakeItems = newArrayList(fakeData);
+        sort(sortedFakeItems);
+        assertThat(sortData).containsExactlyElementsIn(sortedFakeItems).inOrder();
+    }
+
+    @Test
+    public void largeDataSortedSynchronouslyByDefault() {
+        ManualDataScheduler scheduler = new ManualDataScheduler();
+        FakeData<Integer> fakeData = new FakeData<>(scheduler);
+        for (int i = 0; i < 10000; i++) {
+            fakeData.append((i * 7919) % 5000);
+        }
+        SortData<Integer> sortData = new SortData<>(fakeData, Ordering.<Integer>natural());
+        DataObserver observer = mock(DataObserver.class);
+        sortData.registerDataObserver(observer);
+        verify(observer).onItemRangeInserted(0, 10000);
+        assertThat(scheduler.getExecutedCount()).isEqualTo(0);
+        List<Integer> sortedFakeItems = newArrayList(fakeData);
+        sort(sortedFakeItems);
+        assertThat(sortData).containsExactlyElementsIn(sortedFakeItems).inOrder();
+    }
+
+    @Test
+    public void changesDuringBackgroundSortAppliedWithoutRestarting() {
+        ManualDataScheduler scheduler = new ManualDataScheduler();
+        FakeData<Integer> fakeData = new FakeData<>(scheduler);
+        for (int i = 0; i < 10000; i++) {
+            fakeData.append((i * 7919) % 5000);
+        }
+        SortData<Integer> sortData = new SortData<>(fakeData, Ordering.<Integer>natural(), true);
+        DataObserver observer = mock(DataObserver.class);
+        sortData.registerDataObserver(observer);
+        sortData.registerDataObserver(new VerifyingDataObserver(sortData));
+        int executedCount = scheduler.getExecutedCount();
+        fakeData.append(2500, 7000);
+        fakeData.insert(0, -1);
+        fakeData.change(5000, 6000);
+        fakeData.remove(100, 2);
+        fakeData.move(0, 9000, 10);
+        assertThat(scheduler.getExecutedCount()).isEqualTo(executedCount);
+        verifyZeroInteractions(observer);
+        scheduler.runAll();
+        verify(observer).onItemRangeInserted(0, 10001);
+        verifyNoMoreInteractions(observer);
+        List<Integer> sortedFakeItems = newArrayList(fakeData);
+        sort(sortedFakeItems);
+        assertThat(sortData).containsExactlyElementsIn(sortedFakeItems).inOrder();
+    }
+
+    @Test
+    public void snapshotContainsSortedElements() {
+        assertThat(mSortData.snapshot()).containsExactly(0, 5, 10, 15, 20, 25).inOrder();
+    }
+
+    @Test
+    public void snapshotUnaffectedBySubsequentChanges() {
+        List<Integer> snapshot = mSortData.snapshot();
+        mFakeData.insert(0, 12);
+        mFakeData.remove(2, 2);
+        assertThat(snapshot).containsExactly(0, 5, 10, 15, 20, 25).inOrder();
+        assertThat(mSortData.snapshot()).containsExactly(0, 12, 15, 20, 25).inOrder();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void snapshotIsImmutable() {
+        mSortData.snapshot().set(0, 1);
+    }
+
+    @Test
+    public void snapshotDuringBackgroundSortContainsPreviousElements() {
+        ManualDataScheduler scheduler = new ManualDataScheduler();
+        FakeData<Integer> fakeData = new FakeData<>(scheduler);
+        for (int i = 0; i < 10000; i++) {
+            fakeData.append((i * 7919) % 5000);
+        }
+        SortData<Integer> sortData = new SortData<>(fakeData, Ordering.<Integer>natural(), true);
+        sortData.registerDataObserver(mock(DataObserver.class));
+        scheduler.runAll();
+        List<Integer> sortedFakeItems = newArrayList(fakeData);
+        sort(sortedFakeItems);
+        fakeData.setNotificationType(NotificationType.COARSE);
+        fakeData.change(0, -1);
+        assertThat(sortData.snapshot()).containsExactlyElementsIn(sortedFakeItems).inOrder();
+        scheduler.runAll();
+        sortedFakeItems = newArrayList(fakeData);
+        sort(sortedFakeItems);
+        assertThat(sortData.snapshot()).containsExactlyElementsIn(sortedFakeItems).inOrder();
+    }
+
+    @NonNull
+    private static SortData<String> firstCharacterSortData(@NonNull FakeData<String> fakeData) {
+        SortData<String> sortData = new SortData<>(fakeData, new Comparator<String>() {
+            @Override
+            public int compare(String lhs, String rhs) {
+                return lhs.substring(0, 1).compareTo(rhs.substring(0, 1));
+            }
+        });
+        sortData.registerDataObserver(new VerifyingDataObserver(sortData));
+        return sortData;
+    }
+
+    @Test
+    public void unregisteringLastObserverFromUpstreamCallbackStopsForwarding() {
+        FakeData<Integer> fakeData = new FakeData<>();
+        fakeData.insert(0, 3, 1, 2);
+        final SortData<Integer> sortData = new SortData<>(fakeData, Ordering.<Integer>natural());
+        final DataObserver observer = mock(DataObserver.class);
+        sortData.registerDataObserver(observer);
+        // Registered after the sort data's own observer, so it's notified first.
+        fakeData.registerDataObserver(new SimpleDataObserver() {
+            @Override
+            public void onChanged() {
+                sortData.unregisterDataObserver(observer);
+            }
+        });
+        fakeData.remove(0, 1);
+        verifyZeroInteractions(observer);
+    }
+
     @NonNull
     private DataObserver registerMockObserver() {
         DataObserver observer = mock(DataObserver.class);
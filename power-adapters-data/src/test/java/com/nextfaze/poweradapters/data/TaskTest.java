@@ -0,0 +1,129 @@
+package com.nextfaze.poweradapters.data;
+
+import lombok.NonNull;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public final class TaskTest {
+
+    @NonNull
+    private final List<Runnable> mPosted = new ArrayList<>();
+
+    @NonNull
+    private final List<String> mCallbacks = new ArrayList<>();
+
+    @NonNull
+    private final DataScheduler mScheduler = new DataScheduler() {
+        @Override
+        public void execute(@NonNull Runnable runnable) {
+            runnable.run();
+        }
+
+        @Override
+        public void post(@NonNull Runnable runnable) {
+            mPosted.add(runnable);
+        }
+
+        @Override
+        public void postFrame(@NonNull Runnable runnable) {
+            mPosted.add(runnable);
+        }
+
+        @Override
+        public boolean isDeliveryThread() {
+            return false;
+        }
+    };
+
+    @Test
+    public void successNotDeliveredIfCanceledAfterPost() {
+        RecordingTask task = new RecordingTask(null);
+        task.execute();
+        runPosted(1);
+        task.cancel();
+        runPosted();
+        assertThat(mCallbacks).containsExactly("onPreExecute", "onCanceled", "onFinally").inOrder();
+    }
+
+    @Test
+    public void failureNotDeliveredIfCanceledAfterPost() {
+        RecordingTask task = new RecordingTask(new RuntimeException());
+        task.execute();
+        // Runs onPreExecute and the call, which posts the failure.
+        runPosted(1);
+        assertThat(mPosted).hasSize(1);
+        task.cancel();
+        runPosted();
+        assertThat(mCallbacks).containsExactly("onPreExecute", "onCanceled", "onFinally").inOrder();
+    }
+
+    @Test
+    public void failureDelivered() {
+        RecordingTask task = new RecordingTask(new RuntimeException());
+        task.execute();
+        runPosted();
+        assertThat(mCallbacks).containsExactly("onPreExecute", "onFailure", "onFinally").inOrder();
+    }
+
+    private void runPosted() {
+        runPosted(Integer.MAX_VALUE);
+    }
+
+    private void runPosted(int count) {
+        for (int i = 0; i < count && !mPosted.isEmpty(); i++) {
+            mPosted.remove(0).run();
+        }
+    }
+
+    private final class RecordingTask extends Task<Object> {
+
+        private final RuntimeException mException;
+
+        RecordingTask(RuntimeException exception) {
+            super(mScheduler);
+            mException = exception;
+        }
+
+        @Override
+        protected Object call() throws Throwable {
+            if (mException != null) {
+                throw mException;
+            }
+            return new Object();
+        }
+
+        @Override
+        protected void onPreExecute() throws Throwable {
+            mCallbacks.add("onPreExecute");
+        }
+
+        @Override
+        protected void onSuccess(Object o) throws Throwable {
+            mCallbacks.add("onSuccess");
+        }
+
+        @Override
+        protected void onFailure(@NonNull Throwable e) throws Throwable {
+            mCallbacks.add("onFailure");
+        }
+
+        @Override
+        protected void onCanceled() throws Throwable {
+            mCallbacks.add("onCanceled");
+        }
+
+        @Override
+        protected void onFinally() throws Throwable {
+            mCallbacks.add("onFinally");
+        }
+    }
+}
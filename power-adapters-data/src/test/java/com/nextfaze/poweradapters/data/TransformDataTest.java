@@ -1,5 +1,6 @@
 package com.nextfaze.poweradapters.data;
 
+import com.nextfaze.poweradapters.DataObserver;
 import lombok.NonNull;
 import org.junit.Before;
 import org.junit.Rule;
@@ -10,7 +11,11 @@ import org.mockito.junit.MockitoRule;
 import org.robolectric.RobolectricGradleTestRunner;
 import org.robolectric.annotation.Config;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
 
 @RunWith(RobolectricGradleTestRunner.class)
 @Config(constants = BuildConfig.class, sdk = 21)
@@ -21,6 +26,19 @@ public final class TransformDataTest {
 
     private FakeData<String> mData;
 
+    @NonNull
+    private final List<String> mApplied = new ArrayList<>();
+
+    @NonNull
+    private final Function<String, Integer> mLengthFunction = new Function<String, Integer>() {
+        @NonNull
+        @Override
+        public Integer apply(@NonNull String s) {
+            mApplied.add(s);
+            return s.length();
+        }
+    };
+
     @Before
     public void setUp() throws Exception {
         mData = new FakeData<>();
@@ -38,4 +56,80 @@ public final class TransformDataTest {
         });
         assertThat(transformed).containsExactly(1, 2, 3, 4, 5, 6, 7).inOrder();
     }
+
+    @Test
+    public void cachedTransformAppliesFunctionOnce() {
+        Data<Integer> transformed = new TransformData<>(mData, mLengthFunction, Integer.MAX_VALUE);
+        transformed.registerDataObserver(mock(DataObserver.class));
+        assertThat(transformed).containsExactly(1, 2, 3, 4, 5, 6, 7).inOrder();
+        assertThat(transformed).containsExactly(1, 2, 3, 4, 5, 6, 7).inOrder();
+        assertThat(mApplied).containsExactly("a", "bc", "def", "ghij", "klmno", "pqrstu", "vwxyz12").inOrder();
+    }
+
+    @Test
+    public void cachedTransformReappliesFunctionToChangedElements() {
+        Data<Integer> transformed = new TransformData<>(mData, mLengthFunction, Integer.MAX_VALUE);
+        transformed.registerDataObserver(new VerifyingDataObserver(transformed));
+        assertThat(transformed).containsExactly(1, 2, 3, 4, 5, 6, 7).inOrder();
+        mApplied.clear();
+        mData.change(1, "xxxxxxxxxx");
+        mData.insert(0, "yyyyyyyyyyyy");
+        mData.remove(4, 1);
+        mData.move(0, 5, 1);
+        assertThat(transformed).containsExactly(1, 10, 3, 5, 6, 12, 7).inOrder();
+        assertThat(mApplied).containsExactly("xxxxxxxxxx", "yyyyyyyyyyyy").inOrder();
+    }
+
+    @Test
+    public void cachedTransformEvictsLeastRecentlyUsed() {
+        Data<Integer> transformed = new TransformData<>(mData, mLengthFunction, 2);
+        transformed.registerDataObserver(mock(DataObserver.class));
+        transformed.get(0);
+        transformed.get(1);
+        transformed.get(0);
+        transformed.get(2);
+        mApplied.clear();
+        transformed.get(0);
+        transformed.get(2);
+        transformed.get(1);
+        assertThat(mApplied).containsExactly("bc");
+    }
+
+    @Test
+    public void snapshotAppliesFunctionOnFirstAccess() {
+        Data<Integer> transformed = new TransformData<>(mData, mLengthFunction);
+        List<Integer> snapshot = transformed.snapshot();
+        assertThat(mApplied).isEmpty();
+        assertThat(snapshot.get(2)).isEqualTo(3);
+        assertThat(snapshot.get(2)).isEqualTo(3);
+        assertThat(mApplied).containsExactly("def");
+        assertThat(snapshot).containsExactly(1, 2, 3, 4, 5, 6, 7).inOrder();
+    }
+
+    @Test
+    public void snapshotReusesCachedElements() {
+        Data<Integer> transformed = new TransformData<>(mData, mLengthFunction, Integer.MAX_VALUE);
+        transformed.registerDataObserver(mock(DataObserver.class));
+        transformed.get(0);
+        transformed.get(1);
+        mApplied.clear();
+        assertThat(transformed.snapshot()).containsExactly(1, 2, 3, 4, 5, 6, 7).inOrder();
+        assertThat(mApplied).containsExactly("def", "ghij", "klmno", "pqrstu", "vwxyz12").inOrder();
+    }
+
+    @Test
+    public void snapshotUnaffectedBySubsequentChanges() {
+        Data<Integer> transformed = new TransformData<>(mData, mLengthFunction, Integer.MAX_VALUE);
+        transformed.registerDataObserver(new VerifyingDataObserver(transformed));
+        List<Integer> snapshot = transformed.snapshot();
+        mData.change(0, "xxxxxxxxxx");
+        mData.remove(1, 2);
+        assertThat(snapshot).containsExactly(1, 2, 3, 4, 5, 6, 7).inOrder();
+        assertThat(transformed.snapshot()).containsExactly(10, 4, 5, 6, 7).inOrder();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void snapshotIsImmutable() {
+        new TransformData<>(mData, mLengthFunction).snapshot().set(0, 1);
+    }
 }
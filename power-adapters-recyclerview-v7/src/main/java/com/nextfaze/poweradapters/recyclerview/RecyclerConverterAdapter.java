@@ -1,19 +1,31 @@
 package com.nextfaze.poweradapters.recyclerview;
 
-import android.support.v4.util.ArrayMap;
 import android.support.v7.widget.RecyclerView;
+import android.util.SparseArray;
 import android.view.View;
 import android.view.ViewGroup;
 import com.nextfaze.poweradapters.DataObserver;
 import com.nextfaze.poweradapters.PowerAdapter;
+import com.nextfaze.poweradapters.internal.AbstractHolder;
+import com.nextfaze.poweradapters.internal.DataObservable;
+import com.nextfaze.poweradapters.internal.ViewTypeRegistry;
+import com.nextfaze.poweradapters.recyclerview.RecyclerPowerAdapters.ConsistencyCheck;
 import lombok.NonNull;
 
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
 
+import static java.lang.Math.abs;
+import static java.lang.System.arraycopy;
+
 final class RecyclerConverterAdapter extends RecyclerView.Adapter<RecyclerConverterAdapter.Holder> {
 
+    /**
+     * The maximum number of single item moves a range move is translated into. Beyond this, the range is removed and
+     * inserted instead, which costs fewer operations but forgoes move animations and rebinds the range.
+     */
+    private static final int MAX_ITEM_MOVES = 16;
+
     @NonNull
     private final Set<RecyclerView.AdapterDataObserver> mAdapterDataObservers = new HashSet<>();
 
@@ -25,6 +37,7 @@ final class RecyclerConverterAdapter extends RecyclerView.Adapter<RecyclerConver
         @Override
         public void onChanged() {
             mShadowItemCount = mPowerAdapter.getItemCount();
+            mNotificationCount = 0;
             notifyDataSetChanged();
         }
 
@@ -51,26 +64,34 @@ final class RecyclerConverterAdapter extends RecyclerView.Adapter<RecyclerConver
         @Override
         public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
             validateItemCount();
-            if (itemCount == 1) {
-                notifyItemMoved(fromPosition, toPosition);
-            } else {
-                // TODO: There's likely a more specific (series of?) calls we can make here instead of generic "changed" fallback.
-                notifyDataSetChanged();
-            }
+            notifyRangeMoved(fromPosition, toPosition, itemCount);
         }
     };
 
+    /** Assigns local {@code int}s to view types, and retains them so their shared {@code int}s remain assigned. */
     @NonNull
-    private final Map<Object, Integer> mViewTypeObjectToInt = new ArrayMap<>();
+    private final ViewTypeRegistry mViewTypes = new ViewTypeRegistry();
 
+    /** Shared {@code int}s of view types, indexed by their local {@code int}s. */
     @NonNull
-    private final Map<Integer, Object> mViewTypeIntToObject = new ArrayMap<>();
+    private int[] mSharedViewTypeInts = new int[8];
+
+    /** The number of view types whose shared {@code int}s have been recorded. */
+    private int mSharedViewTypeCount;
 
-    private int mNextViewTypeInt;
+    /** View types indexed by their shared {@code int}s. */
+    @NonNull
+    private final SparseArray<Object> mViewTypesBySharedInt = new SparseArray<>();
 
-    /** Used to track the expected number of items, based on incoming notifications. */
+    /**
+     * Used to track the expected number of items, based on incoming notifications. Serves as the item count while
+     * observed, so it needn't be computed through every layer of the wrapped adapter.
+     */
     private int mShadowItemCount;
 
+    /** The number of notifications received since the shadow count was last computed, used to sample checks. */
+    private int mNotificationCount;
+
     RecyclerConverterAdapter(@NonNull PowerAdapter powerAdapter) {
         mPowerAdapter = powerAdapter;
         setHasStableIds(mPowerAdapter.hasStableIds());
@@ -78,6 +99,9 @@ final class RecyclerConverterAdapter extends RecyclerView.Adapter<RecyclerConver
 
     @Override
     public int getItemCount() {
+        if (!mAdapterDataObservers.isEmpty()) {
+            return mShadowItemCount;
+        }
         return mPowerAdapter.getItemCount();
     }
 
@@ -89,18 +113,17 @@ final class RecyclerConverterAdapter extends RecyclerView.Adapter<RecyclerConver
     @Override
     public int getItemViewType(int position) {
         Object viewType = mPowerAdapter.getItemViewType(position);
-        Integer viewTypeInt = mViewTypeObjectToInt.get(viewType);
-        if (viewTypeInt == null) {
-            viewTypeInt = mNextViewTypeInt++;
-            mViewTypeObjectToInt.put(viewType, viewTypeInt);
-            mViewTypeIntToObject.put(viewTypeInt, viewType);
+        int viewTypeInt = mViewTypes.toInt(viewType);
+        // Local ints are assigned sequentially, so a view type seen for the first time has the next one.
+        if (viewTypeInt == mSharedViewTypeCount) {
+            share(viewType, viewTypeInt);
         }
-        return viewTypeInt;
+        return mSharedViewTypeInts[viewTypeInt];
     }
 
     @Override
     public Holder onCreateViewHolder(ViewGroup parent, int itemViewType) {
-        return new Holder(mPowerAdapter.newView(parent, mViewTypeIntToObject.get(itemViewType)));
+        return new Holder(mPowerAdapter.newView(parent, mViewTypesBySharedInt.get(itemViewType)));
     }
 
     @Override
@@ -113,6 +136,7 @@ final class RecyclerConverterAdapter extends RecyclerView.Adapter<RecyclerConver
         super.registerAdapterDataObserver(observer);
         if (mAdapterDataObservers.add(observer) && mAdapterDataObservers.size() == 1) {
             mShadowItemCount = mPowerAdapter.getItemCount();
+            mNotificationCount = 0;
             mPowerAdapter.registerDataObserver(mDataSetObserver);
         }
     }
@@ -126,6 +150,50 @@ final class RecyclerConverterAdapter extends RecyclerView.Adapter<RecyclerConver
         }
     }
 
+    /**
+     * Translates a range move into the single item moves supported by {@link RecyclerView}. Moving a range is
+     * equivalent to moving the range it displaces in the opposite direction, so whichever is smaller is moved.
+     */
+    private void notifyRangeMoved(int fromPosition, int toPosition, int itemCount) {
+        if (itemCount <= 0 || fromPosition == toPosition) {
+            return;
+        }
+        int distance = abs(toPosition - fromPosition);
+        if (distance < itemCount) {
+            int displacedFromPosition = fromPosition < toPosition ? fromPosition + itemCount : toPosition;
+            int displacedToPosition = fromPosition < toPosition ? fromPosition : toPosition + itemCount;
+            fromPosition = displacedFromPosition;
+            toPosition = displacedToPosition;
+            itemCount = distance;
+        }
+        if (itemCount > MAX_ITEM_MOVES) {
+            notifyItemRangeRemoved(fromPosition, itemCount);
+            notifyItemRangeInserted(toPosition, itemCount);
+        } else if (fromPosition < toPosition) {
+            // Each move takes the first remaining item of the range to the end of its destination.
+            for (int i = 0; i < itemCount; i++) {
+                notifyItemMoved(fromPosition, toPosition + itemCount - 1);
+            }
+        } else {
+            for (int i = 0; i < itemCount; i++) {
+                notifyItemMoved(fromPosition + i, toPosition + i);
+            }
+        }
+    }
+
+    /** Records the shared {@code int} of a view type that has just been assigned the specified local {@code int}. */
+    private void share(@NonNull Object viewType, int viewTypeInt) {
+        if (viewTypeInt == mSharedViewTypeInts.length) {
+            int[] sharedViewTypeInts = new int[viewTypeInt * 2];
+            arraycopy(mSharedViewTypeInts, 0, sharedViewTypeInts, 0, viewTypeInt);
+            mSharedViewTypeInts = sharedViewTypeInts;
+        }
+        int sharedViewTypeInt = SharedViewTypes.toInt(viewType);
+        mSharedViewTypeInts[viewTypeInt] = sharedViewTypeInt;
+        mViewTypesBySharedInt.put(sharedViewTypeInt, viewType);
+        mSharedViewTypeCount++;
+    }
+
     int getObserverCount() {
         return mAdapterDataObservers.size();
     }
@@ -133,9 +201,18 @@ final class RecyclerConverterAdapter extends RecyclerView.Adapter<RecyclerConver
     /**
      * Check the item count by comparing with our shadow count. If they don't match, there's a good chance {@link
      * RecyclerView} will crash later on. By doing it aggressively ourselves, we can catch a poorly-behaved {@link
-     * PowerAdapter} early.
+     * PowerAdapter} early. How often this is done depends on the {@link ConsistencyCheck} mode, since computing the item
+     * count may be expensive for deep adapters.
      */
     private void validateItemCount() {
+        ConsistencyCheck consistencyCheck = RecyclerPowerAdapters.getConsistencyCheck();
+        if (!consistencyCheck.shouldCheck(++mNotificationCount)) {
+            return;
+        }
+        if (DataObservable.isDispatchingStale()) {
+            // Notifications flushed from a batch lag behind the adapter until the batch catches up.
+            return;
+        }
         int itemCount = mPowerAdapter.getItemCount();
         if (mShadowItemCount != itemCount) {
             throw new IllegalStateException("Inconsistency detected: expected item count " +
@@ -146,7 +223,7 @@ final class RecyclerConverterAdapter extends RecyclerView.Adapter<RecyclerConver
     static final class Holder extends RecyclerView.ViewHolder {
 
         @NonNull
-        private final com.nextfaze.poweradapters.Holder holder = new com.nextfaze.poweradapters.Holder() {
+        private final com.nextfaze.poweradapters.Holder holder = new AbstractHolder() {
             @Override
             public int getPosition() {
                 return getLayoutPosition();
@@ -10,9 +10,18 @@ public final class RecyclerPowerAdapters {
 
     private static final WeakMap<PowerAdapter, RecyclerConverterAdapter> sRecyclerConverterAdapters = new WeakMap<>();
 
+    @NonNull
+    private static ConsistencyCheck sConsistencyCheck = ConsistencyCheck.SAMPLED;
+
     private RecyclerPowerAdapters() {
     }
 
+    /**
+     * Returns a {@link RecyclerView.Adapter} presenting the specified {@link PowerAdapter}. The same view type is
+     * reported as the same {@code int} by every adapter returned by this method, so {@link RecyclerView}s sharing a
+     * {@link RecyclerView.RecycledViewPool} reuse each other's views of it, such as nested carousels presenting the
+     * same items.
+     */
     @CheckResult
     @NonNull
     public static RecyclerView.Adapter<?> toRecyclerAdapter(@NonNull PowerAdapter powerAdapter) {
@@ -23,4 +32,51 @@ public final class RecyclerPowerAdapters {
         }
         return converterAdapter;
     }
+
+    @NonNull
+    public static ConsistencyCheck getConsistencyCheck() {
+        return sConsistencyCheck;
+    }
+
+    /**
+     * Sets how thoroughly converted adapters check the item count of their {@link PowerAdapter} against the count
+     * implied by its notifications. Checking requires the item count to be computed through every layer of the adapter,
+     * so it's only done periodically by default. Debug builds may wish to use {@link ConsistencyCheck#STRICT} to catch
+     * a misbehaving adapter at the notification responsible, and release builds {@link ConsistencyCheck#OFF}.
+     * Defaults to {@link ConsistencyCheck#SAMPLED}.
+     */
+    public static void setConsistencyCheck(@NonNull ConsistencyCheck consistencyCheck) {
+        sConsistencyCheck = consistencyCheck;
+    }
+
+    public enum ConsistencyCheck {
+        /** The item count is never checked. */
+        OFF {
+            @Override
+            boolean shouldCheck(int notificationCount) {
+                return false;
+            }
+        },
+        /**
+         * The item count is checked on every {@value #SAMPLE_INTERVAL}th notification. An inconsistency persists once
+         * introduced, so it's still detected shortly after.
+         */
+        SAMPLED {
+            @Override
+            boolean shouldCheck(int notificationCount) {
+                return notificationCount % SAMPLE_INTERVAL == 0;
+            }
+        },
+        /** The item count is checked on every notification. */
+        STRICT {
+            @Override
+            boolean shouldCheck(int notificationCount) {
+                return true;
+            }
+        };
+
+        static final int SAMPLE_INTERVAL = 16;
+
+        abstract boolean shouldCheck(int notificationCount);
+    }
 }
@@ -0,0 +1,34 @@
+package com.nextfaze.poweradapters.recyclerview;
+
+import lombok.NonNull;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Process-wide registry of the {@code int} view types reported to {@link android.support.v7.widget.RecyclerView}. Every
+ * converter resolves the same view type to the same {@code int}, so {@code RecyclerView}s sharing a {@link
+ * android.support.v7.widget.RecyclerView.RecycledViewPool} can reuse each other's views. View types are held weakly,
+ * and are retained by the converters that use them. An {@code int} is never reassigned, even after its view type has
+ * been collected, since views of it may remain in a pool.
+ */
+final class SharedViewTypes {
+
+    @NonNull
+    private static final Map<Object, Integer> sViewTypes = new WeakHashMap<>();
+
+    private static int sNextViewTypeInt;
+
+    private SharedViewTypes() {
+    }
+
+    /** Returns the shared {@code int} of the specified view type, assigning the next one if it has none. */
+    static synchronized int toInt(@NonNull Object viewType) {
+        Integer viewTypeInt = sViewTypes.get(viewType);
+        if (viewTypeInt == null) {
+            viewTypeInt = sNextViewTypeInt++;
+            sViewTypes.put(viewType, viewTypeInt);
+        }
+        return viewTypeInt;
+    }
+}
@@ -0,0 +1,394 @@
+package com.nextfaze.poweradapters.recyclerview;
+
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import com.nextfaze.poweradapters.Holder;
+import com.nextfaze.poweradapters.PowerAdapter;
+import com.nextfaze.poweradapters.recyclerview.RecyclerPowerAdapters.ConsistencyCheck;
+import lombok.NonNull;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.nextfaze.poweradapters.recyclerview.RecyclerPowerAdapters.ConsistencyCheck.SAMPLE_INTERVAL;
+import static java.util.Collections.nCopies;
+import static org.mockito.Mockito.verify;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public final class RecyclerConverterAdapterTest {
+
+    @Rule
+    public MockitoRule mMockito = MockitoJUnit.rule();
+
+    @Mock
+    private RecyclerView.AdapterDataObserver mObserver;
+
+    private ConsistencyCheck mConsistencyCheck;
+
+    private CountingAdapter mPowerAdapter;
+
+    private RecyclerConverterAdapter mConverterAdapter;
+
+    @Before
+    public void setUp() throws Exception {
+        mConsistencyCheck = RecyclerPowerAdapters.getConsistencyCheck();
+        mPowerAdapter = new CountingAdapter(10);
+        mConverterAdapter = new RecyclerConverterAdapter(mPowerAdapter);
+        mConverterAdapter.registerAdapterDataObserver(mObserver);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        RecyclerPowerAdapters.setConsistencyCheck(mConsistencyCheck);
+    }
+
+    @Test
+    public void defaultsToSampled() {
+        assertThat(mConsistencyCheck).isEqualTo(ConsistencyCheck.SAMPLED);
+    }
+
+    @Test
+    public void itemCountServedFromShadowCountWhileObserved() {
+        RecyclerPowerAdapters.setConsistencyCheck(ConsistencyCheck.STRICT);
+        mPowerAdapter.insert(10, 5);
+        mPowerAdapter.remove(0, 2);
+        assertThat(mConverterAdapter.getItemCount()).isEqualTo(13);
+        int getItemCountCalls = mPowerAdapter.mGetItemCountCalls;
+        mConverterAdapter.getItemCount();
+        assertThat(mPowerAdapter.mGetItemCountCalls).isEqualTo(getItemCountCalls);
+        verify(mObserver).onItemRangeInserted(10, 5);
+        verify(mObserver).onItemRangeRemoved(0, 2);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void strictDetectsInconsistentNotification() {
+        RecyclerPowerAdapters.setConsistencyCheck(ConsistencyCheck.STRICT);
+        mPowerAdapter.notifyInsertedWithoutInserting(0, 1);
+    }
+
+    @Test
+    public void strictChecksEveryNotification() {
+        RecyclerPowerAdapters.setConsistencyCheck(ConsistencyCheck.STRICT);
+        int getItemCountCalls = mPowerAdapter.mGetItemCountCalls;
+        for (int i = 0; i < SAMPLE_INTERVAL; i++) {
+            mPowerAdapter.insert(0, 1);
+        }
+        assertThat(mPowerAdapter.mGetItemCountCalls - getItemCountCalls).isEqualTo(SAMPLE_INTERVAL);
+    }
+
+    @Test
+    public void offNeverChecks() {
+        RecyclerPowerAdapters.setConsistencyCheck(ConsistencyCheck.OFF);
+        int getItemCountCalls = mPowerAdapter.mGetItemCountCalls;
+        for (int i = 0; i < SAMPLE_INTERVAL * 4; i++) {
+            mPowerAdapter.notifyInsertedWithoutInserting(0, 1);
+        }
+        assertThat(mPowerAdapter.mGetItemCountCalls).isEqualTo(getItemCountCalls);
+        assertThat(mConverterAdapter.getItemCount()).isEqualTo(10 + SAMPLE_INTERVAL * 4);
+    }
+
+    @Test
+    public void sampledChecksOnlyEverySampleInterval() {
+        RecyclerPowerAdapters.setConsistencyCheck(ConsistencyCheck.SAMPLED);
+        int getItemCountCalls = mPowerAdapter.mGetItemCountCalls;
+        for (int i = 0; i < SAMPLE_INTERVAL * 3; i++) {
+            mPowerAdapter.insert(0, 1);
+        }
+        assertThat(mPowerAdapter.mGetItemCountCalls - getItemCountCalls).isEqualTo(3);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void sampledDetectsInconsistencyAtNextSample() {
+        RecyclerPowerAdapters.setConsistencyCheck(ConsistencyCheck.SAMPLED);
+        mPowerAdapter.notifyInsertedWithoutInserting(0, 1);
+        for (int i = 1; i < SAMPLE_INTERVAL; i++) {
+            mPowerAdapter.insert(0, 1);
+        }
+    }
+
+    @Test
+    public void sampledToleratesInconsistencyUntilNextSample() {
+        RecyclerPowerAdapters.setConsistencyCheck(ConsistencyCheck.SAMPLED);
+        mPowerAdapter.notifyInsertedWithoutInserting(0, 1);
+        for (int i = 2; i < SAMPLE_INTERVAL; i++) {
+            mPowerAdapter.insert(0, 1);
+        }
+    }
+
+    @Test
+    public void dataSetChangeResetsSample() {
+        RecyclerPowerAdapters.setConsistencyCheck(ConsistencyCheck.SAMPLED);
+        mPowerAdapter.notifyInsertedWithoutInserting(0, 1);
+        mPowerAdapter.notifyChanged();
+        for (int i = 1; i < SAMPLE_INTERVAL * 2; i++) {
+            mPowerAdapter.insert(0, 1);
+        }
+        assertThat(mConverterAdapter.getItemCount()).isEqualTo(mPowerAdapter.getItemCount());
+    }
+
+    @Test
+    public void forwardMoveTranslatedToItemMoves() {
+        RecordingObserver observer = registerRecordingObserver();
+        mPowerAdapter.move(1, 4, 2);
+        assertThat(observer.mNotifications).containsExactly("moved 1 5", "moved 1 5").inOrder();
+        assertThat(observer.mItems).containsExactlyElementsIn(moved(10, 1, 4, 2)).inOrder();
+    }
+
+    @Test
+    public void backwardMoveTranslatedToItemMoves() {
+        RecordingObserver observer = registerRecordingObserver();
+        mPowerAdapter.move(6, 1, 3);
+        assertThat(observer.mNotifications).containsExactly("moved 6 1", "moved 7 2", "moved 8 3").inOrder();
+        assertThat(observer.mItems).containsExactlyElementsIn(moved(10, 6, 1, 3)).inOrder();
+    }
+
+    @Test
+    public void overlappingForwardMoveTranslatedToMovesOfDisplacedItems() {
+        RecordingObserver observer = registerRecordingObserver();
+        mPowerAdapter.move(0, 1, 5);
+        assertThat(observer.mNotifications).containsExactly("moved 5 0");
+        assertThat(observer.mItems).containsExactlyElementsIn(moved(10, 0, 1, 5)).inOrder();
+    }
+
+    @Test
+    public void overlappingBackwardMoveTranslatedToMovesOfDisplacedItems() {
+        RecordingObserver observer = registerRecordingObserver();
+        mPowerAdapter.move(3, 1, 5);
+        assertThat(observer.mNotifications).containsExactly("moved 1 7", "moved 1 7").inOrder();
+        assertThat(observer.mItems).containsExactlyElementsIn(moved(10, 3, 1, 5)).inOrder();
+    }
+
+    @Test
+    public void moveOfMaxItemMovesTranslatedToItemMoves() {
+        mPowerAdapter.insert(10, 30);
+        RecordingObserver observer = registerRecordingObserver();
+        mPowerAdapter.move(0, 20, 16);
+        assertThat(observer.mNotifications).containsExactlyElementsIn(nCopies(16, "moved 0 35")).inOrder();
+        assertThat(observer.mItems).containsExactlyElementsIn(moved(40, 0, 20, 16)).inOrder();
+    }
+
+    @Test
+    public void largeMoveTranslatedToRemovalAndInsertion() {
+        mPowerAdapter.insert(10, 30);
+        RecordingObserver observer = registerRecordingObserver();
+        mPowerAdapter.move(0, 20, 17);
+        assertThat(observer.mNotifications).containsExactly("removed 0 17", "inserted 20 17").inOrder();
+        assertThat(observer.mItems).containsExactlyElementsIn(moved(40, 0, 20, 17)).inOrder();
+    }
+
+    @Test
+    public void largeOverlappingMoveTranslatedToRemovalAndInsertionOfDisplacedItems() {
+        mPowerAdapter.insert(10, 30);
+        RecordingObserver observer = registerRecordingObserver();
+        mPowerAdapter.move(0, 17, 20);
+        assertThat(observer.mNotifications).containsExactly("removed 20 17", "inserted 0 17").inOrder();
+        assertThat(observer.mItems).containsExactlyElementsIn(moved(40, 0, 17, 20)).inOrder();
+    }
+
+    @Test
+    public void viewTypeSharedAcrossConverters() {
+        Object viewType = new Object();
+        RecyclerConverterAdapter converterAdapter1 = new RecyclerConverterAdapter(new ViewTypeAdapter(new Object(), viewType));
+        RecyclerConverterAdapter converterAdapter2 = new RecyclerConverterAdapter(new ViewTypeAdapter(viewType));
+        assertThat(converterAdapter2.getItemViewType(0)).isEqualTo(converterAdapter1.getItemViewType(1));
+        assertThat(converterAdapter1.getItemViewType(0)).isNotEqualTo(converterAdapter1.getItemViewType(1));
+    }
+
+    @Test
+    public void equalViewTypesSharedAcrossConverters() {
+        String viewType1 = "header";
+        // Equal to the first view type, but a distinct instance.
+        String viewType2 = new String("header");
+        RecyclerConverterAdapter converterAdapter1 = new RecyclerConverterAdapter(new ViewTypeAdapter(viewType1));
+        RecyclerConverterAdapter converterAdapter2 = new RecyclerConverterAdapter(new ViewTypeAdapter(new Object(), viewType2));
+        int viewTypeInt = converterAdapter1.getItemViewType(0);
+        assertThat(converterAdapter2.getItemViewType(1)).isEqualTo(viewTypeInt);
+        assertThat(converterAdapter1.getItemViewType(0)).isEqualTo(viewTypeInt);
+        assertThat(converterAdapter2.getItemViewType(1)).isEqualTo(viewTypeInt);
+    }
+
+    @Test
+    public void createViewHolderResolvesViewTypeSharedByAnotherConverter() {
+        String viewType1 = "item";
+        String viewType2 = new String("item");
+        RecyclerConverterAdapter converterAdapter1 = new RecyclerConverterAdapter(new ViewTypeAdapter(viewType1));
+        ViewTypeAdapter adapter2 = new ViewTypeAdapter(new Object(), viewType2);
+        RecyclerConverterAdapter converterAdapter2 = new RecyclerConverterAdapter(adapter2);
+        int viewTypeInt = converterAdapter1.getItemViewType(0);
+        assertThat(converterAdapter2.getItemViewType(1)).isEqualTo(viewTypeInt);
+        converterAdapter2.onCreateViewHolder(new FrameLayout(RuntimeEnvironment.application), viewTypeInt);
+        assertThat(adapter2.mNewViewTypes).containsExactly(viewType2);
+        assertThat(adapter2.mNewViewTypes.get(0)).isSameAs(viewType2);
+    }
+
+    @NonNull
+    private RecordingObserver registerRecordingObserver() {
+        RecordingObserver observer = new RecordingObserver(mConverterAdapter.getItemCount());
+        mConverterAdapter.registerAdapterDataObserver(observer);
+        return observer;
+    }
+
+    /** Returns the order of the specified number of items after moving a range of them. */
+    @NonNull
+    private static List<Integer> moved(int itemCount, int fromPosition, int toPosition, int moveCount) {
+        List<Integer> items = identity(itemCount);
+        List<Integer> range = new ArrayList<>(items.subList(fromPosition, fromPosition + moveCount));
+        items.subList(fromPosition, fromPosition + moveCount).clear();
+        items.addAll(toPosition, range);
+        return items;
+    }
+
+    @NonNull
+    private static List<Integer> identity(int itemCount) {
+        List<Integer> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(i);
+        }
+        return items;
+    }
+
+    /**
+     * Records notifications, and applies them to a list of items identified by their original positions. An insertion
+     * reinserts the items of the preceding removal, since that's how a range move is translated.
+     */
+    private static final class RecordingObserver extends RecyclerView.AdapterDataObserver {
+
+        @NonNull
+        final List<String> mNotifications = new ArrayList<>();
+
+        @NonNull
+        final List<Integer> mItems;
+
+        @NonNull
+        private List<Integer> mRemovedItems = new ArrayList<>();
+
+        RecordingObserver(int itemCount) {
+            mItems = identity(itemCount);
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            mNotifications.add("inserted " + positionStart + " " + itemCount);
+            assertThat(mRemovedItems).hasSize(itemCount);
+            mItems.addAll(positionStart, mRemovedItems);
+            mRemovedItems = new ArrayList<>();
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            mNotifications.add("removed " + positionStart + " " + itemCount);
+            List<Integer> range = mItems.subList(positionStart, positionStart + itemCount);
+            mRemovedItems = new ArrayList<>(range);
+            range.clear();
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            mNotifications.add("moved " + fromPosition + " " + toPosition);
+            assertThat(itemCount).isEqualTo(1);
+            mItems.add(toPosition, mItems.remove(fromPosition));
+        }
+    }
+
+    /** Counts calls to {@link #getItemCount()}, and can issue notifications that don't match its contents. */
+    private static final class CountingAdapter extends PowerAdapter {
+
+        int mGetItemCountCalls;
+
+        private int mItemCount;
+
+        CountingAdapter(int itemCount) {
+            mItemCount = itemCount;
+        }
+
+        @Override
+        public int getItemCount() {
+            mGetItemCountCalls++;
+            return mItemCount;
+        }
+
+        @NonNull
+        @Override
+        public View newView(@NonNull ViewGroup parent, @NonNull Object viewType) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void bindView(@NonNull View view, @NonNull Holder holder) {
+            throw new UnsupportedOperationException();
+        }
+
+        void insert(int positionStart, int itemCount) {
+            mItemCount += itemCount;
+            notifyItemRangeInserted(positionStart, itemCount);
+        }
+
+        void remove(int positionStart, int itemCount) {
+            mItemCount -= itemCount;
+            notifyItemRangeRemoved(positionStart, itemCount);
+        }
+
+        void move(int fromPosition, int toPosition, int itemCount) {
+            notifyItemRangeMoved(fromPosition, toPosition, itemCount);
+        }
+
+        void notifyInsertedWithoutInserting(int positionStart, int itemCount) {
+            notifyItemRangeInserted(positionStart, itemCount);
+        }
+
+        void notifyChanged() {
+            notifyDataSetChanged();
+        }
+    }
+
+    /** Has one item of each of the specified view types, and records the view types it's asked to create views of. */
+    private static final class ViewTypeAdapter extends PowerAdapter {
+
+        @NonNull
+        private final Object[] mViewTypes;
+
+        @NonNull
+        final List<Object> mNewViewTypes = new ArrayList<>();
+
+        ViewTypeAdapter(@NonNull Object... viewTypes) {
+            mViewTypes = viewTypes;
+        }
+
+        @Override
+        public int getItemCount() {
+            return mViewTypes.length;
+        }
+
+        @NonNull
+        @Override
+        public Object getItemViewType(int position) {
+            return mViewTypes[position];
+        }
+
+        @NonNull
+        @Override
+        public View newView(@NonNull ViewGroup parent, @NonNull Object viewType) {
+            mNewViewTypes.add(viewType);
+            return new View(parent.getContext());
+        }
+
+        @Override
+        public void bindView(@NonNull View view, @NonNull Holder holder) {
+        }
+    }
+}
@@ -7,9 +7,9 @@ import android.support.v4.view.FixedPagerAdapter;
 import android.view.View;
 import android.view.ViewGroup;
 import com.nextfaze.poweradapters.DataObserver;
-import com.nextfaze.poweradapters.Holder;
 import com.nextfaze.poweradapters.PowerAdapter;
 import com.nextfaze.poweradapters.SimpleDataObserver;
+import com.nextfaze.poweradapters.internal.AbstractHolder;
 import lombok.NonNull;
 
 import java.util.ArrayDeque;
@@ -111,7 +111,7 @@ public class ConverterPagerAdapter extends FixedPagerAdapter {
         return view == o;
     }
 
-    private static final class HolderImpl implements Holder {
+    private static final class HolderImpl extends AbstractHolder {
 
         int position;
 
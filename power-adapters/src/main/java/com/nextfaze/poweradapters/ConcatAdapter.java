@@ -1,13 +1,13 @@
 package com.nextfaze.poweradapters;
 
 import android.support.annotation.CallSuper;
+import android.util.SparseArray;
 import android.view.View;
 import android.view.ViewGroup;
+import com.nextfaze.poweradapters.internal.ViewTypeRegistry;
 import lombok.NonNull;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 final class ConcatAdapter extends PowerAdapter {
 
@@ -15,28 +15,14 @@ final class ConcatAdapter extends PowerAdapter {
     private final Entry[] mEntries;
 
     @NonNull
-    private final Map<Object, PowerAdapter> mAdaptersByViewType = new HashMap<>();
+    private final ViewTypeRegistry mViewTypes = new ViewTypeRegistry();
 
+    /** Sub-adapters indexed by the {@code int} of their view types, as assigned by {@link #mViewTypes}. */
     @NonNull
-    private final RangeTable.RangeClient mRealRangeClient = new RangeTable.RangeClient() {
-        @Override
-        public int size() {
-            return mEntries.length;
-        }
-
-        @Override
-        public int getRangeCount(int position) {
-            return mEntries[position].mAdapter.getItemCount();
-        }
-
-        @Override
-        public void setOffset(int position, int offset) {
-            mEntries[position].setOffset(offset);
-        }
-    };
+    private final SparseArray<PowerAdapter> mAdaptersByViewType = new SparseArray<>();
 
     @NonNull
-    private final RangeTable.RangeClient mShadowRangeClient = new RangeTable.RangeClient() {
+    private final RangeTable.RangeClient mRealRangeClient = new RangeTable.RangeClient() {
         @Override
         public int size() {
             return mEntries.length;
@@ -44,12 +30,7 @@ final class ConcatAdapter extends PowerAdapter {
 
         @Override
         public int getRangeCount(int position) {
-            return mEntries[position].mShadowItemCount;
-        }
-
-        @Override
-        public void setOffset(int position, int offset) {
-            mEntries[position].setOffset(offset);
+            return mEntries[position].mAdapter.getItemCount();
         }
     };
 
@@ -63,7 +44,7 @@ final class ConcatAdapter extends PowerAdapter {
     ConcatAdapter(@NonNull List<? extends PowerAdapter> adapters) {
         mEntries = new Entry[adapters.size()];
         for (int i = 0; i < mEntries.length; i++) {
-            mEntries[i] = new Entry(adapters.get(i));
+            mEntries[i] = new Entry(adapters.get(i), i);
         }
         // If only a single entry, it's safe to forward it's value directly.
         // Otherwise, must return false because IDs returned by multiple
@@ -96,14 +77,14 @@ final class ConcatAdapter extends PowerAdapter {
     public Object getItemViewType(int position) {
         PowerAdapter subAdapter = outerToAdapter(position);
         Object viewType = subAdapter.getItemViewType(position);
-        mAdaptersByViewType.put(viewType, subAdapter);
+        mAdaptersByViewType.put(mViewTypes.toInt(viewType), subAdapter);
         return viewType;
     }
 
     @NonNull
     @Override
     public View newView(@NonNull ViewGroup parent, @NonNull Object viewType) {
-        return mAdaptersByViewType.get(viewType).newView(parent, viewType);
+        return mAdaptersByViewType.get(mViewTypes.toInt(viewType)).newView(parent, viewType);
     }
 
     @Override
@@ -156,7 +137,7 @@ final class ConcatAdapter extends PowerAdapter {
             @Override
             public void onChanged() {
                 mShadowItemCount = mAdapter.getItemCount();
-                mItemCount = mRangeTable.rebuild(mShadowRangeClient);
+                mItemCount = mRangeTable.setRangeCount(mIndex, mShadowItemCount);
                 notifyDataSetChanged();
             }
 
@@ -168,14 +149,14 @@ final class ConcatAdapter extends PowerAdapter {
             @Override
             public void onItemRangeInserted(int positionStart, int itemCount) {
                 mShadowItemCount += itemCount;
-                mItemCount = mRangeTable.rebuild(mShadowRangeClient);
+                mItemCount = mRangeTable.adjustRangeCount(mIndex, itemCount);
                 notifyItemRangeInserted(positionStart, itemCount);
             }
 
             @Override
             public void onItemRangeRemoved(int positionStart, int itemCount) {
                 mShadowItemCount -= itemCount;
-                mItemCount = mRangeTable.rebuild(mShadowRangeClient);
+                mItemCount = mRangeTable.adjustRangeCount(mIndex, -itemCount);
                 notifyItemRangeRemoved(positionStart, itemCount);
             }
 
@@ -188,20 +169,26 @@ final class ConcatAdapter extends PowerAdapter {
         @NonNull
         private final SubAdapter mAdapter;
 
+        /** The position of this entry in the range table. */
+        private final int mIndex;
+
         private boolean mObserving;
 
         private int mShadowItemCount;
 
-        Entry(@NonNull PowerAdapter adapter) {
-            mAdapter = new SubAdapter(adapter);
-        }
-
-        void setOffset(int offset) {
-            mAdapter.setOffset(offset);
+        Entry(@NonNull PowerAdapter adapter, int index) {
+            mIndex = index;
+            mAdapter = new SubAdapter(adapter) {
+                @Override
+                int getOffset() {
+                    // Resolved lazily, so a change in the size of one entry doesn't require updating every other.
+                    return Entry.this.getOffset();
+                }
+            };
         }
 
         int getOffset() {
-            return mAdapter.getOffset();
+            return mRangeTable.getOffset(mIndex);
         }
 
         int getItemCount() {
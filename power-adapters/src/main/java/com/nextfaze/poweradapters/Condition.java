@@ -1,10 +1,9 @@
 package com.nextfaze.poweradapters;
 
 import android.support.annotation.UiThread;
+import com.nextfaze.poweradapters.internal.ObserverList;
 import lombok.NonNull;
 
-import java.util.ArrayList;
-
 public abstract class Condition {
 
     private static final Condition ALWAYS = isTrue(true);
@@ -13,7 +12,7 @@ public abstract class Condition {
     public abstract boolean eval();
 
     @NonNull
-    private final ArrayList<Observer> mObservers = new ArrayList<>();
+    private final ObserverList<Observer> mObservers = new ObserverList<>();
 
     /** Returns the number of registered observers. */
     protected final int getObserverCount() {
@@ -32,27 +31,23 @@ public abstract class Condition {
 
     /** Notify observers that the condition has changed. */
     protected final void notifyChanged() {
-        for (int i = mObservers.size() - 1; i >= 0; i--) {
-            mObservers.get(i).onChanged();
+        Object[] observers = mObservers.snapshot();
+        for (int i = observers.length - 1; i >= 0; i--) {
+            if (mObservers.isRegistered(observers, observers[i])) {
+                ((Observer) observers[i]).onChanged();
+            }
         }
     }
 
     public void registerObserver(@NonNull Observer observer) {
-        if (mObservers.contains(observer)) {
-            throw new IllegalStateException("Observer is already registered.");
-        }
-        mObservers.add(observer);
+        mObservers.register(observer);
         if (mObservers.size() == 1) {
             onFirstObserverRegistered();
         }
     }
 
     public void unregisterObserver(@NonNull Observer observer) {
-        int index = mObservers.indexOf(observer);
-        if (index == -1) {
-            throw new IllegalStateException("Observer was not registered.");
-        }
-        mObservers.remove(index);
+        mObservers.unregister(observer);
         if (mObservers.size() == 0) {
             onLastObserverUnregistered();
         }
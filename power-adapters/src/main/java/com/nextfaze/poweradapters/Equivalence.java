@@ -0,0 +1,22 @@
+package com.nextfaze.poweradapters;
+
+/**
+ * Determines whether two elements represent the same item, and if so, whether their contents are the same. Used when
+ * replacing the contents of a list to compute the minimal set of insertions, removals, moves, and changes between the
+ * old and new contents.
+ * @param <T> The type of element being compared.
+ */
+public interface Equivalence<T> {
+    /**
+     * Returns {@code true} if the two elements represent the same item, such as two elements with the same unique
+     * identifier. Elements that aren't the same item are reported as a removal and an insertion.
+     */
+    boolean isSameItem(T a, T b);
+
+    /**
+     * Returns {@code true} if the two elements, which represent the same item, also have the same contents. Only
+     * called if {@link #isSameItem(Object, Object)} returned {@code true}. Elements without the same contents are
+     * reported as a change.
+     */
+    boolean isSameContent(T a, T b);
+}
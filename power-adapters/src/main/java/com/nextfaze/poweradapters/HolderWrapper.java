@@ -1,8 +1,9 @@
 package com.nextfaze.poweradapters;
 
+import com.nextfaze.poweradapters.internal.AbstractHolder;
 import lombok.NonNull;
 
-public class HolderWrapper implements Holder {
+public class HolderWrapper extends AbstractHolder {
 
     @NonNull
     private final Holder mHolder;
@@ -143,9 +143,24 @@ public final class LimitAdapter extends PowerAdapterWrapper {
 
     @Override
     protected void forwardItemRangeMoved(int innerFromPosition, int innerToPosition, int innerItemCount) {
-        // TODO: Fine-grained notifications.
-        // TODO: Drop notification entirely if out of range.
-        notifyDataSetChanged();
+        if (innerItemCount <= 0 || min(innerFromPosition, innerToPosition) >= mLimit) {
+            // Entirely beyond the limit.
+            return;
+        }
+        if (max(innerFromPosition, innerToPosition) + innerItemCount <= mLimit) {
+            // Entirely within the limit.
+            notifyItemRangeMoved(innerFromPosition, innerToPosition, innerItemCount);
+        } else if (innerFromPosition < innerToPosition) {
+            // Visible moved items leave through the limit, and are replaced by those shifting into range.
+            int count = min(innerItemCount, mLimit - innerFromPosition);
+            notifyItemRangeRemoved(innerFromPosition, count);
+            notifyItemRangeInserted(mLimit - count, count);
+        } else {
+            // Moved items enter through the limit, and push the items preceding them out of range.
+            int count = min(innerItemCount, mLimit - innerToPosition);
+            notifyItemRangeRemoved(mLimit - count, count);
+            notifyItemRangeInserted(innerToPosition, count);
+        }
     }
 
     private int assertWithinRange(int position) {
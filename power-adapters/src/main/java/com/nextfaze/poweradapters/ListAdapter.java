@@ -55,6 +55,23 @@ public abstract class ListAdapter<E> extends PowerAdapter implements List<E> {
         mData.clear();
     }
 
+    /**
+     * Replaces the contents of this adapter. Because every existing element is assumed to have changed, this issues a
+     * change notification for the entire range.
+     * @see #replaceAll(Collection, Equivalence)
+     */
+    public void replaceAll(@NonNull Collection<? extends E> collection) {
+        mData.replaceAll(collection);
+    }
+
+    /**
+     * Replaces the contents of this adapter, issuing the minimal set of insertion, removal, move, and change
+     * notifications determined by comparing the old and new elements using {@code equivalence}.
+     */
+    public void replaceAll(@NonNull Collection<? extends E> collection, @NonNull Equivalence<? super E> equivalence) {
+        mData.replaceAll(collection, equivalence);
+    }
+
     @Override
     public boolean contains(Object object) {
         return mData.contains(object);
@@ -5,11 +5,11 @@ import android.os.Handler;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.BaseAdapter;
+import com.nextfaze.poweradapters.internal.AbstractHolder;
+import com.nextfaze.poweradapters.internal.ViewTypeRegistry;
 import lombok.NonNull;
 
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
 
@@ -24,7 +24,7 @@ final class ListAdapterConverterAdapter extends BaseAdapter {
     private final WeakHashMap<View, HolderImpl> mHolders = new WeakHashMap<>();
 
     @NonNull
-    private final Map<Object, Integer> mViewTypeObjectToInt = new HashMap<>();
+    private final ViewTypeRegistry mViewTypes = new ViewTypeRegistry();
 
     @NonNull
     private final Set<DataSetObserver> mDataSetObservers = new HashSet<>();
@@ -55,8 +55,6 @@ final class ListAdapterConverterAdapter extends BaseAdapter {
 
     private final int mViewTypeCount;
 
-    private int mNextViewTypeInt;
-
     ListAdapterConverterAdapter(@NonNull PowerAdapter powerAdapter, int viewTypeCount) {
         if (viewTypeCount < 1) {
             throw new IllegalArgumentException("viewTypeCount must be at least 1");
@@ -108,13 +106,7 @@ final class ListAdapterConverterAdapter extends BaseAdapter {
 
     @Override
     public int getItemViewType(int position) {
-        Object viewType = mPowerAdapter.getItemViewType(position);
-        Integer viewTypeInt = mViewTypeObjectToInt.get(viewType);
-        if (viewTypeInt == null) {
-            viewTypeInt = mNextViewTypeInt++;
-            mViewTypeObjectToInt.put(viewType, viewTypeInt);
-        }
-        return viewTypeInt;
+        return mViewTypes.toInt(mPowerAdapter.getItemViewType(position));
     }
 
     @Override
@@ -148,7 +140,7 @@ final class ListAdapterConverterAdapter extends BaseAdapter {
         }
     }
 
-    private static final class HolderImpl implements Holder {
+    private static final class HolderImpl extends AbstractHolder {
 
         int position;
 
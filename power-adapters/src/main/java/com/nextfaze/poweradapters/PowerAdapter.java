@@ -186,6 +186,14 @@ public abstract class PowerAdapter {
         return mDataObservable.getObserverCount();
     }
 
+    /**
+     * Returns the number of change notifications this adapter has issued so far. While an observer is registered, an
+     * unchanged count indicates the contents of this adapter have not changed.
+     */
+    protected final int getNotificationCount() {
+        return mDataObservable.getNotificationCount();
+    }
+
     /**
      * Called when the first observer has registered with this adapter.
      * @see #registerDataObserver(DataObserver)
@@ -202,6 +210,31 @@ public abstract class PowerAdapter {
     protected void onLastObserverUnregistered() {
     }
 
+    /**
+     * Begins a batch of notifications. Until the matching call to {@link #endBatch()}, notifications are deferred,
+     * and adjacent or overlapping notifications of the same kind are merged, so a sequence of single item changes is
+     * propagated to observers as a single range notification. Batches may be nested.
+     * <p>
+     * A notification that can't be merged with the previous one, such as an insertion followed by a removal elsewhere,
+     * causes the notifications deferred so far to be dispatched first, so observers receive every notification in
+     * order, and in full detail. Item changes are the exception, since any number of them remain valid against the
+     * final state. The remaining notifications are dispatched when the outermost batch ends.
+     * @see #endBatch()
+     */
+    public final void beginBatch() {
+        mDataObservable.beginBatch();
+    }
+
+    /**
+     * Ends a batch of notifications begun with {@link #beginBatch()}. If this ends the outermost batch, all deferred
+     * notifications are dispatched.
+     * @throws IllegalStateException If no batch is in progress.
+     * @see #beginBatch()
+     */
+    public final void endBatch() {
+        mDataObservable.endBatch();
+    }
+
     /**
      * Notify any registered observers that the data set has changed.
      * <p>
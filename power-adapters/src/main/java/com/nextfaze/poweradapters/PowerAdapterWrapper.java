@@ -3,15 +3,11 @@ package com.nextfaze.poweradapters;
 import android.support.annotation.CallSuper;
 import android.view.View;
 import android.view.ViewGroup;
+import com.nextfaze.poweradapters.internal.AbstractHolder;
 import lombok.NonNull;
 
-import java.util.WeakHashMap;
-
 public class PowerAdapterWrapper extends PowerAdapter {
 
-    @NonNull
-    private final WeakHashMap<Holder, HolderWrapper> mHolders = new WeakHashMap<>();
-
     @NonNull
     private final PowerAdapter mAdapter;
 
@@ -101,17 +97,34 @@ public class PowerAdapterWrapper extends PowerAdapter {
 
     @Override
     public void bindView(@NonNull View view, @NonNull Holder holder) {
-        HolderWrapper holderWrapper = mHolders.get(holder);
-        if (holderWrapper == null) {
-            holderWrapper = new HolderWrapper(holder) {
-                @Override
-                public int getPosition() {
-                    return outerToInner(super.getPosition());
-                }
-            };
-            mHolders.put(holder, holderWrapper);
+        mAdapter.bindView(view, wrapHolder(holder));
+    }
+
+    /**
+     * Returns a {@link Holder} that reports the position of {@code holder} in the coordinate space of the wrapped
+     * adapter. The position is translated each time it's queried, since offsets may change after binding. If possible,
+     * the wrapper is cached in {@code holder} and reused for subsequent binds, even by a different adapter.
+     */
+    @NonNull
+    final Holder wrapHolder(@NonNull Holder holder) {
+        if (holder instanceof AbstractHolder) {
+            AbstractHolder abstractHolder = (AbstractHolder) holder;
+            Holder cached = abstractHolder.getWrapper();
+            if (cached instanceof InnerHolder) {
+                InnerHolder wrapper = (InnerHolder) cached;
+                wrapper.mOwner = this;
+                return wrapper;
+            }
+            InnerHolder wrapper = new InnerHolder(this, holder);
+            abstractHolder.setWrapper(wrapper);
+            return wrapper;
         }
-        mAdapter.bindView(view, holderWrapper);
+        return new InnerHolder(this, holder);
+    }
+
+    /** Converts the position of a bound {@link Holder} to the coordinate space of the wrapped adapter. */
+    int holderToInner(int outerPosition) {
+        return outerToInner(outerPosition);
     }
 
     /**
@@ -171,4 +184,21 @@ public class PowerAdapterWrapper extends PowerAdapter {
     protected void forwardItemRangeMoved(int innerFromPosition, int innerToPosition, int innerItemCount) {
         notifyItemRangeMoved(innerToOuter(innerFromPosition), innerToOuter(innerToPosition), innerItemCount);
     }
+
+    private static final class InnerHolder extends HolderWrapper {
+
+        /** The adapter that most recently bound the wrapped holder, which translates its position. */
+        @NonNull
+        PowerAdapterWrapper mOwner;
+
+        InnerHolder(@NonNull PowerAdapterWrapper owner, @NonNull Holder holder) {
+            super(holder);
+            mOwner = owner;
+        }
+
+        @Override
+        public int getPosition() {
+            return mOwner.holderToInner(super.getPosition());
+        }
+    }
 }
@@ -1,44 +1,130 @@
 package com.nextfaze.poweradapters;
 
-import android.util.SparseIntArray;
 import lombok.NonNull;
 
+import static java.lang.Integer.highestOneBit;
+
+/**
+ * Tracks a contiguous sequence of ranges, mapping outer positions to the range that contains them. Backed by a Fenwick
+ * tree, so the count of a single range can be updated, and offsets and positions queried, in {@code O(log n)} time.
+ * Only structural changes to the sequence of ranges itself require an {@code O(n)} {@link #rebuild(RangeClient)}.
+ */
 final class RangeTable {
 
+    private static final int[] EMPTY = new int[0];
+
+    /** The count of each range. */
+    @NonNull
+    private int[] mCounts = EMPTY;
+
+    /** 1-based Fenwick tree of range counts. */
     @NonNull
-    private final SparseIntArray mArray = new SparseIntArray();
+    private int[] mTree = new int[1];
+
+    private int mSize;
+
+    private int mTotal;
 
     RangeTable() {
     }
 
+    /** Rebuilds the table from scratch in {@code O(n)} time, returning the total of all range counts. */
     int rebuild(@NonNull RangeClient rangeClient) {
-        int offset = 0;
-        mArray.clear();
         int size = rangeClient.size();
+        if (mCounts.length < size) {
+            mCounts = new int[size];
+            mTree = new int[size + 1];
+        }
+        mSize = size;
+        mTotal = 0;
         for (int i = 0; i < size; i++) {
-            rangeClient.setOffset(i, offset);
-            int itemCount = rangeClient.getRangeCount(i);
-            if (itemCount > 0) {
-                mArray.put(offset, i);
+            int count = rangeClient.getRangeCount(i);
+            mCounts[i] = count;
+            mTree[i + 1] = count;
+            mTotal += count;
+        }
+        // Propagate each node into its parent to construct the tree in linear time.
+        for (int i = 1; i <= size; i++) {
+            int parent = i + (i & -i);
+            if (parent <= size) {
+                mTree[parent] += mTree[i];
+            }
+        }
+        return mTotal;
+    }
+
+    /** Returns the number of ranges in the table. */
+    int size() {
+        return mSize;
+    }
+
+    /** Returns the total of all range counts. */
+    int getTotal() {
+        return mTotal;
+    }
+
+    int getRangeCount(int position) {
+        checkPosition(position);
+        return mCounts[position];
+    }
+
+    /** Sets the count of a single range, returning the new total of all range counts. */
+    int setRangeCount(int position, int count) {
+        return adjustRangeCount(position, count - getRangeCount(position));
+    }
+
+    /** Adds {@code delta} to the count of a single range, returning the new total of all range counts. */
+    int adjustRangeCount(int position, int delta) {
+        checkPosition(position);
+        if (delta != 0) {
+            mCounts[position] += delta;
+            mTotal += delta;
+            for (int i = position + 1; i <= mSize; i += i & -i) {
+                mTree[i] += delta;
             }
-            offset += itemCount;
+        }
+        return mTotal;
+    }
+
+    /** Returns the outer position at which the specified range starts, which is the sum of all preceding counts. */
+    int getOffset(int position) {
+        if (position < 0 || position > mSize) {
+            throw new IndexOutOfBoundsException("Position: " + position + ", size: " + mSize);
+        }
+        int offset = 0;
+        for (int i = position; i > 0; i -= i & -i) {
+            offset += mTree[i];
         }
         return offset;
     }
 
+    /** Returns the position of the non-empty range containing the specified outer position. */
     int findPosition(int outerPosition) {
-        int rangePosition = mArray.indexOfKey(outerPosition);
-        if (rangePosition >= 0) {
-            return mArray.valueAt(rangePosition);
+        if (outerPosition < 0 || outerPosition >= mTotal) {
+            throw new IndexOutOfBoundsException("Outer position: " + outerPosition + ", total: " + mTotal);
+        }
+        // Descend the tree, locating the last range whose offset is <= outerPosition.
+        int position = 0;
+        int remaining = outerPosition;
+        for (int step = highestOneBit(mSize); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next <= mSize && mTree[next] <= remaining) {
+                position = next;
+                remaining -= mTree[next];
+            }
+        }
+        return position;
+    }
+
+    private void checkPosition(int position) {
+        if (position < 0 || position >= mSize) {
+            throw new IndexOutOfBoundsException("Position: " + position + ", size: " + mSize);
         }
-        return mArray.valueAt(-rangePosition - 2);
     }
 
     interface RangeClient {
         int size();
 
         int getRangeCount(int position);
-
-        void setOffset(int position, int offset);
     }
 }
@@ -1,15 +1,9 @@
 package com.nextfaze.poweradapters;
 
-import android.view.View;
 import lombok.NonNull;
 
-import java.util.WeakHashMap;
-
 class SubAdapter extends PowerAdapterWrapper {
 
-    @NonNull
-    private final WeakHashMap<Holder, HolderWrapperImpl> mHolders = new WeakHashMap<>();
-
     private int mOffset;
 
     @NonNull
@@ -40,34 +34,17 @@ class SubAdapter extends PowerAdapterWrapper {
 
     @Override
     protected int outerToInner(int outerPosition) {
-        return outerPosition - mOffset;
+        return outerPosition - getOffset();
     }
 
     @Override
     protected int innerToOuter(int innerPosition) {
-        return mOffset + innerPosition;
+        return getOffset() + innerPosition;
     }
 
     @Override
-    public void bindView(@NonNull View view, @NonNull Holder holder) {
-        HolderWrapperImpl holderWrapper = mHolders.get(holder);
-        if (holderWrapper == null) {
-            holderWrapper = new HolderWrapperImpl(holder);
-            mHolders.put(holder, holderWrapper);
-        }
-        getAdapter().bindView(view, holderWrapper);
-    }
-
-    private final class HolderWrapperImpl extends HolderWrapper {
-
-        HolderWrapperImpl(@NonNull Holder holder) {
-            super(holder);
-        }
-
-        @Override
-        public int getPosition() {
-            return mHolderTransform.apply(super.getPosition());
-        }
+    int holderToInner(int outerPosition) {
+        return mHolderTransform.apply(outerPosition);
     }
 
     interface HolderTransform {
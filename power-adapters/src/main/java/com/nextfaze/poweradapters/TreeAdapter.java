@@ -4,13 +4,14 @@ import android.os.Parcel;
 import android.os.Parcelable;
 import android.support.annotation.CallSuper;
 import android.support.annotation.Nullable;
+import android.util.SparseArray;
 import android.view.View;
 import android.view.ViewGroup;
+import com.nextfaze.poweradapters.internal.ViewTypeRegistry;
 import lombok.NonNull;
 
 import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.WeakHashMap;
 
 import static java.util.Collections.swap;
 
@@ -85,7 +86,11 @@ public final class TreeAdapter extends PowerAdapter {
     private final ArrayList<Entry> mEntries = new ArrayList<>();
 
     @NonNull
-    private final WeakHashMap<Object, PowerAdapter> mAdaptersByViewType = new WeakHashMap<>();
+    private final ViewTypeRegistry mViewTypes = new ViewTypeRegistry();
+
+    /** Adapters indexed by the {@code int} of their view types, as assigned by {@link #mViewTypes}. */
+    @NonNull
+    private final SparseArray<PowerAdapter> mAdaptersByViewType = new SparseArray<>();
 
     @NonNull
     private final RangeTable.RangeClient mShadowRangeClient = new RangeTable.RangeClient() {
@@ -98,11 +103,6 @@ public final class TreeAdapter extends PowerAdapter {
         public int getRangeCount(int position) {
             return mEntries.get(position).getItemCount();
         }
-
-        @Override
-        public void setOffset(int position, int offset) {
-            mEntries.get(position).setOffset(offset);
-        }
     };
 
     @NonNull
@@ -192,11 +192,7 @@ public final class TreeAdapter extends PowerAdapter {
         if (getObserverCount() <= 0) {
             return 0;
         }
-        if (mEntries.size() == 0) {
-            return 0;
-        }
-        Entry entry = mEntries.get(mEntries.size() - 1);
-        return entry.getOffset() + entry.getItemCount();
+        return mRangeTable.getTotal();
     }
 
     /** We don't know all our adapters ahead of time, so can't assume they're stable. */
@@ -220,7 +216,7 @@ public final class TreeAdapter extends PowerAdapter {
     public Object getItemViewType(int position) {
         PowerAdapter adapter = outerToAdapter(position);
         Object viewType = adapter.getItemViewType(position);
-        mAdaptersByViewType.put(viewType, adapter);
+        mAdaptersByViewType.put(mViewTypes.toInt(viewType), adapter);
         return viewType;
     }
 
@@ -290,6 +286,9 @@ public final class TreeAdapter extends PowerAdapter {
     }
 
     private void rebuildAllEntriesAndRangeTable() {
+        for (Entry entry : mEntries) {
+            entry.dispose();
+        }
         mEntries.clear();
         for (int i = 0; i < mRootAdapter.getItemCount(); i++) {
             mEntries.add(new Entry());
@@ -298,6 +297,9 @@ public final class TreeAdapter extends PowerAdapter {
     }
 
     private void rebuildRangeTable() {
+        for (int i = 0; i < mEntries.size(); i++) {
+            mEntries.get(i).mIndex = i;
+        }
         mRangeTable.rebuild(mShadowRangeClient);
     }
 
@@ -338,7 +340,7 @@ public final class TreeAdapter extends PowerAdapter {
 
     @NonNull
     private PowerAdapter adapterForViewType(@NonNull Object viewType) {
-        PowerAdapter adapter = mAdaptersByViewType.get(viewType);
+        PowerAdapter adapter = mAdaptersByViewType.get(mViewTypes.toInt(viewType));
         return adapter != null ? adapter : mRootAdapter;
     }
 
@@ -359,7 +361,7 @@ public final class TreeAdapter extends PowerAdapter {
             @Override
             public void onChanged() {
                 mShadowItemCount = mAdapter.getItemCount();
-                rebuildRangeTable();
+                mRangeTable.setRangeCount(mIndex, getItemCount());
                 notifyDataSetChanged();
             }
 
@@ -371,14 +373,14 @@ public final class TreeAdapter extends PowerAdapter {
             @Override
             public void onItemRangeInserted(int positionStart, int itemCount) {
                 mShadowItemCount += itemCount;
-                rebuildRangeTable();
+                mRangeTable.adjustRangeCount(mIndex, itemCount);
                 notifyItemRangeInserted(positionStart, itemCount);
             }
 
             @Override
             public void onItemRangeRemoved(int positionStart, int itemCount) {
                 mShadowItemCount -= itemCount;
-                rebuildRangeTable();
+                mRangeTable.adjustRangeCount(mIndex, -itemCount);
                 notifyItemRangeRemoved(positionStart, itemCount);
             }
 
@@ -398,11 +400,18 @@ public final class TreeAdapter extends PowerAdapter {
 
         private int mShadowItemCount;
 
-        private int mOffset;
+        /** The position of this entry in {@link #mEntries} and the range table. Assigned when the table is rebuilt. */
+        private int mIndex;
 
         Entry() {
             mDelegateAdapter = new DelegateAdapter();
-            mAdapter = new SubAdapter(mDelegateAdapter);
+            mAdapter = new SubAdapter(mDelegateAdapter) {
+                @Override
+                int getOffset() {
+                    // Children follow the root item. Resolved lazily from the range table.
+                    return Entry.this.getOffset() + 1;
+                }
+            };
             updateObserver();
         }
 
@@ -416,12 +425,7 @@ public final class TreeAdapter extends PowerAdapter {
         }
 
         int getOffset() {
-            return mOffset;
-        }
-
-        void setOffset(int offset) {
-            mOffset = offset;
-            mAdapter.setOffset(offset + 1);
+            return mRangeTable.getOffset(mIndex);
         }
 
         int getItemCount() {
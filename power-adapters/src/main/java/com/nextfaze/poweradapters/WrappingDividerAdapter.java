@@ -1,8 +1,10 @@
 package com.nextfaze.poweradapters;
 
 import android.support.annotation.Nullable;
+import android.util.SparseArray;
 import android.view.View;
 import android.view.ViewGroup;
+import com.nextfaze.poweradapters.internal.ViewTypeRegistry;
 import lombok.NonNull;
 
 import java.util.WeakHashMap;
@@ -15,7 +17,11 @@ import static com.nextfaze.poweradapters.internal.AdapterUtils.layoutInflater;
 final class WrappingDividerAdapter extends PowerAdapterWrapper {
 
     @NonNull
-    private final WeakHashMap<Object, ViewTypeWrapper> mViewTypes = new WeakHashMap<>();
+    private final ViewTypeRegistry mViewTypes = new ViewTypeRegistry();
+
+    /** Wrappers indexed by the {@code int} of the inner view types, as assigned by {@link #mViewTypes}. */
+    @NonNull
+    private final SparseArray<ViewTypeWrapper> mViewTypeWrappers = new SparseArray<>();
 
     @NonNull
     private final WeakHashMap<ViewGroup, DividerViewHolder> mViewMetadata = new WeakHashMap<>();
@@ -34,6 +40,12 @@ final class WrappingDividerAdapter extends PowerAdapterWrapper {
 
     private int mItemCount;
 
+    /**
+     * The item count of the wrapped adapter, maintained from the counts carried by its notifications while observed,
+     * so it needn't be computed through every layer of the wrapped adapter each time it's needed.
+     */
+    private int mInnerItemCount;
+
     WrappingDividerAdapter(@NonNull PowerAdapter adapter,
                            @NonNull DividerAdapterBuilder.EmptyPolicy emptyPolicy,
                            @Nullable Item leadingItem,
@@ -54,6 +66,13 @@ final class WrappingDividerAdapter extends PowerAdapterWrapper {
         return getItemCount(super.getItemCount());
     }
 
+    private int getInnerItemCount() {
+        if (getObserverCount() > 0) {
+            return mInnerItemCount;
+        }
+        return super.getItemCount();
+    }
+
     private int getItemCount(final int innerItemCount) {
         int itemCount = innerItemCount;
         if (itemCount == 0) {
@@ -70,7 +89,7 @@ final class WrappingDividerAdapter extends PowerAdapterWrapper {
     @NonNull
     @Override
     public Object getItemViewType(int position) {
-        int innerItemCount = super.getItemCount();
+        int innerItemCount = getInnerItemCount();
         if (innerItemCount == 0) {
             if (isLeadingVisible(innerItemCount) && position == 0) {
                 //noinspection ConstantConditions
@@ -82,10 +101,11 @@ final class WrappingDividerAdapter extends PowerAdapterWrapper {
             }
         }
         Object innerViewType = super.getItemViewType(position);
-        ViewTypeWrapper viewTypeWrapper = mViewTypes.get(innerViewType);
+        int innerViewTypeInt = mViewTypes.toInt(innerViewType);
+        ViewTypeWrapper viewTypeWrapper = mViewTypeWrappers.get(innerViewTypeInt);
         if (viewTypeWrapper == null) {
             viewTypeWrapper = new ViewTypeWrapper();
-            mViewTypes.put(innerViewType, viewTypeWrapper);
+            mViewTypeWrappers.put(innerViewTypeInt, viewTypeWrapper);
         }
         viewTypeWrapper.viewType = innerViewType;
         return viewTypeWrapper;
@@ -112,7 +132,7 @@ final class WrappingDividerAdapter extends PowerAdapterWrapper {
     @Override
     public void bindView(@NonNull View view, @NonNull Holder holder) {
         int position = holder.getPosition();
-        int innerItemCount = super.getItemCount();
+        int innerItemCount = getInnerItemCount();
         if (innerItemCount == 0 && (isLeadingVisible(innerItemCount) || isTrailingVisible(innerItemCount))) {
             return;
         }
@@ -124,7 +144,7 @@ final class WrappingDividerAdapter extends PowerAdapterWrapper {
 
     @Override
     public boolean isEnabled(int position) {
-        int innerItemCount = super.getItemCount();
+        int innerItemCount = getInnerItemCount();
         if (innerItemCount == 0) {
             if (isLeadingVisible(innerItemCount) && position == 0) {
                 return false;
@@ -138,7 +158,7 @@ final class WrappingDividerAdapter extends PowerAdapterWrapper {
 
     @Override
     public long getItemId(int position) {
-        int innerItemCount = super.getItemCount();
+        int innerItemCount = getInnerItemCount();
         if (innerItemCount == 0) {
             if (isLeadingVisible(innerItemCount) && position == 0) {
                 return NO_ID;
@@ -167,13 +187,14 @@ final class WrappingDividerAdapter extends PowerAdapterWrapper {
     @Override
     protected void onFirstObserverRegistered() {
         super.onFirstObserverRegistered();
-        updateItemCount(super.getItemCount());
+        updateItemCount();
     }
 
     @Override
     protected void onLastObserverUnregistered() {
         super.onLastObserverUnregistered();
         mItemCount = 0;
+        mInnerItemCount = 0;
     }
 
     @Override
@@ -184,8 +205,9 @@ final class WrappingDividerAdapter extends PowerAdapterWrapper {
 
     @Override
     protected void forwardItemRangeInserted(int innerPositionStart, int innerItemCount) {
-        final int innerTotalCountAfter = super.getItemCount();
-        final int innerTotalCountBefore = innerTotalCountAfter - innerItemCount;
+        final int innerTotalCountBefore = mInnerItemCount;
+        final int innerTotalCountAfter = innerTotalCountBefore + innerItemCount;
+        mInnerItemCount = innerTotalCountAfter;
         final boolean rangeIncludesFirstItem = innerPositionStart == 0;
         final boolean rangeIncludesLastItem = innerPositionStart + innerItemCount >= innerTotalCountAfter;
 
@@ -222,8 +244,9 @@ final class WrappingDividerAdapter extends PowerAdapterWrapper {
 
     @Override
     protected void forwardItemRangeRemoved(int innerPositionStart, int innerItemCount) {
-        final int innerTotalCountAfter = super.getItemCount();
-        final int innerTotalCountBefore = innerTotalCountAfter + innerItemCount;
+        final int innerTotalCountBefore = mInnerItemCount;
+        final int innerTotalCountAfter = innerTotalCountBefore - innerItemCount;
+        mInnerItemCount = innerTotalCountAfter;
         final boolean rangeIncludesFirstItem = innerPositionStart == 0;
         final boolean rangeIncludesLastItem = innerPositionStart + innerItemCount >= innerTotalCountBefore;
 
@@ -257,11 +280,8 @@ final class WrappingDividerAdapter extends PowerAdapterWrapper {
     }
 
     private void updateItemCount() {
-        updateItemCount(super.getItemCount());
-    }
-
-    private void updateItemCount(int innerItemCount) {
-        mItemCount = getItemCount(innerItemCount);
+        mInnerItemCount = super.getItemCount();
+        mItemCount = getItemCount(mInnerItemCount);
         validateItemCount();
     }
 
@@ -318,7 +338,7 @@ final class WrappingDividerAdapter extends PowerAdapterWrapper {
         }
 
         void updateDividers(int position) {
-            int innerItemCount = WrappingDividerAdapter.super.getItemCount();
+            int innerItemCount = getInnerItemCount();
             if (mLeadingView != null) {
                 mLeadingView.setVisibility(position == 0 && isLeadingVisible(innerItemCount) ? VISIBLE : GONE);
             }
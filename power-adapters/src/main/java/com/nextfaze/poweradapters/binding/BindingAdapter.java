@@ -1,5 +1,6 @@
 package com.nextfaze.poweradapters.binding;
 
+import android.support.annotation.CallSuper;
 import android.view.View;
 import android.view.ViewGroup;
 import com.nextfaze.poweradapters.Holder;
@@ -18,6 +19,16 @@ public abstract class BindingAdapter extends PowerAdapter {
             public Object get(int position) {
                 return getItem(position);
             }
+
+            @Override
+            public boolean isObserved() {
+                return getObserverCount() > 0;
+            }
+
+            @Override
+            public int getNotificationCount() {
+                return BindingAdapter.this.getNotificationCount();
+            }
         });
     }
 
@@ -55,4 +66,11 @@ public abstract class BindingAdapter extends PowerAdapter {
     public final boolean hasStableIds() {
         return mEngine.hasStableIds();
     }
+
+    @CallSuper
+    @Override
+    protected void onLastObserverUnregistered() {
+        super.onLastObserverUnregistered();
+        mEngine.invalidateCache();
+    }
 }
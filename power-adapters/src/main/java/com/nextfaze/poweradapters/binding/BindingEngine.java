@@ -9,6 +9,9 @@ import java.util.WeakHashMap;
 
 final class BindingEngine {
 
+    /** Number of positions for which items and binders are memoized. Must be a power of two. */
+    private static final int CACHE_SIZE = 8;
+
     @NonNull
     private final WeakHashMap<Object, Binder<?, ?>> mBinders = new WeakHashMap<>();
 
@@ -18,16 +21,84 @@ final class BindingEngine {
     @NonNull
     private final ItemAccessor mItemAccessor;
 
+    /**
+     * Memoized positions, items, and binders, indexed by the low bits of the position. Consecutive calls for the same
+     * position, such as those made by a {@code RecyclerView} when laying out a single item, hit the cache.
+     */
+    @NonNull
+    private final int[] mCachedPositions = new int[CACHE_SIZE];
+
+    @NonNull
+    private final Object[] mCachedItems = new Object[CACHE_SIZE];
+
+    @NonNull
+    private final Binder<?, ?>[] mCachedBinders = new Binder<?, ?>[CACHE_SIZE];
+
+    /** The adapter notification count at which the cache was last valid. */
+    private int mCacheNotificationCount;
+
+    /** Indicates the cache has been populated while the adapter was observed. */
+    private boolean mCacheInUse;
+
     BindingEngine(@NonNull Mapper mapper, @NonNull ItemAccessor itemAccessor) {
         mMapper = mapper;
         mItemAccessor = itemAccessor;
+        clearCache();
     }
 
     @NonNull
     private Object getItem(int position) {
+        int slot = cacheSlot(position);
+        if (slot != -1) {
+            if (mCachedPositions[slot] == position) {
+                return mCachedItems[slot];
+            }
+            Object item = mItemAccessor.get(position);
+            mCachedPositions[slot] = position;
+            mCachedItems[slot] = item;
+            mCachedBinders[slot] = null;
+            return item;
+        }
         return mItemAccessor.get(position);
     }
 
+    /**
+     * Returns the cache slot for the specified position, or {@code -1} if the cache cannot be used. Any change
+     * notification issued by the adapter since the cache was last used invalidates its entire contents.
+     */
+    private int cacheSlot(int position) {
+        if (!mItemAccessor.isObserved()) {
+            // Without observers, the adapter isn't obliged to notify us of changes.
+            return -1;
+        }
+        int notificationCount = mItemAccessor.getNotificationCount();
+        if (!mCacheInUse || notificationCount != mCacheNotificationCount) {
+            clearCache();
+            mCacheNotificationCount = notificationCount;
+            mCacheInUse = true;
+        }
+        return position & (CACHE_SIZE - 1);
+    }
+
+    /**
+     * Must be called when the adapter loses its last observer. It isn't obliged to notify of changes until it's
+     * observed again, so the cache can't be trusted once it is.
+     */
+    void invalidateCache() {
+        if (mCacheInUse) {
+            clearCache();
+            mCacheInUse = false;
+        }
+    }
+
+    private void clearCache() {
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            mCachedPositions[i] = -1;
+            mCachedItems[i] = null;
+            mCachedBinders[i] = null;
+        }
+    }
+
     @NonNull
     View newView(@NonNull ViewGroup parent, @NonNull Object viewType) {
         Binder<?, ?> binder = mBinders.get(viewType);
@@ -67,13 +138,22 @@ final class BindingEngine {
         return mMapper.hasStableIds();
     }
 
+    /** Must be called immediately after {@link #getItem(int)} for the same position. */
     @SuppressWarnings("unchecked")
     @NonNull
     private Binder<Object, View> binderOrThrow(@NonNull Object item, int position) {
+        int slot = position & (CACHE_SIZE - 1);
+        boolean cached = mCachedPositions[slot] == position && mCachedItems[slot] == item;
+        if (cached && mCachedBinders[slot] != null) {
+            return (Binder<Object, View>) mCachedBinders[slot];
+        }
         Binder<Object, View> binder = (Binder<Object, View>) mMapper.getBinder(item, position);
         if (binder == null) {
             throw new AssertionError("No binder for item " + item + " at position " + position);
         }
+        if (cached) {
+            mCachedBinders[slot] = binder;
+        }
         return binder;
     }
 }
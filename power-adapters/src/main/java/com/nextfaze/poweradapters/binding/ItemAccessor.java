@@ -5,4 +5,10 @@ import lombok.NonNull;
 interface ItemAccessor {
     @NonNull
     Object get(int position);
+
+    /** Returns {@code true} if the adapter has observers, meaning it is obliged to notify of changes. */
+    boolean isObserved();
+
+    /** Returns the number of change notifications the adapter has issued. */
+    int getNotificationCount();
 }
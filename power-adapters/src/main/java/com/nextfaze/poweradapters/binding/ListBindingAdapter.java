@@ -41,6 +41,16 @@ public final class ListBindingAdapter<E> extends ListAdapter<E> {
             public Object get(int position) {
                 return ListBindingAdapter.this.get(position);
             }
+
+            @Override
+            public boolean isObserved() {
+                return getObserverCount() > 0;
+            }
+
+            @Override
+            public int getNotificationCount() {
+                return ListBindingAdapter.this.getNotificationCount();
+            }
         };
         mEngine = new BindingEngine(mapper, itemAccessor);
     }
@@ -76,4 +86,10 @@ public final class ListBindingAdapter<E> extends ListAdapter<E> {
     public final boolean hasStableIds() {
         return mEngine.hasStableIds();
     }
+
+    @Override
+    protected void onLastObserverUnregistered() {
+        super.onLastObserverUnregistered();
+        mEngine.invalidateCache();
+    }
 }
@@ -12,6 +12,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -21,6 +22,9 @@ import static com.nextfaze.poweradapters.binding.BinderWrapper.overrideLayout;
 /**
  * Fluent-style builder that may be used to construct a type-safe, complex {@link Mapper}. This mapper evaluates a list
  * of rules for each class in an item's class hierarchy, and returns the {@link Binder} when a rule passes.
+ * <p>
+ * Rules registered for interfaces are evaluated only after those of every class in the hierarchy, starting with the
+ * interfaces implemented by the item's own class, followed by those implemented by each superclass in turn.
  */
 public final class MapperBuilder {
 
@@ -132,7 +136,12 @@ public final class MapperBuilder {
 
     @NonNull
     public Mapper build() {
-        return new RuleMapper(new HashMap<>(mRules), mStableIds);
+        // Copy the rule lists too, so binding more rules to this builder doesn't affect mappers already built.
+        Map<Class<?>, List<Rule<?>>> rules = new HashMap<>();
+        for (Map.Entry<Class<?>, List<Rule<?>>> entry : mRules.entrySet()) {
+            rules.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+        return new RuleMapper(rules, mStableIds);
     }
 
     private static final class RuleMapper extends AbstractMapper {
@@ -140,6 +149,10 @@ public final class MapperBuilder {
         @NonNull
         private final Map<Class<?>, List<Rule<?>>> mRules;
 
+        /** Flattened rules for each concrete item class encountered so far. */
+        @NonNull
+        private final Map<Class<?>, Rule<?>[]> mResolved = new IdentityHashMap<>();
+
         @NonNull
         private final Set<Binder<?, ?>> mAllBinders = new HashSet<>();
 
@@ -159,25 +172,57 @@ public final class MapperBuilder {
         @Nullable
         @Override
         public Binder<?, ?> getBinder(@NonNull Object item, int position) {
-            // Apply rules in order for most specific type first,
-            // before moving up class hierarchy and applying those rules.
-            Class<?> itemClass = item.getClass();
-            while (itemClass != null) {
-                List<Rule<?>> rules = mRules.get(itemClass);
-                if (rules != null) {
-                    for (int i = 0; i < rules.size(); i++) {
-                        //noinspection unchecked
-                        Rule<Object> rule = (Rule<Object>) rules.get(i);
-                        if (rule.predicate.apply(item)) {
-                            return rule.binder;
-                        }
-                    }
+            Rule<?>[] rules = resolve(item.getClass());
+            for (Rule<?> r : rules) {
+                //noinspection unchecked
+                Rule<Object> rule = (Rule<Object>) r;
+                if (rule.predicate.apply(item)) {
+                    return rule.binder;
                 }
-                itemClass = itemClass.getSuperclass();
             }
             return null;
         }
 
+        /** Returns the flattened rules applicable to the specified concrete class, in the order they're evaluated. */
+        @NonNull
+        private Rule<?>[] resolve(@NonNull Class<?> itemClass) {
+            Rule<?>[] rules = mResolved.get(itemClass);
+            if (rules == null) {
+                // Apply rules in order for most specific type first,
+                // before moving up class hierarchy and applying those rules.
+                ArrayList<Rule<?>> flattened = new ArrayList<>();
+                for (Class<?> c = itemClass; c != null; c = c.getSuperclass()) {
+                    addRules(flattened, c);
+                }
+                // Interface rules come last, so they only apply to items no class rule would have matched.
+                Set<Class<?>> visitedInterfaces = new HashSet<>();
+                for (Class<?> c = itemClass; c != null; c = c.getSuperclass()) {
+                    addInterfaceRules(flattened, c, visitedInterfaces);
+                }
+                rules = flattened.toArray(new Rule<?>[flattened.size()]);
+                mResolved.put(itemClass, rules);
+            }
+            return rules;
+        }
+
+        private void addInterfaceRules(@NonNull List<Rule<?>> flattened,
+                                       @NonNull Class<?> c,
+                                       @NonNull Set<Class<?>> visitedInterfaces) {
+            for (Class<?> i : c.getInterfaces()) {
+                if (visitedInterfaces.add(i)) {
+                    addRules(flattened, i);
+                    addInterfaceRules(flattened, i, visitedInterfaces);
+                }
+            }
+        }
+
+        private void addRules(@NonNull List<Rule<?>> flattened, @NonNull Class<?> c) {
+            List<Rule<?>> rules = mRules.get(c);
+            if (rules != null) {
+                flattened.addAll(rules);
+            }
+        }
+
         @NonNull
         @Override
         public Collection<? extends Binder<?, ?>> getAllBinders() {
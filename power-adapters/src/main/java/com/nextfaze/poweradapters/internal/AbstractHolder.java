@@ -0,0 +1,29 @@
+package com.nextfaze.poweradapters.internal;
+
+import android.support.annotation.Nullable;
+import com.nextfaze.poweradapters.Holder;
+import lombok.NonNull;
+
+/**
+ * Base class for {@link Holder}s that cache the wrapper created for them by an adapter that translates positions into
+ * the coordinate space of another adapter. Since a holder is only bound by one adapter at a time, the wrapper is
+ * retargeted to whichever adapter binds the holder next, such as another section of a concatenation sharing the view
+ * type, so each holder allocates its wrapper once.
+ * @hide Not intended for public use.
+ */
+public abstract class AbstractHolder implements Holder {
+
+    @Nullable
+    private Holder mWrapper;
+
+    /** Returns the cached wrapper of this holder, if any. */
+    @Nullable
+    public final Holder getWrapper() {
+        return mWrapper;
+    }
+
+    /** Caches a wrapper of this holder, replacing any previously cached wrapper. */
+    public final void setWrapper(@NonNull Holder wrapper) {
+        mWrapper = wrapper;
+    }
+}
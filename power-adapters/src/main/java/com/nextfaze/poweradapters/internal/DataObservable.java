@@ -1,39 +1,133 @@
 package com.nextfaze.poweradapters.internal;
 
 import com.nextfaze.poweradapters.DataObserver;
+import com.nextfaze.poweradapters.PowerAdapter;
 import lombok.NonNull;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 
 /** @hide Not intended for public use. */
 public final class DataObservable {
 
+    private static final int CHANGE = 0;
+    private static final int INSERT = 1;
+    private static final int REMOVE = 2;
+    private static final int MOVE = 3;
+    private static final int DATA_SET_CHANGE = 4;
+
+    /** @see #isDispatchingStale() */
+    private static int sStaleDispatchDepth;
+
+    @NonNull
+    private final ObserverList<DataObserver> mObservers = new ObserverList<>();
+
+    /** Depth of nested batches. Notifications are deferred while greater than zero. */
+    private int mBatchDepth;
+
+    /** Deferred notifications, encoded as quadruplets of type and three arguments. */
     @NonNull
-    private final ArrayList<DataObserver> mObservers = new ArrayList<>();
+    private int[] mPending = new int[16];
+
+    private int mPendingLength;
+
+    /** Indicates a data set change was notified during the current batch, which supersedes all other notifications. */
+    private boolean mPendingDataSetChanged;
+
+    private int mNotificationCount;
 
     public void registerObserver(@NonNull DataObserver observer) {
-        if (mObservers.contains(observer)) {
-            throw new IllegalStateException("Observer is already registered.");
-        }
-        mObservers.add(observer);
+        mObservers.register(observer);
     }
 
     public void unregisterObserver(@NonNull DataObserver observer) {
-        int index = mObservers.indexOf(observer);
-        if (index == -1) {
-            throw new IllegalStateException("Observer was not registered.");
-        }
-        mObservers.remove(index);
+        mObservers.unregister(observer);
     }
 
     public int getObserverCount() {
         return mObservers.size();
     }
 
+    /**
+     * Returns the number of notifications issued so far, including those deferred by a batch. This changes whenever
+     * the contents of the observed object have been reported as changing.
+     */
+    public int getNotificationCount() {
+        return mNotificationCount;
+    }
+
+    /**
+     * Begins a batch of notifications. Until the matching call to {@link #endBatch()}, notifications are deferred, and
+     * each is merged with the previous one where possible. Batches may be nested.
+     * @see PowerAdapter#beginBatch()
+     */
+    public void beginBatch() {
+        mBatchDepth++;
+    }
+
+    /** Ends a batch of notifications. If this ends the outermost batch, the deferred notifications are dispatched. */
+    public void endBatch() {
+        if (mBatchDepth == 0) {
+            throw new IllegalStateException("No batch in progress");
+        }
+        if (--mBatchDepth == 0) {
+            dispatchPending(false);
+        }
+    }
+
+    public boolean isBatching() {
+        return mBatchDepth > 0;
+    }
+
+    /**
+     * Returns {@code true} while notifications deferred by a batch are being dispatched after the observed object has
+     * already changed further, because a subsequent notification couldn't be merged with them and the object didn't
+     * call {@link #beforeItemRangeInserted(int, int)} or a related method first. Observers querying the item count
+     * then see the later change. Only accessed from the UI thread.
+     */
+    public static boolean isDispatchingStale() {
+        return sStaleDispatchDepth > 0;
+    }
+
+    /**
+     * Called before inserting items that are about to be notified. If the insertion can't be merged with the
+     * notifications deferred by the current batch, they're dispatched now, while they still describe the current
+     * state of the observed object.
+     */
+    public void beforeItemRangeInserted(int positionStart, int itemCount) {
+        if (mBatchDepth > 0 && !canMergeInsert(positionStart)) {
+            dispatchPending(false);
+        }
+    }
+
+    /** @see #beforeItemRangeInserted(int, int) */
+    public void beforeItemRangeRemoved(int positionStart, int itemCount) {
+        if (mBatchDepth > 0 && !canMergeRemove(positionStart, itemCount)) {
+            dispatchPending(false);
+        }
+    }
+
+    /**
+     * Called before a change that notifies a move, or several notifications, none of which are merged with those
+     * deferred by the current batch. Those are dispatched now, while they still describe the current state.
+     * @see #beforeItemRangeInserted(int, int)
+     */
+    public void beforeUnmergeableChange() {
+        if (mBatchDepth > 0 && !mPendingDataSetChanged) {
+            dispatchPending(false);
+        }
+    }
+
     public void notifyDataSetChanged() {
-        for (int i = mObservers.size() - 1; i >= 0; i--) {
-            mObservers.get(i).onChanged();
+        mNotificationCount++;
+        if (mBatchDepth > 0) {
+            mPendingDataSetChanged = true;
+            mPendingLength = 0;
+            return;
         }
+        dispatch(DATA_SET_CHANGE, 0, 0, 0);
     }
 
     public void notifyItemChanged(int position) {
@@ -42,9 +136,12 @@ public final class DataObservable {
 
     public void notifyItemRangeChanged(int positionStart, int itemCount) {
         if (itemCount > 0) {
-            for (int i = mObservers.size() - 1; i >= 0; i--) {
-                mObservers.get(i).onItemRangeChanged(positionStart, itemCount);
+            mNotificationCount++;
+            if (mBatchDepth > 0) {
+                deferChange(positionStart, itemCount);
+                return;
             }
+            dispatch(CHANGE, positionStart, itemCount, 0);
         }
     }
 
@@ -54,9 +151,12 @@ public final class DataObservable {
 
     public void notifyItemRangeInserted(int positionStart, int itemCount) {
         if (itemCount > 0) {
-            for (int i = mObservers.size() - 1; i >= 0; i--) {
-                mObservers.get(i).onItemRangeInserted(positionStart, itemCount);
+            mNotificationCount++;
+            if (mBatchDepth > 0) {
+                deferInsert(positionStart, itemCount);
+                return;
             }
+            dispatch(INSERT, positionStart, itemCount, 0);
         }
     }
 
@@ -66,9 +166,14 @@ public final class DataObservable {
 
     public void notifyItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
         if (itemCount > 0) {
-            for (int i = mObservers.size() - 1; i >= 0; i--) {
-                mObservers.get(i).onItemRangeMoved(fromPosition, toPosition, itemCount);
+            mNotificationCount++;
+            if (mBatchDepth > 0) {
+                if (!mPendingDataSetChanged) {
+                    appendPending(MOVE, fromPosition, toPosition, itemCount);
+                }
+                return;
             }
+            dispatch(MOVE, fromPosition, toPosition, itemCount);
         }
     }
 
@@ -78,9 +183,192 @@ public final class DataObservable {
 
     public void notifyItemRangeRemoved(int positionStart, int itemCount) {
         if (itemCount > 0) {
-            for (int i = mObservers.size() - 1; i >= 0; i--) {
-                mObservers.get(i).onItemRangeRemoved(positionStart, itemCount);
+            mNotificationCount++;
+            if (mBatchDepth > 0) {
+                deferRemove(positionStart, itemCount);
+                return;
+            }
+            dispatch(REMOVE, positionStart, itemCount, 0);
+        }
+    }
+
+    private void deferChange(int positionStart, int itemCount) {
+        if (mPendingDataSetChanged) {
+            return;
+        }
+        int last = mPendingLength - 4;
+        if (last >= 0) {
+            int lastStart = mPending[last + 1];
+            int lastCount = mPending[last + 2];
+            if (mPending[last] == CHANGE && positionStart <= lastStart + lastCount &&
+                    lastStart <= positionStart + itemCount) {
+                // Overlapping or adjacent changes; merge into a single change spanning both.
+                int start = min(lastStart, positionStart);
+                int end = max(lastStart + lastCount, positionStart + itemCount);
+                mPending[last + 1] = start;
+                mPending[last + 2] = end - start;
+                return;
+            }
+            if (mPending[last] == INSERT && positionStart >= lastStart &&
+                    positionStart + itemCount <= lastStart + lastCount) {
+                // The changed items were only just inserted, so observers will see their latest state anyway.
+                return;
+            }
+        }
+        appendPending(CHANGE, positionStart, itemCount, 0);
+    }
+
+    private void deferInsert(int positionStart, int itemCount) {
+        if (mPendingDataSetChanged) {
+            return;
+        }
+        if (mPendingLength > 0 && canMergeInsert(positionStart)) {
+            // Insertion within or adjacent to the previous insertion; grow it.
+            mPending[mPendingLength - 2] += itemCount;
+            return;
+        }
+        appendPending(INSERT, positionStart, itemCount, 0);
+    }
+
+    private void deferRemove(int positionStart, int itemCount) {
+        if (mPendingDataSetChanged) {
+            return;
+        }
+        int last = mPendingLength - 4;
+        if (last >= 0 && canMergeRemove(positionStart, itemCount)) {
+            int lastStart = mPending[last + 1];
+            int lastCount = mPending[last + 2];
+            if (mPending[last] == INSERT) {
+                // Removal of items that were only just inserted; shrink the insertion.
+                if (lastCount == itemCount) {
+                    mPendingLength -= 4;
+                } else {
+                    mPending[last + 2] = lastCount - itemCount;
+                }
+            } else if (positionStart == lastStart) {
+                // Successive removals at the same position.
+                mPending[last + 2] = lastCount + itemCount;
+            } else {
+                // Successive removals immediately preceding the previous removal.
+                mPending[last + 1] = positionStart;
+                mPending[last + 2] = lastCount + itemCount;
+            }
+            return;
+        }
+        appendPending(REMOVE, positionStart, itemCount, 0);
+    }
+
+    /**
+     * Returns {@code true} if an insertion wouldn't cause deferred notifications to be dispatched, because there are
+     * none, or it merges with the previous one.
+     */
+    private boolean canMergeInsert(int positionStart) {
+        if (mPendingDataSetChanged || mPendingLength == 0) {
+            return true;
+        }
+        int last = mPendingLength - 4;
+        int lastStart = mPending[last + 1];
+        int lastCount = mPending[last + 2];
+        return mPending[last] == INSERT && positionStart >= lastStart && positionStart <= lastStart + lastCount;
+    }
+
+    /** @see #canMergeInsert(int) */
+    private boolean canMergeRemove(int positionStart, int itemCount) {
+        if (mPendingDataSetChanged || mPendingLength == 0) {
+            return true;
+        }
+        int last = mPendingLength - 4;
+        int lastStart = mPending[last + 1];
+        int lastCount = mPending[last + 2];
+        switch (mPending[last]) {
+            case REMOVE:
+                return positionStart == lastStart || positionStart + itemCount == lastStart;
+            case INSERT:
+                return positionStart >= lastStart && positionStart + itemCount <= lastStart + lastCount;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Defers a notification that can't be merged with the previous one. Changes don't affect positions or the item
+     * count, so any number of them remain valid against the final state. Otherwise, the deferred notifications are
+     * dispatched first, so they're received in order.
+     */
+    private void appendPending(int type, int a, int b, int c) {
+        if (mPendingLength > 0 && (type != CHANGE || !isPendingChangesOnly())) {
+            dispatchPending(true);
+        }
+        if (mPendingLength + 4 > mPending.length) {
+            mPending = Arrays.copyOf(mPending, mPending.length * 2);
+        }
+        mPending[mPendingLength++] = type;
+        mPending[mPendingLength++] = a;
+        mPending[mPendingLength++] = b;
+        mPending[mPendingLength++] = c;
+    }
+
+    /**
+     * Dispatches the deferred notifications in order.
+     * @param stale Indicates the observed object has already changed further since the last of them.
+     */
+    private void dispatchPending(boolean stale) {
+        // Reset state before dispatching, since observers may notify or begin a batch themselves.
+        boolean dataSetChanged = mPendingDataSetChanged;
+        int[] pending = Arrays.copyOf(mPending, mPendingLength);
+        mPendingDataSetChanged = false;
+        mPendingLength = 0;
+        if (dataSetChanged) {
+            dispatch(DATA_SET_CHANGE, 0, 0, 0);
+            return;
+        }
+        if (stale) {
+            sStaleDispatchDepth++;
+        }
+        try {
+            for (int i = 0; i < pending.length; i += 4) {
+                dispatch(pending[i], pending[i + 1], pending[i + 2], pending[i + 3]);
+            }
+        } finally {
+            if (stale) {
+                sStaleDispatchDepth--;
+            }
+        }
+    }
+
+    private void dispatch(int type, int a, int b, int c) {
+        Object[] observers = mObservers.snapshot();
+        for (int i = observers.length - 1; i >= 0; i--) {
+            DataObserver observer = (DataObserver) observers[i];
+            if (!mObservers.isRegistered(observers, observer)) {
+                continue;
+            }
+            switch (type) {
+                case DATA_SET_CHANGE:
+                    observer.onChanged();
+                    break;
+                case CHANGE:
+                    observer.onItemRangeChanged(a, b);
+                    break;
+                case INSERT:
+                    observer.onItemRangeInserted(a, b);
+                    break;
+                case REMOVE:
+                    observer.onItemRangeRemoved(a, b);
+                    break;
+                case MOVE:
+                    observer.onItemRangeMoved(a, b, c);
+                    break;
+            }
+        }
+    }
+
+    private boolean isPendingChangesOnly() {
+        for (int i = 0; i < mPendingLength; i += 4) {
+            if (mPending[i] != CHANGE) {
+                return false;
             }
         }
+        return true;
     }
 }
@@ -0,0 +1,412 @@
+package com.nextfaze.poweradapters.internal;
+
+import com.nextfaze.poweradapters.Equivalence;
+import lombok.NonNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static java.lang.Math.max;
+import static java.lang.System.arraycopy;
+
+/**
+ * @hide Not intended for public use.
+ * <p>
+ * The minimal sequence of operations that transforms one list into another. The longest common subsequence of items
+ * is found using Myers' linear space diff algorithm, in {@code O((N + M) D)} time, where {@code D} is the length of
+ * the edit script. Items that are removed and then inserted elsewhere are reported as moves.
+ * <p>
+ * Operations are dispatched in the following order, so that each position is valid at the time it is reported:
+ * <ol>
+ * <li>Removals, in descending order of position.</li>
+ * <li>Moves, in ascending order of destination.</li>
+ * <li>Insertions, in ascending order of position. Positions are also indices into the new list.</li>
+ * <li>Changes, in ascending order of position. Positions are also indices into the new list.</li>
+ * </ol>
+ * A computed diff is immutable, so it may be computed on one thread and dispatched on another.
+ */
+public final class Diff {
+
+    private static final int REMOVE = 0;
+    private static final int MOVE = 1;
+    private static final int INSERT = 2;
+    private static final int CHANGE = 3;
+
+    /** Operations, encoded as triplets of type and two arguments. */
+    @NonNull
+    private final int[] mOps;
+
+    private final int mOldSize;
+
+    private final int mNewSize;
+
+    private Diff(@NonNull int[] ops, int oldSize, int newSize) {
+        mOps = ops;
+        mOldSize = oldSize;
+        mNewSize = newSize;
+    }
+
+    /** Computes the diff between two lists. Neither list may be modified while this executes. */
+    @NonNull
+    public static <E> Diff compute(@NonNull List<? extends E> oldList,
+                                   @NonNull List<? extends E> newList,
+                                   @NonNull Equivalence<? super E> equivalence) {
+        return new Calculator<E>(oldList, newList, equivalence).calculate();
+    }
+
+    public int getOldSize() {
+        return mOldSize;
+    }
+
+    public int getNewSize() {
+        return mNewSize;
+    }
+
+    /** Returns {@code true} if this diff contains no operations. */
+    public boolean isEmpty() {
+        return mOps.length == 0;
+    }
+
+    public void dispatch(@NonNull Callback callback) {
+        for (int i = 0; i < mOps.length; i += 3) {
+            int a = mOps[i + 1];
+            int b = mOps[i + 2];
+            switch (mOps[i]) {
+                case REMOVE:
+                    callback.onRemoved(a, b);
+                    break;
+                case MOVE:
+                    callback.onMoved(a, b);
+                    break;
+                case INSERT:
+                    callback.onInserted(a, b);
+                    break;
+                case CHANGE:
+                    callback.onChanged(a, b);
+                    break;
+            }
+        }
+    }
+
+    public interface Callback {
+        void onRemoved(int positionStart, int itemCount);
+
+        void onMoved(int fromPosition, int toPosition);
+
+        void onInserted(int positionStart, int itemCount);
+
+        void onChanged(int positionStart, int itemCount);
+    }
+
+    private static final class Calculator<E> {
+
+        @NonNull
+        private final List<? extends E> mOldList;
+
+        @NonNull
+        private final List<? extends E> mNewList;
+
+        @NonNull
+        private final Equivalence<? super E> mEquivalence;
+
+        /** For each old position, the matching new position, or {@code -1} if the item was removed. */
+        @NonNull
+        private final int[] mOldToNew;
+
+        /** For each new position, the matching old position, or {@code -1} if the item was inserted. */
+        @NonNull
+        private final int[] mNewToOld;
+
+        /** Indicates which new positions were matched by move detection, rather than as part of the LCS. */
+        @NonNull
+        private final boolean[] mMoved;
+
+        @NonNull
+        private int[] mOps = new int[12];
+
+        private int mOpsLength;
+
+        Calculator(@NonNull List<? extends E> oldList,
+                   @NonNull List<? extends E> newList,
+                   @NonNull Equivalence<? super E> equivalence) {
+            mOldList = oldList;
+            mNewList = newList;
+            mEquivalence = equivalence;
+            mOldToNew = new int[oldList.size()];
+            mNewToOld = new int[newList.size()];
+            mMoved = new boolean[newList.size()];
+            Arrays.fill(mOldToNew, -1);
+            Arrays.fill(mNewToOld, -1);
+        }
+
+        @NonNull
+        Diff calculate() {
+            matchCommonSubsequence();
+            matchMoves();
+            emitRemovals();
+            emitMoves();
+            emitInsertions();
+            emitChanges();
+            int[] ops = new int[mOpsLength];
+            arraycopy(mOps, 0, ops, 0, mOpsLength);
+            return new Diff(ops, mOldToNew.length, mNewToOld.length);
+        }
+
+        private void matchCommonSubsequence() {
+            int oldSize = mOldToNew.length;
+            int newSize = mNewToOld.length;
+            int max = (oldSize + newSize + 1) / 2;
+            int[] forward = new int[2 * max + 3];
+            int[] backward = new int[2 * max + 3];
+            int[] snake = new int[4];
+            // Pending ranges, encoded as quadruplets of old start, old end, new start, new end.
+            int[] stack = new int[16];
+            int stackLength = 0;
+            stack[stackLength++] = 0;
+            stack[stackLength++] = oldSize;
+            stack[stackLength++] = 0;
+            stack[stackLength++] = newSize;
+            while (stackLength > 0) {
+                int newEnd = stack[--stackLength];
+                int newStart = stack[--stackLength];
+                int oldEnd = stack[--stackLength];
+                int oldStart = stack[--stackLength];
+                // Match common prefix and suffix.
+                while (oldStart < oldEnd && newStart < newEnd && isSameItem(oldStart, newStart)) {
+                    match(oldStart++, newStart++);
+                }
+                while (oldStart < oldEnd && newStart < newEnd && isSameItem(oldEnd - 1, newEnd - 1)) {
+                    match(--oldEnd, --newEnd);
+                }
+                if (oldStart == oldEnd || newStart == newEnd) {
+                    continue;
+                }
+                findMiddleSnake(oldStart, oldEnd, newStart, newEnd, forward, backward, snake);
+                int x = oldStart + snake[0];
+                int y = newStart + snake[1];
+                int u = oldStart + snake[2];
+                int v = newStart + snake[3];
+                for (int i = 0; i < u - x; i++) {
+                    match(x + i, y + i);
+                }
+                if (stackLength + 8 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[stackLength++] = oldStart;
+                stack[stackLength++] = x;
+                stack[stackLength++] = newStart;
+                stack[stackLength++] = y;
+                stack[stackLength++] = u;
+                stack[stackLength++] = oldEnd;
+                stack[stackLength++] = v;
+                stack[stackLength++] = newEnd;
+            }
+        }
+
+        /**
+         * Finds the middle snake of the edit graph of the specified ranges, which must differ at both ends. The start
+         * and end of the snake are written to {@code snake}, relative to the start of the ranges.
+         */
+        private void findMiddleSnake(int oldStart,
+                                     int oldEnd,
+                                     int newStart,
+                                     int newEnd,
+                                     @NonNull int[] forward,
+                                     @NonNull int[] backward,
+                                     @NonNull int[] snake) {
+            int n = oldEnd - oldStart;
+            int m = newEnd - newStart;
+            int delta = n - m;
+            boolean odd = (delta & 1) != 0;
+            // Diagonal k is stored at index k + offset. Backward diagonals are those of the reversed ranges.
+            int offset = (n + m + 1) / 2 + 1;
+            forward[offset + 1] = 0;
+            backward[offset + 1] = 0;
+            for (int d = 0; d <= (n + m + 1) / 2; d++) {
+                for (int k = -d; k <= d; k += 2) {
+                    int x;
+                    if (k == -d || (k != d && forward[offset + k - 1] < forward[offset + k + 1])) {
+                        x = forward[offset + k + 1];
+                    } else {
+                        x = forward[offset + k - 1] + 1;
+                    }
+                    int y = x - k;
+                    int startX = x;
+                    int startY = y;
+                    while (x < n && y < m && isSameItem(oldStart + x, newStart + y)) {
+                        x++;
+                        y++;
+                    }
+                    forward[offset + k] = x;
+                    int backwardK = delta - k;
+                    if (odd && backwardK >= -(d - 1) && backwardK <= d - 1 && x + backward[offset + backwardK] >= n) {
+                        snake[0] = startX;
+                        snake[1] = startY;
+                        snake[2] = x;
+                        snake[3] = y;
+                        return;
+                    }
+                }
+                for (int k = -d; k <= d; k += 2) {
+                    int x;
+                    if (k == -d || (k != d && backward[offset + k - 1] < backward[offset + k + 1])) {
+                        x = backward[offset + k + 1];
+                    } else {
+                        x = backward[offset + k - 1] + 1;
+                    }
+                    int y = x - k;
+                    int startX = x;
+                    int startY = y;
+                    while (x < n && y < m && isSameItem(oldEnd - 1 - x, newEnd - 1 - y)) {
+                        x++;
+                        y++;
+                    }
+                    backward[offset + k] = x;
+                    int forwardK = delta - k;
+                    if (!odd && forwardK >= -d && forwardK <= d && x + forward[offset + forwardK] >= n) {
+                        snake[0] = n - x;
+                        snake[1] = m - y;
+                        snake[2] = n - startX;
+                        snake[3] = m - startY;
+                        return;
+                    }
+                }
+            }
+            throw new AssertionError("No middle snake found");
+        }
+
+        /** Pairs up removed and inserted elements that represent the same item. */
+        private void matchMoves() {
+            int[] inserted = new int[mNewToOld.length];
+            int insertedCount = 0;
+            for (int newPosition = 0; newPosition < mNewToOld.length; newPosition++) {
+                if (mNewToOld[newPosition] == -1) {
+                    inserted[insertedCount++] = newPosition;
+                }
+            }
+            for (int oldPosition = 0; oldPosition < mOldToNew.length && insertedCount > 0; oldPosition++) {
+                if (mOldToNew[oldPosition] == -1) {
+                    for (int i = 0; i < insertedCount; i++) {
+                        int newPosition = inserted[i];
+                        if (isSameItem(oldPosition, newPosition)) {
+                            match(oldPosition, newPosition);
+                            mMoved[newPosition] = true;
+                            arraycopy(inserted, i + 1, inserted, i, insertedCount - i - 1);
+                            insertedCount--;
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+
+        private void emitRemovals() {
+            int oldPosition = mOldToNew.length - 1;
+            while (oldPosition >= 0) {
+                int end = oldPosition + 1;
+                while (oldPosition >= 0 && mOldToNew[oldPosition] == -1) {
+                    oldPosition--;
+                }
+                if (oldPosition + 1 < end) {
+                    emit(REMOVE, oldPosition + 1, end - oldPosition - 1);
+                }
+                oldPosition--;
+            }
+        }
+
+        /**
+         * Moves each moved item directly after its predecessor in the new list, in ascending order of new position.
+         * Items that aren't moved keep their relative order, so once all moved items are placed, all retained items
+         * are in their new order.
+         */
+        private void emitMoves() {
+            // Old positions of retained items, in their current order.
+            int[] current = new int[mOldToNew.length];
+            int currentCount = 0;
+            for (int oldPosition = 0; oldPosition < mOldToNew.length; oldPosition++) {
+                if (mOldToNew[oldPosition] != -1) {
+                    current[currentCount++] = oldPosition;
+                }
+            }
+            int predecessor = -1;
+            for (int newPosition = 0; newPosition < mNewToOld.length; newPosition++) {
+                int oldPosition = mNewToOld[newPosition];
+                if (oldPosition == -1) {
+                    continue;
+                }
+                if (mMoved[newPosition]) {
+                    int from = indexOf(current, currentCount, oldPosition);
+                    arraycopy(current, from + 1, current, from, currentCount - from - 1);
+                    int to = predecessor == -1 ? 0 : indexOf(current, currentCount - 1, predecessor) + 1;
+                    arraycopy(current, to, current, to + 1, currentCount - to - 1);
+                    current[to] = oldPosition;
+                    if (from != to) {
+                        emit(MOVE, from, to);
+                    }
+                }
+                predecessor = oldPosition;
+            }
+        }
+
+        private void emitInsertions() {
+            int newPosition = 0;
+            while (newPosition < mNewToOld.length) {
+                int start = newPosition;
+                while (newPosition < mNewToOld.length && mNewToOld[newPosition] == -1) {
+                    newPosition++;
+                }
+                if (newPosition > start) {
+                    emit(INSERT, start, newPosition - start);
+                }
+                newPosition++;
+            }
+        }
+
+        private void emitChanges() {
+            int newPosition = 0;
+            while (newPosition < mNewToOld.length) {
+                int start = newPosition;
+                while (newPosition < mNewToOld.length && isChanged(newPosition)) {
+                    newPosition++;
+                }
+                if (newPosition > start) {
+                    emit(CHANGE, start, newPosition - start);
+                }
+                newPosition++;
+            }
+        }
+
+        private boolean isChanged(int newPosition) {
+            int oldPosition = mNewToOld[newPosition];
+            return oldPosition != -1 &&
+                    !mEquivalence.isSameContent(mOldList.get(oldPosition), mNewList.get(newPosition));
+        }
+
+        private boolean isSameItem(int oldPosition, int newPosition) {
+            return mEquivalence.isSameItem(mOldList.get(oldPosition), mNewList.get(newPosition));
+        }
+
+        private void match(int oldPosition, int newPosition) {
+            mOldToNew[oldPosition] = newPosition;
+            mNewToOld[newPosition] = oldPosition;
+        }
+
+        private void emit(int type, int a, int b) {
+            if (mOpsLength + 3 > mOps.length) {
+                mOps = Arrays.copyOf(mOps, max(mOpsLength + 3, mOps.length * 2));
+            }
+            mOps[mOpsLength++] = type;
+            mOps[mOpsLength++] = a;
+            mOps[mOpsLength++] = b;
+        }
+
+        private static int indexOf(@NonNull int[] array, int length, int value) {
+            for (int i = 0; i < length; i++) {
+                if (array[i] == value) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.nextfaze.poweradapters.internal;
 
+import android.support.annotation.Nullable;
+import com.nextfaze.poweradapters.Equivalence;
 import lombok.NonNull;
 
 import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import static java.lang.Math.min;
 import static java.util.Collections.swap;
@@ -16,15 +19,47 @@ public final class NotifyingArrayList<E> extends AbstractList<E> {
     private final DataObservable mDataObservable;
 
     @NonNull
-    private final ArrayList<E> mArray = new ArrayList<>();
+    private final SharedArrayList<E> mArray = new SharedArrayList<>();
 
     @NonNull
     private NotificationType mNotificationType = NotificationType.FINE;
 
+    /** Incremented each time the contents of this list are modified. */
+    private int mModificationCount;
+
+    /** The most recent snapshot, which remains valid while {@link #mSnapshotModificationCount} is current. */
+    @Nullable
+    private List<E> mSnapshot;
+
+    private int mSnapshotModificationCount;
+
     public NotifyingArrayList(@NonNull DataObservable dataObservable) {
         mDataObservable = dataObservable;
     }
 
+    /**
+     * Returns a count that changes each time the contents of this list are modified. Used to detect whether the list
+     * has been modified since a {@link Diff} was computed from a snapshot of its contents.
+     */
+    public int getModificationCount() {
+        return mModificationCount;
+    }
+
+    /**
+     * Returns an immutable view of the contents of this list, which may be read from any thread. This shares the
+     * backing array rather than copying it, so it's constant time. Successive calls return the same instance until this
+     * list is next modified.
+     * @see SharedArrayList#snapshot()
+     */
+    @NonNull
+    public List<E> snapshot() {
+        if (mSnapshot == null || mSnapshotModificationCount != mModificationCount) {
+            mSnapshot = mArray.snapshot();
+            mSnapshotModificationCount = mModificationCount;
+        }
+        return mSnapshot;
+    }
+
     @Override
     public E get(int location) {
         return mArray.get(location);
@@ -38,13 +73,16 @@ public final class NotifyingArrayList<E> extends AbstractList<E> {
     @Override
     public E set(int index, @NonNull E object) {
         E e = mArray.set(index, object);
+        mModificationCount++;
         mNotificationType.notifyItemChanged(mDataObservable, index);
         return e;
     }
 
     @Override
     public boolean add(@NonNull E e) {
+        mDataObservable.beforeItemRangeInserted(mArray.size(), 1);
         if (mArray.add(e)) {
+            mModificationCount++;
             mNotificationType.notifyItemInserted(mDataObservable, mArray.size() - 1);
             return true;
         }
@@ -53,17 +91,21 @@ public final class NotifyingArrayList<E> extends AbstractList<E> {
 
     @Override
     public void add(int index, @NonNull E object) {
+        mDataObservable.beforeItemRangeInserted(index, 1);
         mArray.add(index, object);
+        mModificationCount++;
         mNotificationType.notifyItemInserted(mDataObservable, index);
     }
 
     @Override
     public boolean addAll(@NonNull Collection<? extends E> collection) {
         int oldSize = mArray.size();
+        mDataObservable.beforeItemRangeInserted(oldSize, collection.size());
         mArray.addAll(collection);
         int newSize = mArray.size();
         if (newSize != oldSize) {
             int count = mArray.size() - oldSize;
+            mModificationCount++;
             mNotificationType.notifyItemRangeInserted(mDataObservable, oldSize, count);
             return true;
         }
@@ -73,10 +115,12 @@ public final class NotifyingArrayList<E> extends AbstractList<E> {
     @Override
     public boolean addAll(int index, @NonNull Collection<? extends E> collection) {
         int oldSize = mArray.size();
+        mDataObservable.beforeItemRangeInserted(index, collection.size());
         mArray.addAll(index, collection);
         int newSize = mArray.size();
         if (newSize != oldSize) {
             int count = mArray.size() - oldSize;
+            mModificationCount++;
             mNotificationType.notifyItemRangeInserted(mDataObservable, index, count);
             return true;
         }
@@ -85,7 +129,9 @@ public final class NotifyingArrayList<E> extends AbstractList<E> {
 
     @Override
     public E remove(int index) {
+        mDataObservable.beforeItemRangeRemoved(index, 1);
         E removed = mArray.remove(index);
+        mModificationCount++;
         mNotificationType.notifyItemRemoved(mDataObservable, index);
         return removed;
     }
@@ -95,7 +141,9 @@ public final class NotifyingArrayList<E> extends AbstractList<E> {
     public boolean remove(@NonNull Object obj) {
         int index = mArray.indexOf(obj);
         if (index != -1) {
+            mDataObservable.beforeItemRangeRemoved(index, 1);
             mArray.remove(index);
+            mModificationCount++;
             mNotificationType.notifyItemRemoved(mDataObservable, index);
             return true;
         }
@@ -106,7 +154,9 @@ public final class NotifyingArrayList<E> extends AbstractList<E> {
     public void clear() {
         int size = mArray.size();
         if (size > 0) {
+            mDataObservable.beforeItemRangeRemoved(0, size);
             mArray.clear();
+            mModificationCount++;
             mNotificationType.notifyItemRangeRemoved(mDataObservable, 0, size);
         }
     }
@@ -115,12 +165,14 @@ public final class NotifyingArrayList<E> extends AbstractList<E> {
         int oldSize = mArray.size();
         int newSize = collection.size();
         int deltaSize = newSize - oldSize;
+        mDataObservable.beforeUnmergeableChange();
         mArray.clear();
         for (E e : collection) {
             if (e != null) {
                 mArray.add(e);
             }
         }
+        mModificationCount++;
         int changed = min(oldSize, newSize);
         if (changed > 0) {
             mNotificationType.notifyItemRangeChanged(mDataObservable, 0, changed);
@@ -132,19 +184,83 @@ public final class NotifyingArrayList<E> extends AbstractList<E> {
         }
     }
 
+    /**
+     * Replaces the contents of this list, issuing the minimal set of insertion, removal, move, and change notifications
+     * determined by comparing the old and new elements using {@code equivalence}.
+     */
+    public void replaceAll(@NonNull Collection<? extends E> collection, @NonNull Equivalence<? super E> equivalence) {
+        List<E> newContents = nonNullElements(collection);
+        apply(Diff.compute(mArray, newContents, equivalence), newContents);
+    }
+
+    /**
+     * Replaces the contents of this list with {@code newContents}, issuing notifications for each operation of {@code
+     * diff}, which must have been computed from the current contents of this list.
+     */
+    public void apply(@NonNull Diff diff, @NonNull final List<? extends E> newContents) {
+        if (diff.getOldSize() != mArray.size() || diff.getNewSize() != newContents.size()) {
+            throw new IllegalArgumentException("Diff doesn't match list sizes");
+        }
+        diff.dispatch(new Diff.Callback() {
+            @Override
+            public void onRemoved(int positionStart, int itemCount) {
+                mDataObservable.beforeItemRangeRemoved(positionStart, itemCount);
+                mArray.subList(positionStart, positionStart + itemCount).clear();
+                mModificationCount++;
+                mNotificationType.notifyItemRangeRemoved(mDataObservable, positionStart, itemCount);
+            }
+
+            @Override
+            public void onMoved(int fromPosition, int toPosition) {
+                mDataObservable.beforeUnmergeableChange();
+                mArray.add(toPosition, mArray.remove(fromPosition));
+                mModificationCount++;
+                mNotificationType.notifyItemMoved(mDataObservable, fromPosition, toPosition);
+            }
+
+            @Override
+            public void onInserted(int positionStart, int itemCount) {
+                mDataObservable.beforeItemRangeInserted(positionStart, itemCount);
+                mArray.addAll(positionStart, newContents.subList(positionStart, positionStart + itemCount));
+                mModificationCount++;
+                mNotificationType.notifyItemRangeInserted(mDataObservable, positionStart, itemCount);
+            }
+
+            @Override
+            public void onChanged(int positionStart, int itemCount) {
+                for (int i = positionStart; i < positionStart + itemCount; i++) {
+                    mArray.set(i, newContents.get(i));
+                }
+                mModificationCount++;
+                mNotificationType.notifyItemRangeChanged(mDataObservable, positionStart, itemCount);
+            }
+        });
+        // Unchanged elements are equivalent, but may still be different instances, which invalidates the snapshot.
+        for (int i = 0; i < mArray.size(); i++) {
+            E e = newContents.get(i);
+            if (mArray.get(i) != e) {
+                mArray.set(i, e);
+                mModificationCount++;
+            }
+        }
+    }
+
     public void setAll(int index, @NonNull Collection<? extends E> collection) {
         int i = 0;
         for (E e : collection) {
             mArray.set(index + i, e);
             i++;
         }
+        mModificationCount++;
         mNotificationType.notifyItemRangeChanged(mDataObservable, index, collection.size());
     }
 
     public void remove(int index, int count) {
+        mDataObservable.beforeItemRangeRemoved(index, count);
         for (int i = 0; i < count; i++) {
             mArray.remove(index);
         }
+        mModificationCount++;
         mNotificationType.notifyItemRangeRemoved(mDataObservable, index, count);
     }
 
@@ -152,6 +268,7 @@ public final class NotifyingArrayList<E> extends AbstractList<E> {
         if (itemCount <= 0) {
             throw new IllegalArgumentException("count <= 0");
         }
+        mDataObservable.beforeUnmergeableChange();
         if (fromPosition < toPosition) {
             for (int j = itemCount - 1; j >= 0; j--) {
                 for (int i = fromPosition + j; i < toPosition + j; i++) {
@@ -165,6 +282,7 @@ public final class NotifyingArrayList<E> extends AbstractList<E> {
                 }
             }
         }
+        mModificationCount++;
         mNotificationType.notifyItemRangeMoved(mDataObservable, fromPosition, toPosition, itemCount);
     }
 
@@ -176,6 +294,18 @@ public final class NotifyingArrayList<E> extends AbstractList<E> {
         mArray.ensureCapacity(minimumCapacity);
     }
 
+    /** Returns a copy of {@code collection} with any {@code null} elements omitted. */
+    @NonNull
+    public static <E> List<E> nonNullElements(@NonNull Collection<? extends E> collection) {
+        ArrayList<E> list = new ArrayList<>(collection.size());
+        for (E e : collection) {
+            if (e != null) {
+                list.add(e);
+            }
+        }
+        return list;
+    }
+
     @NonNull
     public NotificationType getNotificationType() {
         return mNotificationType;
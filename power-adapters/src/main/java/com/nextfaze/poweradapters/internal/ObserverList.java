@@ -0,0 +1,81 @@
+package com.nextfaze.poweradapters.internal;
+
+import lombok.NonNull;
+
+import static java.lang.System.arraycopy;
+
+/**
+ * Copy-on-write list of observers, compared by identity. Registering or unregistering replaces the backing array, so
+ * the array returned by {@link #snapshot()} never changes, and may be iterated without allocating while observers
+ * register or unregister from within their own callbacks. An observer that unregisters before its turn must not receive
+ * the notification being dispatched, since it may have released the state it needs to handle it, so dispatch loops
+ * check {@link #isRegistered(Object[], Object)} before delivering.
+ * @param <T> The type of observer.
+ * @hide Not intended for public use.
+ */
+public final class ObserverList<T> {
+
+    private static final Object[] EMPTY = new Object[0];
+
+    @NonNull
+    private Object[] mObservers = EMPTY;
+
+    /** @throws IllegalStateException If the observer is already registered. */
+    public void register(@NonNull T observer) {
+        Object[] observers = mObservers;
+        if (indexOf(observers, observer) != -1) {
+            throw new IllegalStateException("Observer is already registered.");
+        }
+        Object[] newObservers = new Object[observers.length + 1];
+        arraycopy(observers, 0, newObservers, 0, observers.length);
+        newObservers[observers.length] = observer;
+        mObservers = newObservers;
+    }
+
+    /** @throws IllegalStateException If the observer was not registered. */
+    public void unregister(@NonNull T observer) {
+        Object[] observers = mObservers;
+        int index = indexOf(observers, observer);
+        if (index == -1) {
+            throw new IllegalStateException("Observer was not registered.");
+        }
+        if (observers.length == 1) {
+            mObservers = EMPTY;
+            return;
+        }
+        Object[] newObservers = new Object[observers.length - 1];
+        arraycopy(observers, 0, newObservers, 0, index);
+        arraycopy(observers, index + 1, newObservers, index, observers.length - index - 1);
+        mObservers = newObservers;
+    }
+
+    public int size() {
+        return mObservers.length;
+    }
+
+    /**
+     * Returns the observers registered at the time of calling, in order of registration. The returned array must not
+     * be modified.
+     */
+    @NonNull
+    public Object[] snapshot() {
+        return mObservers;
+    }
+
+    /**
+     * Returns {@code true} if {@code observer}, taken from {@code snapshot}, is still registered. This is constant time
+     * unless observers have registered or unregistered since the snapshot was taken.
+     */
+    public boolean isRegistered(@NonNull Object[] snapshot, @NonNull Object observer) {
+        return snapshot == mObservers || indexOf(mObservers, observer) != -1;
+    }
+
+    private static int indexOf(@NonNull Object[] observers, @NonNull Object observer) {
+        for (int i = 0; i < observers.length; i++) {
+            if (observers[i] == observer) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,208 @@
+package com.nextfaze.poweradapters.internal;
+
+import lombok.NonNull;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+import static java.lang.Math.max;
+import static java.lang.System.arraycopy;
+
+/**
+ * Array-backed list whose {@link #snapshot()} shares the backing array instead of copying it. A snapshot only reads
+ * the elements that were present when it was taken, so appending to this list leaves existing snapshots intact without
+ * copying. Any other modification of a shared array copies it first, after which it's no longer shared. Taking a
+ * snapshot is therefore constant time, and at most one copy is made per snapshot, only if that snapshot is followed by
+ * a modification other than an append. Not thread-safe, but snapshots may be read from any thread.
+ * @hide Not intended for public use.
+ */
+public final class SharedArrayList<E> extends AbstractList<E> implements RandomAccess {
+
+    private static final int MIN_CAPACITY = 12;
+
+    @NonNull
+    private static final Object[] EMPTY = new Object[0];
+
+    @NonNull
+    private Object[] mElements = EMPTY;
+
+    private int mSize;
+
+    /** Indicates a snapshot may be reading {@link #mElements}, so elements below {@link #mSize} must not be written. */
+    private boolean mShared;
+
+    /** Returns an immutable view of the current elements, which may be read from any thread. */
+    @NonNull
+    public List<E> snapshot() {
+        mShared = true;
+        return new Snapshot<>(mElements, mSize);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E get(int index) {
+        checkIndex(index, mSize);
+        return (E) mElements[index];
+    }
+
+    @Override
+    public int size() {
+        return mSize;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E set(int index, E e) {
+        checkIndex(index, mSize);
+        unshare();
+        E old = (E) mElements[index];
+        mElements[index] = e;
+        return old;
+    }
+
+    @Override
+    public boolean add(E e) {
+        ensureCapacity(mSize + 1);
+        mElements[mSize++] = e;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void add(int index, E e) {
+        checkIndex(index, mSize + 1);
+        if (index == mSize) {
+            add(e);
+            return;
+        }
+        unshare();
+        ensureCapacity(mSize + 1);
+        arraycopy(mElements, index, mElements, index + 1, mSize - index);
+        mElements[index] = e;
+        mSize++;
+        modCount++;
+    }
+
+    @Override
+    public boolean addAll(@NonNull Collection<? extends E> collection) {
+        return addAll(mSize, collection);
+    }
+
+    @Override
+    public boolean addAll(int index, @NonNull Collection<? extends E> collection) {
+        checkIndex(index, mSize + 1);
+        Object[] added = collection.toArray();
+        int count = added.length;
+        if (count == 0) {
+            return false;
+        }
+        if (index < mSize) {
+            unshare();
+        }
+        ensureCapacity(mSize + count);
+        arraycopy(mElements, index, mElements, index + count, mSize - index);
+        arraycopy(added, 0, mElements, index, count);
+        mSize += count;
+        modCount++;
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E remove(int index) {
+        checkIndex(index, mSize);
+        E removed = (E) mElements[index];
+        removeRange(index, index + 1);
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        if (mSize > 0) {
+            removeRange(0, mSize);
+        }
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        int count = toIndex - fromIndex;
+        if (count <= 0) {
+            return;
+        }
+        if (mShared) {
+            // Copy only the elements that remain, rather than copying and then shifting.
+            Object[] elements = new Object[max(mSize - count, MIN_CAPACITY)];
+            arraycopy(mElements, 0, elements, 0, fromIndex);
+            arraycopy(mElements, toIndex, elements, fromIndex, mSize - toIndex);
+            mElements = elements;
+            mShared = false;
+        } else {
+            arraycopy(mElements, toIndex, mElements, fromIndex, mSize - toIndex);
+            for (int i = mSize - count; i < mSize; i++) {
+                mElements[i] = null;
+            }
+        }
+        mSize -= count;
+        modCount++;
+    }
+
+    public void ensureCapacity(int minimumCapacity) {
+        if (minimumCapacity > mElements.length) {
+            // Growing always copies, so the new array isn't shared.
+            resize(max(minimumCapacity, max(mElements.length + (mElements.length >> 1), MIN_CAPACITY)));
+        }
+    }
+
+    public void trimToSize() {
+        if (mElements.length > mSize) {
+            resize(mSize);
+        }
+    }
+
+    /** Copies the backing array if a snapshot may be reading it, so it can be modified in place. */
+    private void unshare() {
+        if (mShared) {
+            resize(mElements.length);
+        }
+    }
+
+    private void resize(int capacity) {
+        Object[] elements = capacity == 0 ? EMPTY : new Object[capacity];
+        arraycopy(mElements, 0, elements, 0, mSize);
+        mElements = elements;
+        mShared = false;
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+    }
+
+    private static final class Snapshot<E> extends AbstractList<E> implements RandomAccess {
+
+        @NonNull
+        private final Object[] mElements;
+
+        private final int mSize;
+
+        Snapshot(@NonNull Object[] elements, int size) {
+            mElements = elements;
+            mSize = size;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public E get(int index) {
+            checkIndex(index, mSize);
+            return (E) mElements[index];
+        }
+
+        @Override
+        public int size() {
+            return mSize;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.nextfaze.poweradapters.internal;
+
+import lombok.NonNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.lang.System.arraycopy;
+
+/**
+ * Assigns sequential {@code int}s to view type objects, starting from {@code 0}. View types are compared by identity
+ * first, so resolving one that has been seen before requires no boxing, and no calls to its {@code hashCode} or {@code
+ * equals}. A view type that is equal to, but not the same instance as, one seen before resolves to the same {@code
+ * int}, at the cost of an equality-based lookup each time. View types are retained for the lifetime of the registry.
+ * Not thread-safe.
+ * @hide Not intended for public use.
+ */
+public final class ViewTypeRegistry {
+
+    /** Must be a power of two. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Identity hash table of view types, using linear probing. Kept at most half full. */
+    @NonNull
+    private Object[] mKeys = new Object[INITIAL_CAPACITY];
+
+    @NonNull
+    private int[] mValues = new int[INITIAL_CAPACITY];
+
+    /** View types, indexed by their {@code int}. */
+    @NonNull
+    private Object[] mViewTypes = new Object[INITIAL_CAPACITY];
+
+    /** View types by equality, only consulted when a view type isn't found by identity. */
+    @NonNull
+    private final Map<Object, Integer> mEquivalents = new HashMap<>();
+
+    private int mSize;
+
+    /** Returns the {@code int} assigned to the specified view type, assigning the next one if it hasn't been seen. */
+    public int toInt(@NonNull Object viewType) {
+        Object[] keys = mKeys;
+        int mask = keys.length - 1;
+        for (int i = hash(viewType) & mask; ; i = (i + 1) & mask) {
+            Object key = keys[i];
+            if (key == viewType) {
+                return mValues[i];
+            }
+            if (key == null) {
+                return toIntSlow(viewType, i);
+            }
+        }
+    }
+
+    /** Returns the view type assigned the specified {@code int}. */
+    @NonNull
+    public Object toObject(int viewTypeInt) {
+        if (viewTypeInt < 0 || viewTypeInt >= mSize) {
+            throw new IndexOutOfBoundsException("View type " + viewTypeInt + ", size " + mSize);
+        }
+        return mViewTypes[viewTypeInt];
+    }
+
+    /** Returns the number of distinct view types seen, which is also the next {@code int} to be assigned. */
+    public int size() {
+        return mSize;
+    }
+
+    private int toIntSlow(@NonNull Object viewType, int slot) {
+        Integer equivalent = mEquivalents.get(viewType);
+        if (equivalent != null) {
+            // Not recorded by identity, since an adapter may return a new but equal instance every time.
+            return equivalent;
+        }
+        int viewTypeInt = mSize++;
+        if (viewTypeInt == mViewTypes.length) {
+            Object[] viewTypes = new Object[viewTypeInt * 2];
+            arraycopy(mViewTypes, 0, viewTypes, 0, viewTypeInt);
+            mViewTypes = viewTypes;
+        }
+        mViewTypes[viewTypeInt] = viewType;
+        mEquivalents.put(viewType, viewTypeInt);
+        mKeys[slot] = viewType;
+        mValues[slot] = viewTypeInt;
+        if (mSize * 2 > mKeys.length) {
+            resize();
+        }
+        return viewTypeInt;
+    }
+
+    private void resize() {
+        Object[] oldKeys = mKeys;
+        int[] oldValues = mValues;
+        Object[] keys = new Object[oldKeys.length * 2];
+        int[] values = new int[keys.length];
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            Object key = oldKeys[j];
+            if (key != null) {
+                int i = hash(key) & mask;
+                while (keys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                values[i] = oldValues[j];
+            }
+        }
+        mKeys = keys;
+        mValues = values;
+    }
+
+    private static int hash(@NonNull Object o) {
+        // Spread the bits of the identity hash code, since only the low bits select a slot.
+        int h = System.identityHashCode(o) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -156,6 +156,30 @@ public final class ConcatAdapterTest {
         assertThat(innerHolder.getPosition()).isEqualTo(1);
     }
 
+    @Test
+    public void childBindViewReusesInnerHolder() {
+        TestHolder holder = new TestHolder(8);
+        mConcatAdapter.bindView(mItemView, holder);
+        mConcatAdapter.bindView(mItemView, holder);
+        ArgumentCaptor<Holder> captor = ArgumentCaptor.forClass(Holder.class);
+        verify(mChildAdapters.get(2), times(2)).bindView(eq(mItemView), captor.capture());
+        assertThat(captor.getAllValues().get(1)).isSameAs(captor.getAllValues().get(0));
+    }
+
+    @Test
+    public void childBindViewReusesInnerHolderAcrossChildren() {
+        TestHolder holder = new TestHolder(8);
+        mConcatAdapter.bindView(mItemView, holder);
+        holder.setPosition(4);
+        mConcatAdapter.bindView(mItemView, holder);
+        ArgumentCaptor<Holder> captor2 = ArgumentCaptor.forClass(Holder.class);
+        verify(mChildAdapters.get(2)).bindView(eq(mItemView), captor2.capture());
+        ArgumentCaptor<Holder> captor1 = ArgumentCaptor.forClass(Holder.class);
+        verify(mChildAdapters.get(1)).bindView(eq(mItemView), captor1.capture());
+        assertThat(captor1.getValue()).isSameAs(captor2.getValue());
+        assertThat(captor1.getValue().getPosition()).isEqualTo(1);
+    }
+
     @NonNull
     private Holder bindViewAndReturnInnerHolder(@NonNull PowerAdapter adapter, @NonNull Holder topLevelHolder) {
         mConcatAdapter.bindView(mItemView, topLevelHolder);
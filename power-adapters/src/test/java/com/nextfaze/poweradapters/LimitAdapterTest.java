@@ -1,7 +1,6 @@
 package com.nextfaze.poweradapters;
 
 import org.junit.Before;
-import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -260,17 +259,36 @@ public final class LimitAdapterTest {
         verifyNoMoreInteractions(mObserver);
     }
 
-    @Ignore
     @Test
     public void moveOutOfBoundsDropped() {
-        // TODO: Check that a move that's entirely out of bounds results in no notification.
-        throw new UnsupportedOperationException();
+        mFakeAdapter.move(6, 8, 2);
+        verifyState(5);
+        verifyZeroInteractions(mObserver);
     }
 
     @Test
-    public void moveNotifiesOfChange() {
+    public void moveWithinBoundsForwarded() {
         mFakeAdapter.move(0, 1, 1);
-        verify(mObserver).onChanged();
+        verifyState(5);
+        verify(mObserver).onItemRangeMoved(0, 1, 1);
+        verifyNoMoreInteractions(mObserver);
+    }
+
+    @Test
+    public void moveForwardsBoundaryStraddlingBrokenIntoRemoveAndInsert() {
+        mFakeAdapter.move(3, 6, 2);
+        verifyState(5);
+        verify(mObserver).onItemRangeRemoved(3, 2);
+        verify(mObserver).onItemRangeInserted(3, 2);
+        verifyNoMoreInteractions(mObserver);
+    }
+
+    @Test
+    public void moveBackwardsBoundaryStraddlingBrokenIntoRemoveAndInsert() {
+        mFakeAdapter.move(7, 1, 2);
+        verifyState(5);
+        verify(mObserver).onItemRangeRemoved(3, 2);
+        verify(mObserver).onItemRangeInserted(1, 2);
         verifyNoMoreInteractions(mObserver);
     }
 
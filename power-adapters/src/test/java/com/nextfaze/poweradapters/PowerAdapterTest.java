@@ -4,6 +4,7 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 import org.robolectric.RobolectricGradleTestRunner;
@@ -160,4 +161,176 @@ public final class PowerAdapterTest {
         mAdapter.notifyItemRangeMoved(3, 7, 0);
         verifyZeroInteractions(observer);
     }
+
+    @Test
+    public void batchDefersNotificationsUntilEnd() {
+        DataObserver observer = mock(DataObserver.class);
+        mAdapter.registerDataObserver(observer);
+        mAdapter.beginBatch();
+        mAdapter.notifyItemInserted(5);
+        verifyZeroInteractions(observer);
+        mAdapter.endBatch();
+        verify(observer).onItemRangeInserted(5, 1);
+        verifyNoMoreInteractions(observer);
+    }
+
+    @Test
+    public void batchCoalescesAdjacentInsertions() {
+        DataObserver observer = mock(DataObserver.class);
+        mAdapter.registerDataObserver(observer);
+        mAdapter.beginBatch();
+        mAdapter.notifyItemInserted(5);
+        mAdapter.notifyItemInserted(6);
+        mAdapter.notifyItemRangeInserted(5, 2);
+        mAdapter.endBatch();
+        verify(observer).onItemRangeInserted(5, 4);
+        verifyNoMoreInteractions(observer);
+    }
+
+    @Test
+    public void batchCoalescesSuccessiveRemovals() {
+        DataObserver observer = mock(DataObserver.class);
+        mAdapter.registerDataObserver(observer);
+        mAdapter.beginBatch();
+        mAdapter.notifyItemRemoved(5);
+        mAdapter.notifyItemRemoved(5);
+        mAdapter.notifyItemRemoved(4);
+        mAdapter.endBatch();
+        verify(observer).onItemRangeRemoved(4, 3);
+        verifyNoMoreInteractions(observer);
+    }
+
+    @Test
+    public void batchCoalescesOverlappingChanges() {
+        DataObserver observer = mock(DataObserver.class);
+        mAdapter.registerDataObserver(observer);
+        mAdapter.beginBatch();
+        mAdapter.notifyItemRangeChanged(3, 4);
+        mAdapter.notifyItemRangeChanged(1, 3);
+        mAdapter.notifyItemChanged(7);
+        mAdapter.endBatch();
+        verify(observer).onItemRangeChanged(1, 7);
+        verifyNoMoreInteractions(observer);
+    }
+
+    @Test
+    public void batchRemovalOfInsertedItemsShrinksInsertion() {
+        DataObserver observer = mock(DataObserver.class);
+        mAdapter.registerDataObserver(observer);
+        mAdapter.beginBatch();
+        mAdapter.notifyItemRangeInserted(2, 5);
+        mAdapter.notifyItemChanged(3);
+        mAdapter.notifyItemRangeRemoved(4, 2);
+        mAdapter.endBatch();
+        verify(observer).onItemRangeInserted(2, 3);
+        verifyNoMoreInteractions(observer);
+    }
+
+    @Test
+    public void batchDispatchesUnmergeableNotificationsInOrder() {
+        DataObserver observer = mock(DataObserver.class);
+        mAdapter.registerDataObserver(observer);
+        mAdapter.beginBatch();
+        mAdapter.notifyItemInserted(0);
+        mAdapter.notifyItemRemoved(10);
+        mAdapter.notifyItemMoved(3, 1);
+        mAdapter.notifyItemInserted(1);
+        mAdapter.endBatch();
+        InOrder inOrder = inOrder(observer);
+        inOrder.verify(observer).onItemRangeInserted(0, 1);
+        inOrder.verify(observer).onItemRangeRemoved(10, 1);
+        inOrder.verify(observer).onItemRangeMoved(3, 1, 1);
+        inOrder.verify(observer).onItemRangeInserted(1, 1);
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void batchDispatchesDeferredNotificationsAtPointOfDivergence() {
+        DataObserver observer = mock(DataObserver.class);
+        mAdapter.registerDataObserver(observer);
+        mAdapter.beginBatch();
+        mAdapter.notifyItemInserted(0);
+        mAdapter.notifyItemInserted(1);
+        verifyZeroInteractions(observer);
+        mAdapter.notifyItemRemoved(10);
+        verify(observer).onItemRangeInserted(0, 2);
+        verifyNoMoreInteractions(observer);
+        mAdapter.endBatch();
+        verify(observer).onItemRangeRemoved(10, 1);
+        verifyNoMoreInteractions(observer);
+    }
+
+    @Test
+    public void batchOfInsertionAndChangeDispatchesBothInOrder() {
+        DataObserver observer = mock(DataObserver.class);
+        mAdapter.registerDataObserver(observer);
+        mAdapter.beginBatch();
+        mAdapter.notifyItemRangeInserted(10, 2);
+        mAdapter.notifyItemChanged(0);
+        mAdapter.endBatch();
+        InOrder inOrder = inOrder(observer);
+        inOrder.verify(observer).onItemRangeInserted(10, 2);
+        inOrder.verify(observer).onItemRangeChanged(0, 1);
+        inOrder.verifyNoMoreInteractions();
+        verify(observer, never()).onChanged();
+    }
+
+    @Test
+    public void insertionAndChangeOutsideBatchDispatchedInFull() {
+        DataObserver observer = mock(DataObserver.class);
+        mAdapter.registerDataObserver(observer);
+        mAdapter.notifyItemRangeInserted(10, 2);
+        mAdapter.notifyItemChanged(0);
+        InOrder inOrder = inOrder(observer);
+        inOrder.verify(observer).onItemRangeInserted(10, 2);
+        inOrder.verify(observer).onItemRangeChanged(0, 1);
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void batchPreservesOrderOfUnmergeableChanges() {
+        DataObserver observer = mock(DataObserver.class);
+        mAdapter.registerDataObserver(observer);
+        mAdapter.beginBatch();
+        mAdapter.notifyItemChanged(8);
+        mAdapter.notifyItemChanged(2);
+        mAdapter.endBatch();
+        InOrder inOrder = inOrder(observer);
+        inOrder.verify(observer).onItemRangeChanged(8, 1);
+        inOrder.verify(observer).onItemRangeChanged(2, 1);
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void nestedBatchDispatchesWhenOutermostBatchEnds() {
+        DataObserver observer = mock(DataObserver.class);
+        mAdapter.registerDataObserver(observer);
+        mAdapter.beginBatch();
+        mAdapter.beginBatch();
+        mAdapter.notifyItemInserted(0);
+        mAdapter.endBatch();
+        verifyZeroInteractions(observer);
+        mAdapter.notifyItemInserted(1);
+        mAdapter.endBatch();
+        verify(observer).onItemRangeInserted(0, 2);
+        verifyNoMoreInteractions(observer);
+    }
+
+    @Test
+    public void batchDataSetChangedSupersedesOtherNotifications() {
+        DataObserver observer = mock(DataObserver.class);
+        mAdapter.registerDataObserver(observer);
+        mAdapter.beginBatch();
+        mAdapter.notifyItemInserted(0);
+        mAdapter.notifyDataSetChanged();
+        mAdapter.notifyItemRemoved(3);
+        mAdapter.endBatch();
+        verify(observer).onChanged();
+        verifyNoMoreInteractions(observer);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void endBatchWithoutBeginThrows() {
+        mAdapter.endBatch();
+    }
 }
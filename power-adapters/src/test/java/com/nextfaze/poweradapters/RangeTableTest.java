@@ -0,0 +1,91 @@
+package com.nextfaze.poweradapters;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public final class RangeTableTest {
+
+    private RangeTable mRangeTable;
+
+    @Before
+    public void setUp() throws Exception {
+        mRangeTable = new RangeTable();
+        mRangeTable.rebuild(rangeClient(3, 0, 4, 0, 5));
+    }
+
+    @Test
+    public void rebuildReturnsTotal() {
+        assertThat(mRangeTable.rebuild(rangeClient(3, 0, 4, 0, 5))).isEqualTo(12);
+        assertThat(mRangeTable.getTotal()).isEqualTo(12);
+    }
+
+    @Test
+    public void offsetsAreSumOfPrecedingCounts() {
+        assertThat(mRangeTable.getOffset(0)).isEqualTo(0);
+        assertThat(mRangeTable.getOffset(1)).isEqualTo(3);
+        assertThat(mRangeTable.getOffset(2)).isEqualTo(3);
+        assertThat(mRangeTable.getOffset(3)).isEqualTo(7);
+        assertThat(mRangeTable.getOffset(4)).isEqualTo(7);
+        assertThat(mRangeTable.getOffset(5)).isEqualTo(12);
+    }
+
+    @Test
+    public void findPositionSkipsEmptyRanges() {
+        assertFindPositions(0, 0, 0, 2, 2, 2, 2, 4, 4, 4, 4, 4);
+    }
+
+    @Test
+    public void adjustUpdatesSubsequentOffsets() {
+        assertThat(mRangeTable.adjustRangeCount(1, 2)).isEqualTo(14);
+        assertThat(mRangeTable.getOffset(2)).isEqualTo(5);
+        assertThat(mRangeTable.getOffset(4)).isEqualTo(9);
+        assertFindPositions(0, 0, 0, 1, 1, 2, 2, 2, 2, 4, 4, 4, 4, 4);
+    }
+
+    @Test
+    public void setRangeCountToZeroRemovesRange() {
+        assertThat(mRangeTable.setRangeCount(2, 0)).isEqualTo(8);
+        assertFindPositions(0, 0, 0, 4, 4, 4, 4, 4);
+    }
+
+    @Test
+    public void rebuildWithFewerRangesDiscardsOldCounts() {
+        mRangeTable.rebuild(rangeClient(1, 1));
+        assertThat(mRangeTable.size()).isEqualTo(2);
+        assertThat(mRangeTable.getTotal()).isEqualTo(2);
+        assertFindPositions(0, 1);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void findPositionOutOfBoundsThrows() {
+        mRangeTable.findPosition(12);
+    }
+
+    private void assertFindPositions(int... expectedPositions) {
+        assertThat(mRangeTable.getTotal()).isEqualTo(expectedPositions.length);
+        for (int i = 0; i < expectedPositions.length; i++) {
+            assertThat(mRangeTable.findPosition(i)).isEqualTo(expectedPositions[i]);
+        }
+    }
+
+    private static RangeTable.RangeClient rangeClient(final int... counts) {
+        return new RangeTable.RangeClient() {
+            @Override
+            public int size() {
+                return counts.length;
+            }
+
+            @Override
+            public int getRangeCount(int position) {
+                return counts[position];
+            }
+        };
+    }
+}
@@ -1,6 +1,8 @@
 package com.nextfaze.poweradapters;
 
-final class TestHolder implements Holder {
+import com.nextfaze.poweradapters.internal.AbstractHolder;
+
+final class TestHolder extends AbstractHolder {
 
     private int mPosition;
 
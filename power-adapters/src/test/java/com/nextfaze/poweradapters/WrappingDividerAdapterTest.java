@@ -96,6 +96,35 @@ public final class WrappingDividerAdapterTest {
         verify(mObserver).onChanged();
     }
 
+    @Test
+    public void innerItemCountNotQueriedWhileObserved() {
+        final int[] getItemCountCalls = new int[1];
+        mFakeAdapter = new FakeAdapter(5) {
+            @Override
+            public int getItemCount() {
+                getItemCountCalls[0]++;
+                return super.getItemCount();
+            }
+        };
+        mDividerAdapter = new DividerAdapterBuilder()
+                .innerResource(RESOURCE)
+                .outerResource(RESOURCE)
+                .emptyPolicy(SHOW_LEADING_AND_TRAILING)
+                .build(mFakeAdapter);
+        mDividerAdapter.registerDataObserver(mObserver);
+        getItemCountCalls[0] = 0;
+        mFakeAdapter.insert(5, 3);
+        mFakeAdapter.remove(0, 8);
+        mFakeAdapter.insert(0, 2);
+        assertThat(mDividerAdapter.getItemCount()).isEqualTo(2);
+        for (int i = 0; i < mDividerAdapter.getItemCount(); i++) {
+            mDividerAdapter.getItemViewType(i);
+            mDividerAdapter.isEnabled(i);
+            mDividerAdapter.getItemId(i);
+        }
+        assertThat(getItemCountCalls[0]).isEqualTo(0);
+    }
+
     @Test
     public void removeToEmptyShowNothing() {
         configure(5, SHOW_NOTHING);
@@ -0,0 +1,222 @@
+package com.nextfaze.poweradapters.binding;
+
+import android.view.View;
+import com.nextfaze.poweradapters.BuildConfig;
+import com.nextfaze.poweradapters.DataObserver;
+import com.nextfaze.poweradapters.Holder;
+import com.nextfaze.poweradapters.internal.AbstractHolder;
+import lombok.NonNull;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.Arrays.asList;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public final class BindingAdapterTest {
+
+    @Rule
+    public MockitoRule mMockito = MockitoJUnit.rule();
+
+    @Mock
+    private Mapper mMapper;
+
+    @Mock
+    private Binder<Object, View> mBinder;
+
+    @Mock
+    private DataObserver mObserver;
+
+    private FakeBindingAdapter mAdapter;
+
+    private View mItemView;
+
+    @Before
+    public void setUp() throws Exception {
+        doReturn(mBinder).when(mMapper).getBinder(any(), anyInt());
+        when(mBinder.getViewType(any(), anyInt())).thenReturn("viewType");
+        mAdapter = new FakeBindingAdapter(mMapper, asList("a", "b", "c", "d", "e", "f", "g", "h", "i", "j"));
+        mItemView = new View(RuntimeEnvironment.application);
+    }
+
+    @Test
+    public void consecutiveCallsForSamePositionFetchItemAndBinderOnce() {
+        mAdapter.registerDataObserver(mObserver);
+        mAdapter.getItemViewType(2);
+        mAdapter.isEnabled(2);
+        mAdapter.getItemId(2);
+        mAdapter.bindView(mItemView, holder(2));
+        assertThat(mAdapter.getItemCalls(2)).isEqualTo(1);
+        verify(mMapper).getBinder("c", 2);
+        verify(mBinder).bindView(eq("c"), eq(mItemView), any(Holder.class));
+    }
+
+    @Test
+    public void distinctSlotsCachedIndependently() {
+        mAdapter.registerDataObserver(mObserver);
+        mAdapter.getItemViewType(0);
+        mAdapter.getItemViewType(1);
+        mAdapter.getItemViewType(0);
+        mAdapter.getItemViewType(1);
+        assertThat(mAdapter.getItemCalls(0)).isEqualTo(1);
+        assertThat(mAdapter.getItemCalls(1)).isEqualTo(1);
+        verify(mMapper).getBinder("a", 0);
+        verify(mMapper).getBinder("b", 1);
+    }
+
+    @Test
+    public void collidingPositionEvictsCachedPosition() {
+        mAdapter.registerDataObserver(mObserver);
+        mAdapter.getItemViewType(0);
+        mAdapter.getItemViewType(8);
+        mAdapter.getItemViewType(0);
+        assertThat(mAdapter.getItemCalls(0)).isEqualTo(2);
+        assertThat(mAdapter.getItemCalls(8)).isEqualTo(1);
+        verify(mMapper, times(2)).getBinder("a", 0);
+    }
+
+    @Test
+    public void changeNotificationInvalidatesCache() {
+        mAdapter.registerDataObserver(mObserver);
+        mAdapter.getItemViewType(0);
+        mAdapter.set(0, "z");
+        mAdapter.getItemViewType(0);
+        assertThat(mAdapter.getItemCalls(0)).isEqualTo(2);
+        verify(mBinder).getViewType("a", 0);
+        verify(mBinder).getViewType("z", 0);
+    }
+
+    @Test
+    public void insertNotificationInvalidatesCache() {
+        mAdapter.registerDataObserver(mObserver);
+        mAdapter.getItemId(1);
+        mAdapter.insert(0, "z");
+        mAdapter.getItemId(1);
+        verify(mBinder).getItemId("b", 1);
+        verify(mBinder).getItemId("a", 1);
+    }
+
+    @Test
+    public void removeNotificationInvalidatesCache() {
+        mAdapter.registerDataObserver(mObserver);
+        mAdapter.isEnabled(1);
+        mAdapter.remove(0);
+        mAdapter.isEnabled(1);
+        verify(mBinder).isEnabled("b", 1);
+        verify(mBinder).isEnabled("c", 1);
+    }
+
+    @Test
+    public void cacheBypassedWhileUnobserved() {
+        mAdapter.getItemViewType(0);
+        mAdapter.getItemViewType(0);
+        assertThat(mAdapter.getItemCalls(0)).isEqualTo(2);
+        verify(mMapper, times(2)).getBinder("a", 0);
+    }
+
+    @Test
+    public void cacheBypassedAfterObserversUnregister() {
+        mAdapter.registerDataObserver(mObserver);
+        mAdapter.getItemViewType(0);
+        mAdapter.unregisterDataObserver(mObserver);
+        // Unobserved adapters aren't obliged to notify of changes.
+        mAdapter.setWithoutNotifying(0, "z");
+        mAdapter.getItemViewType(0);
+        mAdapter.registerDataObserver(mObserver);
+        mAdapter.getItemViewType(0);
+        verify(mBinder).getViewType("a", 0);
+        verify(mBinder, times(2)).getViewType("z", 0);
+    }
+
+    @Test
+    public void cacheNotReusedAfterReregistration() {
+        mAdapter.registerDataObserver(mObserver);
+        mAdapter.getItemViewType(0);
+        mAdapter.unregisterDataObserver(mObserver);
+        mAdapter.setWithoutNotifying(0, "z");
+        mAdapter.registerDataObserver(mObserver);
+        mAdapter.getItemViewType(0);
+        verify(mBinder).getViewType("a", 0);
+        verify(mBinder).getViewType("z", 0);
+    }
+
+    @NonNull
+    private static Holder holder(final int position) {
+        return new AbstractHolder() {
+            @Override
+            public int getPosition() {
+                return position;
+            }
+        };
+    }
+
+    private static final class FakeBindingAdapter extends BindingAdapter {
+
+        @NonNull
+        private final List<Object> mItems;
+
+        @NonNull
+        private final List<Integer> mGetItemPositions = new ArrayList<>();
+
+        FakeBindingAdapter(@NonNull Mapper mapper, @NonNull List<?> items) {
+            super(mapper);
+            mItems = new ArrayList<Object>(items);
+        }
+
+        @Override
+        public int getItemCount() {
+            return mItems.size();
+        }
+
+        @NonNull
+        @Override
+        protected Object getItem(int position) {
+            mGetItemPositions.add(position);
+            return mItems.get(position);
+        }
+
+        int getItemCalls(int position) {
+            int calls = 0;
+            for (int p : mGetItemPositions) {
+                if (p == position) {
+                    calls++;
+                }
+            }
+            return calls;
+        }
+
+        void set(int position, @NonNull Object item) {
+            mItems.set(position, item);
+            notifyItemChanged(position);
+        }
+
+        void setWithoutNotifying(int position, @NonNull Object item) {
+            mItems.set(position, item);
+        }
+
+        void insert(int position, @NonNull Object item) {
+            mItems.add(position, item);
+            notifyItemInserted(position);
+        }
+
+        void remove(int position) {
+            mItems.remove(position);
+            notifyItemRemoved(position);
+        }
+    }
+}
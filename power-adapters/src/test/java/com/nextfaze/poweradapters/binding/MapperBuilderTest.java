@@ -0,0 +1,186 @@
+package com.nextfaze.poweradapters.binding;
+
+import android.view.View;
+import com.nextfaze.poweradapters.BuildConfig;
+import com.nextfaze.poweradapters.Predicate;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public final class MapperBuilderTest {
+
+    @Rule
+    public MockitoRule mMockito = MockitoJUnit.rule();
+
+    @Mock
+    private Binder<Object, View> mBinder1;
+
+    @Mock
+    private Binder<Object, View> mBinder2;
+
+    @Mock
+    private Binder<Object, View> mBinder3;
+
+    private MapperBuilder mBuilder;
+
+    @Before
+    public void setUp() throws Exception {
+        mBuilder = new MapperBuilder();
+    }
+
+    @Test
+    public void classRulesEvaluatedBeforeSuperclassRules() {
+        Mapper mapper = mBuilder
+                .bind(Number.class, mBinder1)
+                .bind(Integer.class, mBinder2)
+                .build();
+        assertThat(mapper.getBinder(1, 0)).isSameAs(mBinder2);
+        assertThat(mapper.getBinder(1L, 0)).isSameAs(mBinder1);
+    }
+
+    @Test
+    public void rulesForSameClassEvaluatedInBindingOrder() {
+        Mapper mapper = mBuilder
+                .bind(Integer.class, mBinder1)
+                .bind(Integer.class, mBinder2)
+                .build();
+        assertThat(mapper.getBinder(1, 0)).isSameAs(mBinder1);
+    }
+
+    @Test
+    public void failingPredicateFallsThroughToSuperclassRules() {
+        Mapper mapper = mBuilder
+                .bind(Object.class, mBinder3)
+                .bind(Number.class, mBinder2, new Predicate<Number>() {
+                    @Override
+                    public boolean apply(Number number) {
+                        return number.intValue() > 0;
+                    }
+                })
+                .bind(Integer.class, mBinder1, new Predicate<Integer>() {
+                    @Override
+                    public boolean apply(Integer integer) {
+                        return integer > 10;
+                    }
+                })
+                .build();
+        assertThat(mapper.getBinder(11, 0)).isSameAs(mBinder1);
+        assertThat(mapper.getBinder(5, 0)).isSameAs(mBinder2);
+        assertThat(mapper.getBinder(-5, 0)).isSameAs(mBinder3);
+    }
+
+    @Test
+    public void interfaceRulesMatch() {
+        Mapper mapper = mBuilder
+                .bind(Comparable.class, mBinder1)
+                .bind(CharSequence.class, mBinder2)
+                .build();
+        assertThat(mapper.getBinder(1, 0)).isSameAs(mBinder1);
+        assertThat(mapper.getBinder(new StringBuilder(), 0)).isSameAs(mBinder2);
+    }
+
+    @Test
+    public void classRulesEvaluatedBeforeInterfaceRules() {
+        Mapper mapper = mBuilder
+                .bind(Comparable.class, mBinder1)
+                .bind(Integer.class, mBinder2)
+                .build();
+        assertThat(mapper.getBinder(1, 0)).isSameAs(mBinder2);
+        assertThat(mapper.getBinder(1L, 0)).isSameAs(mBinder1);
+    }
+
+    @Test
+    public void superclassRulesEvaluatedBeforeInterfaceRules() {
+        Mapper mapper = mBuilder
+                .bind(Comparable.class, mBinder1)
+                .bind(Number.class, mBinder2)
+                .build();
+        assertThat(mapper.getBinder(1, 0)).isSameAs(mBinder2);
+    }
+
+    @Test
+    public void failingClassPredicateFallsThroughToInterfaceRules() {
+        Mapper mapper = mBuilder
+                .bind(Comparable.class, mBinder1)
+                .bind(Integer.class, mBinder2, new Predicate<Integer>() {
+                    @Override
+                    public boolean apply(Integer integer) {
+                        return integer > 0;
+                    }
+                })
+                .build();
+        assertThat(mapper.getBinder(1, 0)).isSameAs(mBinder2);
+        assertThat(mapper.getBinder(-1, 0)).isSameAs(mBinder1);
+    }
+
+    @Test
+    public void unmappedClassReturnsNull() {
+        Mapper mapper = mBuilder
+                .bind(Integer.class, mBinder1)
+                .build();
+        assertThat(mapper.getBinder("a", 0)).isNull();
+        assertThat(mapper.getBinder("a", 0)).isNull();
+    }
+
+    @Test
+    public void predicatesEvaluatedForEveryItemOfCachedClass() {
+        final List<Integer> evaluated = new ArrayList<>();
+        Mapper mapper = mBuilder
+                .bind(Integer.class, mBinder1, new Predicate<Integer>() {
+                    @Override
+                    public boolean apply(Integer integer) {
+                        evaluated.add(integer);
+                        return integer % 2 == 0;
+                    }
+                })
+                .bind(Integer.class, mBinder2)
+                .build();
+        assertThat(mapper.getBinder(2, 0)).isSameAs(mBinder1);
+        assertThat(mapper.getBinder(3, 1)).isSameAs(mBinder2);
+        assertThat(mapper.getBinder(4, 2)).isSameAs(mBinder1);
+        assertThat(evaluated).containsExactly(2, 3, 4).inOrder();
+    }
+
+    @Test
+    public void subclassesResolvedIndependently() {
+        Mapper mapper = mBuilder
+                .bind(Number.class, mBinder1)
+                .bind(Long.class, mBinder2)
+                .build();
+        assertThat(mapper.getBinder(1, 0)).isSameAs(mBinder1);
+        assertThat(mapper.getBinder(1L, 0)).isSameAs(mBinder2);
+        assertThat(mapper.getBinder(1, 0)).isSameAs(mBinder1);
+        assertThat(mapper.getBinder(1f, 0)).isSameAs(mBinder1);
+    }
+
+    @Test
+    public void bindingAfterBuildDoesNotAffectMapper() {
+        Mapper mapper = mBuilder
+                .bind(Integer.class, mBinder1, new Predicate<Integer>() {
+                    @Override
+                    public boolean apply(Integer integer) {
+                        return integer > 0;
+                    }
+                })
+                .build();
+        assertThat(mapper.getBinder(-1, 0)).isNull();
+        mBuilder.bind(Integer.class, mBinder2);
+        mBuilder.bind(Long.class, mBinder2);
+        assertThat(mapper.getBinder(-1, 0)).isNull();
+        assertThat(mapper.getBinder(-1L, 0)).isNull();
+        assertThat(mapper.getAllBinders()).containsExactly(mBinder1);
+    }
+}
@@ -0,0 +1,224 @@
+package com.nextfaze.poweradapters.internal;
+
+import com.nextfaze.poweradapters.BuildConfig;
+import com.nextfaze.poweradapters.DataObserver;
+import com.nextfaze.poweradapters.Equivalence;
+import com.nextfaze.poweradapters.SimpleDataObserver;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.Arrays.asList;
+import static org.mockito.Mockito.*;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public final class NotifyingArrayListTest {
+
+    /** Elements with the same first character are the same item. */
+    private static final Equivalence<String> FIRST_CHARACTER = new Equivalence<String>() {
+        @Override
+        public boolean isSameItem(String a, String b) {
+            return a.charAt(0) == b.charAt(0);
+        }
+
+        @Override
+        public boolean isSameContent(String a, String b) {
+            return a.equals(b);
+        }
+    };
+
+    @Rule
+    public MockitoRule mMockito = MockitoJUnit.rule();
+
+    @Mock
+    private DataObserver mObserver;
+
+    private DataObservable mDataObservable;
+
+    private NotifyingArrayList<String> mList;
+
+    @Before
+    public void setUp() throws Exception {
+        mDataObservable = new DataObservable();
+        mList = new NotifyingArrayList<>(mDataObservable);
+        mList.addAll(asList("a", "b", "c", "d", "e"));
+        mDataObservable.registerObserver(mObserver);
+    }
+
+    @Test
+    public void replaceAllWithoutEquivalenceNotifiesOfChange() {
+        mList.replaceAll(asList("a", "b", "c"));
+        assertThat(mList).containsExactly("a", "b", "c").inOrder();
+        verify(mObserver).onItemRangeChanged(0, 3);
+        verify(mObserver).onItemRangeRemoved(3, 2);
+        verifyNoMoreInteractions(mObserver);
+    }
+
+    @Test
+    public void replaceAllWithIdenticalContentsDoesNotNotify() {
+        mList.replaceAll(asList("a", "b", "c", "d", "e"), FIRST_CHARACTER);
+        assertThat(mList).containsExactly("a", "b", "c", "d", "e").inOrder();
+        verifyZeroInteractions(mObserver);
+    }
+
+    @Test
+    public void replaceAllNotifiesOfRemoval() {
+        mList.replaceAll(asList("a", "d", "e"), FIRST_CHARACTER);
+        assertThat(mList).containsExactly("a", "d", "e").inOrder();
+        verify(mObserver).onItemRangeRemoved(1, 2);
+        verifyNoMoreInteractions(mObserver);
+    }
+
+    @Test
+    public void replaceAllNotifiesOfInsertion() {
+        mList.replaceAll(asList("a", "b", "x", "y", "c", "d", "e", "z"), FIRST_CHARACTER);
+        assertThat(mList).containsExactly("a", "b", "x", "y", "c", "d", "e", "z").inOrder();
+        verify(mObserver).onItemRangeInserted(2, 2);
+        verify(mObserver).onItemRangeInserted(7, 1);
+        verifyNoMoreInteractions(mObserver);
+    }
+
+    @Test
+    public void replaceAllNotifiesOfMove() {
+        mList.replaceAll(asList("b", "c", "d", "e", "a"), FIRST_CHARACTER);
+        assertThat(mList).containsExactly("b", "c", "d", "e", "a").inOrder();
+        verify(mObserver).onItemRangeMoved(0, 4, 1);
+        verifyNoMoreInteractions(mObserver);
+    }
+
+    @Test
+    public void replaceAllNotifiesOfChange() {
+        mList.replaceAll(asList("a", "b2", "c2", "d", "e2"), FIRST_CHARACTER);
+        assertThat(mList).containsExactly("a", "b2", "c2", "d", "e2").inOrder();
+        verify(mObserver).onItemRangeChanged(1, 2);
+        verify(mObserver).onItemRangeChanged(4, 1);
+        verifyNoMoreInteractions(mObserver);
+    }
+
+    @Test
+    public void replaceAllNotifiesInDispatchOrder() {
+        mList.replaceAll(asList("e", "a2", "x", "c", "d"), FIRST_CHARACTER);
+        assertThat(mList).containsExactly("e", "a2", "x", "c", "d").inOrder();
+        InOrder inOrder = inOrder(mObserver);
+        inOrder.verify(mObserver).onItemRangeRemoved(1, 1);
+        inOrder.verify(mObserver).onItemRangeMoved(3, 0, 1);
+        inOrder.verify(mObserver).onItemRangeInserted(2, 1);
+        inOrder.verify(mObserver).onItemRangeChanged(1, 1);
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void replaceAllWithEquivalentInstancesUpdatesSnapshot() {
+        mList.snapshot();
+        String b = new String("b");
+        mList.replaceAll(asList("a", b, "c", "d", "e"), FIRST_CHARACTER);
+        verifyZeroInteractions(mObserver);
+        assertThat(mList.snapshot().get(1)).isSameAs(b);
+    }
+
+    @Test
+    public void replaceAllWithIdenticalInstancesRetainsSnapshot() {
+        List<String> snapshot = mList.snapshot();
+        int modificationCount = mList.getModificationCount();
+        mList.replaceAll(asList("a", "b", "c", "d", "e"), FIRST_CHARACTER);
+        assertThat(mList.getModificationCount()).isEqualTo(modificationCount);
+        assertThat(mList.snapshot()).isSameAs(snapshot);
+    }
+
+    @Test
+    public void replaceAllNotificationsReproduceNewContents() {
+        final List<String> shadow = new ArrayList<>(mList);
+        mDataObservable.registerObserver(new DataObserver() {
+            @Override
+            public void onChanged() {
+                throw new AssertionError("Unexpected coarse-grained notification");
+            }
+
+            @Override
+            public void onItemRangeChanged(int positionStart, int itemCount) {
+                for (int i = positionStart; i < positionStart + itemCount; i++) {
+                    shadow.set(i, mList.get(i));
+                }
+            }
+
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                for (int i = positionStart; i < positionStart + itemCount; i++) {
+                    shadow.add(i, mList.get(i));
+                }
+            }
+
+            @Override
+            public void onItemRangeRemoved(int positionStart, int itemCount) {
+                shadow.subList(positionStart, positionStart + itemCount).clear();
+            }
+
+            @Override
+            public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+                assertThat(itemCount).isEqualTo(1);
+                shadow.add(toPosition, shadow.remove(fromPosition));
+            }
+        });
+        Random random = new Random(1);
+        for (int i = 0; i < 200; i++) {
+            List<String> newContents = new ArrayList<>();
+            for (char c = 'a'; c <= 'z'; c++) {
+                if (random.nextInt(3) > 0) {
+                    newContents.add(c + String.valueOf(random.nextInt(2)));
+                }
+            }
+            for (int j = 0; j < 3 && newContents.size() > 1; j++) {
+                newContents.add(random.nextInt(newContents.size()), newContents.remove(random.nextInt(newContents.size())));
+            }
+            mList.replaceAll(newContents, FIRST_CHARACTER);
+            assertThat(mList).containsExactlyElementsIn(newContents).inOrder();
+            assertThat(shadow).containsExactlyElementsIn(newContents).inOrder();
+        }
+    }
+
+    @Test
+    public void batchedMutationsNotifyConsistentlyWithSize() {
+        final int[] shadowSize = { mList.size() };
+        mDataObservable.registerObserver(new SimpleDataObserver() {
+            @Override
+            public void onChanged() {
+                throw new AssertionError("Batch collapsed to a data set change");
+            }
+
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                shadowSize[0] += itemCount;
+                assertThat(mList.size()).isEqualTo(shadowSize[0]);
+            }
+
+            @Override
+            public void onItemRangeRemoved(int positionStart, int itemCount) {
+                shadowSize[0] -= itemCount;
+                assertThat(mList.size()).isEqualTo(shadowSize[0]);
+            }
+        });
+        mDataObservable.beginBatch();
+        mList.addAll(0, asList("x", "y"));
+        mList.add("z");
+        mList.remove(0, 3);
+        mDataObservable.endBatch();
+        InOrder inOrder = inOrder(mObserver);
+        inOrder.verify(mObserver).onItemRangeInserted(0, 2);
+        inOrder.verify(mObserver).onItemRangeInserted(7, 1);
+        inOrder.verify(mObserver).onItemRangeRemoved(0, 3);
+        inOrder.verifyNoMoreInteractions();
+    }
+}
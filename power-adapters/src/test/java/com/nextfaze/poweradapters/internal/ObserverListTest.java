@@ -0,0 +1,86 @@
+package com.nextfaze.poweradapters.internal;
+
+import com.nextfaze.poweradapters.BuildConfig;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public final class ObserverListTest {
+
+    private ObserverList<String> mList;
+
+    @Before
+    public void setUp() throws Exception {
+        mList = new ObserverList<>();
+    }
+
+    @Test
+    public void registerAppends() {
+        mList.register("a");
+        mList.register("b");
+        assertThat(mList.snapshot()).asList().containsExactly("a", "b").inOrder();
+        assertThat(mList.size()).isEqualTo(2);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void registerSameInstanceTwiceThrows() {
+        String observer = "a";
+        mList.register(observer);
+        mList.register(observer);
+    }
+
+    @SuppressWarnings("RedundantStringConstructorCall")
+    @Test
+    public void registrationIsByIdentity() {
+        String a = new String("a");
+        String equalToA = new String("a");
+        mList.register(a);
+        mList.register(equalToA);
+        mList.unregister(equalToA);
+        assertThat(mList.snapshot()[0]).isSameAs(a);
+        assertThat(mList.size()).isEqualTo(1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void unregisterUnknownThrows() {
+        mList.register("a");
+        mList.unregister("b");
+    }
+
+    @Test
+    public void unregisterRemovesFromMiddle() {
+        mList.register("a");
+        mList.register("b");
+        mList.register("c");
+        mList.unregister("b");
+        assertThat(mList.snapshot()).asList().containsExactly("a", "c").inOrder();
+    }
+
+    @Test
+    public void snapshotUnaffectedByLaterRegistrationChanges() {
+        mList.register("a");
+        mList.register("b");
+        Object[] snapshot = mList.snapshot();
+        mList.unregister("a");
+        mList.register("c");
+        assertThat(snapshot).asList().containsExactly("a", "b").inOrder();
+        assertThat(mList.snapshot()).asList().containsExactly("b", "c").inOrder();
+    }
+
+    @Test
+    public void isRegisteredExcludesObserversUnregisteredSinceSnapshot() {
+        mList.register("a");
+        mList.register("b");
+        Object[] snapshot = mList.snapshot();
+        assertThat(mList.isRegistered(snapshot, "a")).isTrue();
+        mList.unregister("a");
+        assertThat(mList.isRegistered(snapshot, "a")).isFalse();
+        assertThat(mList.isRegistered(snapshot, "b")).isTrue();
+    }
+}
@@ -0,0 +1,146 @@
+package com.nextfaze.poweradapters.internal;
+
+import com.nextfaze.poweradapters.BuildConfig;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.Arrays.asList;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public final class SharedArrayListTest {
+
+    private SharedArrayList<String> mList;
+
+    @Before
+    public void setUp() throws Exception {
+        mList = new SharedArrayList<>();
+        mList.addAll(asList("a", "b", "c"));
+    }
+
+    @Test
+    public void snapshotUnaffectedByAppend() {
+        List<String> snapshot = mList.snapshot();
+        mList.add("d");
+        mList.addAll(asList("e", "f"));
+        assertThat(snapshot).containsExactly("a", "b", "c").inOrder();
+        assertThat(mList).containsExactly("a", "b", "c", "d", "e", "f").inOrder();
+    }
+
+    @Test
+    public void snapshotUnaffectedBySet() {
+        List<String> snapshot = mList.snapshot();
+        mList.set(1, "x");
+        assertThat(snapshot).containsExactly("a", "b", "c").inOrder();
+        assertThat(mList).containsExactly("a", "x", "c").inOrder();
+    }
+
+    @Test
+    public void snapshotUnaffectedByInsert() {
+        List<String> snapshot = mList.snapshot();
+        mList.add(0, "x");
+        mList.addAll(2, asList("y", "z"));
+        assertThat(snapshot).containsExactly("a", "b", "c").inOrder();
+        assertThat(mList).containsExactly("x", "a", "y", "z", "b", "c").inOrder();
+    }
+
+    @Test
+    public void snapshotUnaffectedByRemoveThenAppend() {
+        List<String> snapshot = mList.snapshot();
+        mList.remove(2);
+        mList.add("x");
+        assertThat(snapshot).containsExactly("a", "b", "c").inOrder();
+        assertThat(mList).containsExactly("a", "b", "x").inOrder();
+    }
+
+    @Test
+    public void snapshotUnaffectedByClearThenAppend() {
+        List<String> snapshot = mList.snapshot();
+        mList.clear();
+        mList.add("x");
+        assertThat(snapshot).containsExactly("a", "b", "c").inOrder();
+        assertThat(mList).containsExactly("x");
+    }
+
+    @Test
+    public void snapshotsTakenBetweenAppendsShareElements() {
+        List<String> first = mList.snapshot();
+        mList.add("d");
+        List<String> second = mList.snapshot();
+        mList.add("e");
+        mList.subList(0, 2).clear();
+        assertThat(first).containsExactly("a", "b", "c").inOrder();
+        assertThat(second).containsExactly("a", "b", "c", "d").inOrder();
+        assertThat(mList).containsExactly("c", "d", "e").inOrder();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void snapshotIsImmutable() {
+        mList.snapshot().add("x");
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void snapshotGetBeyondSizeThrows() {
+        List<String> snapshot = mList.snapshot();
+        mList.add("d");
+        snapshot.get(3);
+    }
+
+    @Test
+    public void randomModificationsMatchArrayList() {
+        Random random = new Random(1);
+        List<String> expected = new ArrayList<>(mList);
+        List<List<String>> snapshots = new ArrayList<>();
+        List<List<String>> expectedSnapshots = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            int size = expected.size();
+            String value = String.valueOf(i);
+            switch (random.nextInt(6)) {
+                case 0:
+                    mList.add(value);
+                    expected.add(value);
+                    break;
+                case 1:
+                    int index = random.nextInt(size + 1);
+                    mList.add(index, value);
+                    expected.add(index, value);
+                    break;
+                case 2:
+                    if (size > 0) {
+                        int position = random.nextInt(size);
+                        assertThat(mList.remove(position)).isEqualTo(expected.remove(position));
+                    }
+                    break;
+                case 3:
+                    if (size > 0) {
+                        int position = random.nextInt(size);
+                        mList.set(position, value);
+                        expected.set(position, value);
+                    }
+                    break;
+                case 4:
+                    int start = random.nextInt(size + 1);
+                    int end = start + random.nextInt(size - start + 1);
+                    mList.subList(start, end).clear();
+                    expected.subList(start, end).clear();
+                    break;
+                case 5:
+                    snapshots.add(mList.snapshot());
+                    expectedSnapshots.add(new ArrayList<>(expected));
+                    break;
+            }
+            assertThat(mList).containsExactlyElementsIn(expected).inOrder();
+        }
+        for (int i = 0; i < snapshots.size(); i++) {
+            assertThat(snapshots.get(i)).containsExactlyElementsIn(expectedSnapshots.get(i)).inOrder();
+        }
+    }
+}
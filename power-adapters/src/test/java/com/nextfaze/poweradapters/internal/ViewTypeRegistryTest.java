@@ -0,0 +1,69 @@
+package com.nextfaze.poweradapters.internal;
+
+import com.nextfaze.poweradapters.BuildConfig;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public final class ViewTypeRegistryTest {
+
+    private ViewTypeRegistry mRegistry;
+
+    @Before
+    public void setUp() throws Exception {
+        mRegistry = new ViewTypeRegistry();
+    }
+
+    @Test
+    public void intsAssignedSequentially() {
+        assertThat(mRegistry.toInt("a")).isEqualTo(0);
+        assertThat(mRegistry.toInt("b")).isEqualTo(1);
+        assertThat(mRegistry.toInt("c")).isEqualTo(2);
+        assertThat(mRegistry.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void sameInstanceResolvesToSameInt() {
+        Object viewType = new Object();
+        mRegistry.toInt(new Object());
+        assertThat(mRegistry.toInt(viewType)).isEqualTo(1);
+        assertThat(mRegistry.toInt(viewType)).isEqualTo(1);
+        assertThat(mRegistry.size()).isEqualTo(2);
+    }
+
+    @SuppressWarnings("RedundantStringConstructorCall")
+    @Test
+    public void equalInstanceResolvesToSameInt() {
+        String a = new String("a");
+        String equalToA = new String("a");
+        assertThat(mRegistry.toInt(a)).isEqualTo(0);
+        assertThat(mRegistry.toInt(equalToA)).isEqualTo(0);
+        assertThat(mRegistry.toObject(0)).isSameAs(a);
+        assertThat(mRegistry.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void toObjectReturnsViewType() {
+        Object[] viewTypes = new Object[100];
+        for (int i = 0; i < viewTypes.length; i++) {
+            viewTypes[i] = new Object();
+            mRegistry.toInt(viewTypes[i]);
+        }
+        for (int i = 0; i < viewTypes.length; i++) {
+            assertThat(mRegistry.toInt(viewTypes[i])).isEqualTo(i);
+            assertThat(mRegistry.toObject(i)).isSameAs(viewTypes[i]);
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void toObjectOfUnassignedIntThrows() {
+        mRegistry.toInt("a");
+        mRegistry.toObject(1);
+    }
+}